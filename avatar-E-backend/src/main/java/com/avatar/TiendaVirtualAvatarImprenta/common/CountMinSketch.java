@@ -0,0 +1,90 @@
+package com.avatar.TiendaVirtualAvatarImprenta.common;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+//count-min sketch sobre claves long: memoria fija (depth x width contadores)
+//la estimacion nunca es menor que el valor real y lo excede a lo sumo en ~ e/width del total agregado
+//solo admite sumas (delta >= 0); no es thread-safe, el que lo usa sincroniza
+public final class CountMinSketch {
+
+    //semillas fijas: el sketch guardado en disco se vuelve a leer con los mismos hashes
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int width;
+    private final long[][] counters;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length || width < 1) {
+            throw new IllegalArgumentException("depth entre 1 y " + SEEDS.length + ", width mayor a 0");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new long[depth][width];
+    }
+
+    //suma delta a la clave y devuelve la nueva estimacion
+    public long add(long key, long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("El count-min sketch solo admite sumas");
+        }
+        total += delta;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long[] counter = counters[row];
+            int column = column(key, row);
+            counter[column] += delta;
+            estimate = Math.min(estimate, counter[column]);
+        }
+        return estimate;
+    }
+
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row][column(key, row)]);
+        }
+        return estimate;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    private int column(long key, int row) {
+        //mezcla tipo splitmix64 para repartir ids consecutivos
+        long hash = key * SEEDS[row];
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return (int) ((hash >>> 1) % width);
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(depth);
+        out.writeInt(width);
+        out.writeLong(total);
+        for (long[] row : counters) {
+            for (long value : row) {
+                out.writeLong(value);
+            }
+        }
+    }
+
+    public static CountMinSketch readFrom(DataInputStream in) throws IOException {
+        CountMinSketch sketch = new CountMinSketch(in.readInt(), in.readInt());
+        sketch.total = in.readLong();
+        for (long[] row : sketch.counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = in.readLong();
+            }
+        }
+        return sketch;
+    }
+}
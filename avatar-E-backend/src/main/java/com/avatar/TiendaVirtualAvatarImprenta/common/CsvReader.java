@@ -0,0 +1,89 @@
+package com.avatar.TiendaVirtualAvatarImprenta.common;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+//lector CSV en streaming (RFC 4180): un registro a la vez, sin cargar el archivo.
+//Soporta separador configurable, campos entre comillas con separadores, comillas dobles ("") y saltos de linea
+public final class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final char separator;
+    private long lineNumber;
+    private long recordLine;
+
+    public CsvReader(Reader reader, char separator) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 1 << 16);
+        this.separator = separator;
+    }
+
+    //siguiente registro o null al final del archivo; las lineas en blanco se saltan
+    public List<String> next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isEmpty());
+        recordLine = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                //campo entre comillas que sigue en la linea siguiente
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("Comillas sin cerrar desde la linea " + recordLine);
+                }
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    //linea del archivo donde empezo el ultimo registro leido (1 = cabecera)
+    public long recordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,90 @@
+package com.avatar.TiendaVirtualAvatarImprenta.common;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+//top-K aproximado en streaming: el count-min sketch estima cada clave y
+//solo las K claves con mayor estimacion se guardan (conjunto ordenado, minimo en O(log K))
+public final class HeavyHitters {
+
+    public record Entry(long key, long estimate) {
+    }
+
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Map<Long, Long> estimates = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>((a, b) -> a.estimate() != b.estimate()
+            ? Long.compare(a.estimate(), b.estimate())
+            : Long.compare(a.key(), b.key()));
+
+    public HeavyHitters(int capacity, int depth, int width) {
+        this(capacity, new CountMinSketch(depth, width));
+    }
+
+    private HeavyHitters(int capacity, CountMinSketch sketch) {
+        this.capacity = capacity;
+        this.sketch = sketch;
+    }
+
+    public synchronized void add(long key, long delta) {
+        long estimate = sketch.add(key, delta);
+        Long previous = estimates.get(key);
+        if (previous != null) {
+            ranking.remove(new Entry(key, previous));
+        } else if (estimates.size() >= capacity) {
+            Entry min = ranking.first();
+            if (min.estimate() >= estimate) {
+                return;
+            }
+            ranking.pollFirst();
+            estimates.remove(min.key());
+        }
+        estimates.put(key, estimate);
+        ranking.add(new Entry(key, estimate));
+    }
+
+    //las n claves con mayor estimacion, de mayor a menor
+    public synchronized List<Entry> top(int n) {
+        List<Entry> result = new ArrayList<>(Math.min(n, ranking.size()));
+        for (Entry entry : ranking.descendingSet()) {
+            if (result.size() == n) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    public synchronized long estimate(long key) {
+        return sketch.estimate(key);
+    }
+
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(capacity);
+        sketch.writeTo(out);
+        out.writeInt(estimates.size());
+        for (Map.Entry<Long, Long> entry : estimates.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    public static HeavyHitters readFrom(DataInputStream in) throws IOException {
+        int capacity = in.readInt();
+        HeavyHitters hitters = new HeavyHitters(capacity, CountMinSketch.readFrom(in));
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            long key = in.readLong();
+            long estimate = in.readLong();
+            hitters.estimates.put(key, estimate);
+            hitters.ranking.add(new Entry(key, estimate));
+        }
+        return hitters;
+    }
+}
@@ -0,0 +1,91 @@
+package com.avatar.TiendaVirtualAvatarImprenta.common;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+//etiquetas de periodo de los reportes: "2025-09-13", "2025-09", "2025"
+//los textos se crean una vez por JVM y se reutilizan (los periodos posibles son pocos),
+//asi mapear una fila agregada no formatea ni asigna strings
+public final class PeriodLabels {
+
+    private static final int FIRST_YEAR = 2000;
+    private static final int YEARS = 100;
+
+    private static final String[] YEAR_LABELS = new String[YEARS];
+    private static final String[] MONTH_LABELS = new String[YEARS * 12];
+    //los dias se completan a medida que se piden
+    private static final AtomicReferenceArray<String> DAY_LABELS = new AtomicReferenceArray<>(YEARS * 12 * 31);
+
+    static {
+        for (int i = 0; i < YEARS; i++) {
+            YEAR_LABELS[i] = build(FIRST_YEAR + i, 0, 0);
+            for (int month = 1; month <= 12; month++) {
+                MONTH_LABELS[i * 12 + month - 1] = build(FIRST_YEAR + i, month, 0);
+            }
+        }
+    }
+
+    private PeriodLabels() {
+    }
+
+    public static String of(ReportType reportType, LocalDate day) {
+        return switch (reportType) {
+            case YEARLY -> year(day.getYear());
+            case MONTHLY -> month(day.getYear(), day.getMonthValue());
+            default -> day(day.getYear(), day.getMonthValue(), day.getDayOfMonth());
+        };
+    }
+
+    public static String year(int year) {
+        return inRange(year) ? YEAR_LABELS[year - FIRST_YEAR] : build(year, 0, 0);
+    }
+
+    public static String month(int year, int month) {
+        return inRange(year) ? MONTH_LABELS[(year - FIRST_YEAR) * 12 + month - 1] : build(year, month, 0);
+    }
+
+    public static String day(int year, int month, int day) {
+        if (!inRange(year)) {
+            return build(year, month, day);
+        }
+        int index = ((year - FIRST_YEAR) * 12 + month - 1) * 31 + day - 1;
+        String label = DAY_LABELS.get(index);
+        if (label == null) {
+            //si dos hilos lo crean a la vez ambos textos son iguales, da lo mismo cual queda
+            label = build(year, month, day);
+            DAY_LABELS.set(index, label);
+        }
+        return label;
+    }
+
+    private static boolean inRange(int year) {
+        return year >= FIRST_YEAR && year < FIRST_YEAR + YEARS;
+    }
+
+    //month/day en 0 se omiten
+    private static String build(int year, int month, int day) {
+        if (year < 1000 || year > 9999) {
+            return month == 0 ? String.valueOf(year)
+                    : day == 0 ? String.format("%d-%02d", year, month)
+                    : String.format("%d-%02d-%02d", year, month, day);
+        }
+        char[] chars = new char[month == 0 ? 4 : day == 0 ? 7 : 10];
+        chars[0] = (char) ('0' + year / 1000);
+        chars[1] = (char) ('0' + year / 100 % 10);
+        chars[2] = (char) ('0' + year / 10 % 10);
+        chars[3] = (char) ('0' + year % 10);
+        if (month != 0) {
+            chars[4] = '-';
+            chars[5] = (char) ('0' + month / 10);
+            chars[6] = (char) ('0' + month % 10);
+        }
+        if (day != 0) {
+            chars[7] = '-';
+            chars[8] = (char) ('0' + day / 10);
+            chars[9] = (char) ('0' + day % 10);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,86 @@
+package com.avatar.TiendaVirtualAvatarImprenta.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+//agrupa llamadas concurrentes con la misma clave: la primera ejecuta el calculo y las que
+//llegan mientras tanto esperan ese mismo resultado (o la misma excepcion).
+//No es un cache: al terminar la clave se libera y la siguiente llamada vuelve a calcular
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            shared.increment();
+            return await(running);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            failures.increment();
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            //se libera la clave: quien llegue despues vuelve a calcular
+            inFlight.remove(key, own);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long totalCalls = calls.sum();
+        long sharedCalls = shared.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("calls", totalCalls);
+        result.put("executions", executions.sum());
+        //llamadas que no fueron a la base porque esperaron un calculo en curso
+        result.put("sharedCalls", sharedCalls);
+        result.put("sharedRate", totalCalls == 0 ? 0.0 : (double) sharedCalls / totalCalls);
+        result.put("failures", failures.sum());
+        result.put("inFlight", inFlight.size());
+        return result;
+    }
+
+    //espera sin interrumpir al dueño del calculo; la excepcion original se relanza tal cual
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando un calculo en curso", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
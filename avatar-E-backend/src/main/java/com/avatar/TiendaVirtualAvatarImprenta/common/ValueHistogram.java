@@ -0,0 +1,119 @@
+package com.avatar.TiendaVirtualAvatarImprenta.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//histograma log-lineal de memoria fija (al estilo HdrHistogram) para montos enteros >= 0:
+//valores < 64 van en su propio bucket; sobre eso cada potencia de 2 se divide en 32 sub-buckets,
+//asi el error relativo de un valor es menor a 1/32 (~3%). Dos histogramas se combinan sumando contadores
+public final class ValueHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;//32
+    private static final int LINEAR_LIMIT = SUB_COUNT * 2;//64
+    public static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - 6) * SUB_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+
+    public static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) Math.max(value, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        int mantissa = (int) (value >>> shift);//en [32, 64)
+        return LINEAR_LIMIT + (exponent - 6) * SUB_COUNT + (mantissa - SUB_COUNT);
+    }
+
+    public static long lowerBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int offset = bucket - LINEAR_LIMIT;
+        int shift = 6 + offset / SUB_COUNT - SUB_BITS;
+        return (long) (SUB_COUNT + offset % SUB_COUNT) << shift;
+    }
+
+    public static long upperBound(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int offset = bucket - LINEAR_LIMIT;
+        int shift = 6 + offset / SUB_COUNT - SUB_BITS;
+        return ((long) (SUB_COUNT + offset % SUB_COUNT + 1) << shift) - 1;
+    }
+
+    public void add(int bucket, long count) {
+        if (count <= 0) {
+            return;
+        }
+        counts[bucket] += count;
+        totalCount += count;
+    }
+
+    public void merge(ValueHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    public long totalCount() {
+        return totalCount;
+    }
+
+    public long min() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] > 0) {
+                return lowerBound(i);
+            }
+        }
+        return 0;
+    }
+
+    public long max() {
+        for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return upperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    //valor del percentil (0-100): punto medio del bucket donde cae el rango pedido
+    public long percentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return lowerBound(i) + (upperBound(i) - lowerBound(i)) / 2;
+            }
+        }
+        return max();
+    }
+
+    //conteos agrupados por potencia de 2 (rangos [from, to]) para graficar
+    public List<long[]> powerOfTwoBuckets() {
+        List<long[]> result = new ArrayList<>();
+        long[] current = null;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            long value = lowerBound(i);
+            long from = value == 0 ? 0 : Long.highestOneBit(value);
+            long to = value == 0 ? 0 : from * 2 - 1;
+            if (current == null || current[0] != from) {
+                current = new long[]{from, to, 0};
+                result.add(current);
+            }
+            current[2] += counts[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package com.avatar.TiendaVirtualAvatarImprenta.controller.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.BulkStatusChangeRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.BulkStatusChangeResultDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderCreatedDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderStatusHistoryDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.IdempotencyService;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderService;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderStatusService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/orders")
+public class OrderController {
+
+    private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final OrderStatusService orderStatusService;
+
+    //crea una orden; con Idempotency-Key los reintentos del carrito devuelven la orden original
+    //(cabecera Idempotent-Replayed: true) sin volver a calcular precios, generar codigo ni insertar
+    @PostMapping
+    public ResponseEntity<OrderCreatedDTO> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody OrderRequest request){
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(orderService.placeOrder(request));
+        }
+        IdempotencyService.Result<OrderCreatedDTO> result = idempotencyService.execute(
+                "user:" + request.getUserId(), idempotencyKey, request, OrderCreatedDTO.class,
+                orderService::reserveOrderNumber, number -> orderService.placeOrder(request, number));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.body());
+    }
+
+    //cambio de estado de muchas ordenes a la vez (ej. SHIPPED al cierre del dia);
+    //las que no pueden pasar al estado pedido se informan en rejected y no se tocan
+    @PostMapping("/status/bulk")
+    public BulkStatusChangeResultDTO changeStatusBulk(@Valid @RequestBody BulkStatusChangeRequest request){
+        return orderStatusService.changeStatusBulk(request);
+    }
+
+    @GetMapping("/{orderId}/status-history")
+    public List<OrderStatusHistoryDTO> getStatusHistory(@PathVariable Long orderId){
+        return orderStatusService.getHistory(orderId);
+    }
+}
@@ -0,0 +1,38 @@
+package com.avatar.TiendaVirtualAvatarImprenta.controller.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderImportResultDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+//importacion de ordenes historicas (administracion); archivos muy grandes conviene cargarlos con el
+//runner de linea de comandos (OrderImportRunner)
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/orders/import")
+public class OrderImportController {
+
+    private final OrderImportService importService;
+
+    //rebuild=false para varios archivos seguidos: se reconstruye solo con el ultimo
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public OrderImportResultDTO importOrders(@RequestParam("file") MultipartFile file,
+                                             @RequestParam(defaultValue = "true") boolean rebuild){
+        if (file.isEmpty()) {
+            throw new ValidationException("El archivo esta vacio");
+        }
+        try (InputStream input = file.getInputStream()) {
+            return importService.importCsv(input, rebuild);
+        } catch (IOException e) {
+            throw new BusinessException("No se pudo leer el archivo: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
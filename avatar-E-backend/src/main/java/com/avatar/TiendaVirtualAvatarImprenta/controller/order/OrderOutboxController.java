@@ -0,0 +1,31 @@
+package com.avatar.TiendaVirtualAvatarImprenta.controller.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.auth.ApiResponse;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderOutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+//estado de la cola de efectos secundarios de ordenes (acumulados, indices, correos)
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/orders/outbox")
+public class OrderOutboxController {
+
+    private final OrderOutboxService outboxService;
+
+    //eventos por estado, atraso del mas antiguo pendiente y contadores del nodo
+    @GetMapping("/stats")
+    public Map<String, Object> getStats(){
+        return outboxService.stats();
+    }
+
+    //reprograma los eventos DEAD (por ejemplo despues de arreglar el SMTP)
+    @PostMapping("/retry-dead")
+    public ResponseEntity<ApiResponse<Integer>> retryDead(){
+        int retried = outboxService.retryDead();
+        return ResponseEntity.ok(ApiResponse.success("Eventos reprogramados: " + retried, retried));
+    }
+}
@@ -0,0 +1,39 @@
+package com.avatar.TiendaVirtualAvatarImprenta.controller.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.auth.ApiResponse;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.PriceQuoteDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.PriceQuoteRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.service.pricing.PricingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+//cotizacion del carrito desde el catalogo de precios en memoria
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/pricing")
+public class PricingController {
+
+    private final PricingService pricingService;
+
+    @PostMapping("/quote")
+    public PriceQuoteDTO quote(@Valid @RequestBody PriceQuoteRequest request){
+        return pricingService.quote(request);
+    }
+
+    //version y tamaño del catalogo compilado
+    @GetMapping("/stats")
+    public Map<String, Object> getStats(){
+        return pricingService.stats();
+    }
+
+    //recompila el catalogo (normalmente no hace falta: se recompila al cambiar productos o envios)
+    @PostMapping("/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuild(){
+        pricingService.rebuild();
+        return ResponseEntity.ok(ApiResponse.success("Catalogo de precios recompilado"));
+    }
+}
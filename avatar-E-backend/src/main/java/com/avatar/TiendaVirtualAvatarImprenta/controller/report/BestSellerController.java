@@ -0,0 +1,34 @@
+package com.avatar.TiendaVirtualAvatarImprenta.controller.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.BestSellerDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.BestSellerMetric;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.BestSellerWindow;
+import com.avatar.TiendaVirtualAvatarImprenta.service.analytics.BestSellerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+//productos mas vendidos (ranking aproximado en memoria) para la tienda y el dashboard
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/reports/best-sellers")
+public class BestSellerController {
+
+    private final BestSellerService bestSellerService;
+
+    //ejem: ?window=WEEK&metric=REVENUE&limit=5 (sin date = hoy)
+    @GetMapping
+    public List<BestSellerDTO> getTop(
+            @RequestParam(defaultValue = "DAY") BestSellerWindow window,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "UNITS") BestSellerMetric metric,
+            @RequestParam(defaultValue = "10") int limit
+            ){
+        LocalDate day = date != null ? date : LocalDate.now(Order.ZONE_CHILE);
+        return bestSellerService.getTop(window, day, metric, limit);
+    }
+}
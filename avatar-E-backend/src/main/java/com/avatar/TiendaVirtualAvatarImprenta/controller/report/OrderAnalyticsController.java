@@ -0,0 +1,30 @@
+package com.avatar.TiendaVirtualAvatarImprenta.controller.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.auth.ApiResponse;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSliceDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSliceRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.service.analytics.OrderAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+//cortes interactivos del dashboard (estado, region, comuna, tipo de cliente, envio, dia/mes) sin consultar MySQL
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/reports/analytics")
+public class OrderAnalyticsController {
+
+    private final OrderAnalyticsService analyticsService;
+
+    @PostMapping("/slice")
+    public OrderSliceDTO slice(@RequestBody OrderSliceRequest request){
+        return analyticsService.slice(request);
+    }
+
+    //recarga el almacen en memoria desde la tabla orders
+    @PostMapping("/reload")
+    public ResponseEntity<ApiResponse<Void>> reload(){
+        analyticsService.reload();
+        return ResponseEntity.ok(ApiResponse.success("Analitica en memoria recargada"));
+    }
+}
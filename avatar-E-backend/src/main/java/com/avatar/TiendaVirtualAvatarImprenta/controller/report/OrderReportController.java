@@ -1,16 +1,43 @@
 package com.avatar.TiendaVirtualAvatarImprenta.controller.report;
 
+import com.avatar.TiendaVirtualAvatarImprenta.dto.auth.ApiResponse;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.CursorPageDTO;
 import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderDetailDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportFilter;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderStatusPivotDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderValueDistributionDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportComparisonDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportComparisonRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.CountMode;
 import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
 import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import com.avatar.TiendaVirtualAvatarImprenta.generator.ExcelOrderReport;
+import com.avatar.TiendaVirtualAvatarImprenta.generator.OrderStreamExport;
+import com.avatar.TiendaVirtualAvatarImprenta.generator.PdfOrderReport;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderSearchIndexService;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.OrderReportCache;
 import com.avatar.TiendaVirtualAvatarImprenta.service.report.OrderReportService;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.OrderSalesRollupService;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.OrderValueDistributionService;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.ReportComparisonService;
+import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
@@ -31,6 +58,14 @@ public Page<?> getReport(
 }
     * */
     private final OrderReportService reportService;
+    private final OrderSalesRollupService rollupService;
+    private final OrderSearchIndexService searchIndexService;
+    private final ExcelOrderReport excelOrderReport;
+    private final PdfOrderReport pdfOrderReport;
+    private final OrderStreamExport orderStreamExport;
+    private final OrderReportCache reportCache;
+    private final OrderValueDistributionService distributionService;
+    private final ReportComparisonService comparisonService;
     @GetMapping
     public Page<?> getReportByType(
             @RequestParam ReportType type,
@@ -43,12 +78,160 @@ public Page<?> getReport(
         return reportService.getReport(type,startDate,endDate,status,searchText,pageable);
     }
 
+    //listado ALL paginado por cursor: ?type=ALL&pagination=keyset&cursor=<nextCursor>
+    @GetMapping(params = "pagination=keyset")
+    public CursorPageDTO<OrderSummaryDTO> getOrdersByCursor(
+            @RequestParam(defaultValue = "ALL") ReportType type,
+            @RequestParam ZonedDateTime startDate,
+            @RequestParam ZonedDateTime endDate,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String searchText,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "APPROXIMATE") CountMode count
+            ){
+        if(type != ReportType.ALL){
+            throw new ValidationException("La paginacion por cursor solo esta disponible para type=ALL");
+        }
+        return reportService.getOrdersByCursor(startDate,endDate,status,searchText,cursor,size,count);
+    }
+
+    //exporta todas las ordenes del rango en csv o ndjson (streaming desde la base de datos)
+    @GetMapping("/export")
+    public void exportOrders(
+            @RequestParam String format,
+            @RequestParam ZonedDateTime startDate,
+            @RequestParam ZonedDateTime endDate,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String searchText,
+            HttpServletResponse response
+            ) throws IOException {
+        OrderReportFilter filter = new OrderReportFilter(startDate, endDate, status, searchText);
+        String fileName = exportFileName(startDate, endDate);
+        switch (format.toLowerCase()) {
+            case "csv" -> {
+                response.setContentType("text/csv; charset=UTF-8");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + ".csv\"");
+                orderStreamExport.writeCsv(filter, response.getOutputStream());
+            }
+            case "ndjson" -> {
+                response.setContentType("application/x-ndjson");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + ".ndjson\"");
+                orderStreamExport.writeNdjson(filter, response.getOutputStream());
+            }
+            default -> throw new ValidationException("Formato no soportado: " + format + " (csv o ndjson)");
+        }
+    }
+
+    //exporta el listado ALL a xlsx escribiendo directo en la respuesta
+    @GetMapping("/export/excel")
+    public void exportExcel(
+            @RequestParam ZonedDateTime startDate,
+            @RequestParam ZonedDateTime endDate,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String searchText,
+            HttpServletResponse response
+            ) throws IOException {
+        response.setContentType(ExcelOrderReport.CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + exportFileName(startDate, endDate) + ".xlsx\"");
+        excelOrderReport.write(new OrderReportFilter(startDate, endDate, status, searchText), response.getOutputStream());
+    }
+
+    //exporta el listado ALL a pdf; las paginas se envian a medida que se completan
+    @GetMapping("/export/pdf")
+    public void exportPdf(
+            @RequestParam ZonedDateTime startDate,
+            @RequestParam ZonedDateTime endDate,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String searchText,
+            HttpServletResponse response
+            ) throws IOException {
+        response.setContentType(PdfOrderReport.CONTENT_TYPE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + exportFileName(startDate, endDate) + ".pdf\"");
+        pdfOrderReport.write(new OrderReportFilter(startDate, endDate, status, searchText), response.getOutputStream());
+    }
+
+    private static String exportFileName(ZonedDateTime startDate, ZonedDateTime endDate){
+        return "ordenes_" + startDate.format(DateTimeFormatter.BASIC_ISO_DATE).substring(0, 8)
+                + "_" + endDate.format(DateTimeFormatter.BASIC_ISO_DATE).substring(0, 8);
+    }
+
+    //todos los estados lado a lado por periodo (una sola consulta para el dashboard)
+    @GetMapping("/pivot")
+    public OrderStatusPivotDTO getStatusPivot(
+            @RequestParam ReportType type,
+            @RequestParam ZonedDateTime startDate,
+            @RequestParam ZonedDateTime endDate
+            ){
+        return reportService.getStatusPivot(type, startDate, endDate);
+    }
+
+    //compara varios rangos (este mes, mes anterior, mismo mes del año pasado) en series alineadas
+    @PostMapping("/compare")
+    public ReportComparisonDTO compare(@Valid @RequestBody ReportComparisonRequest request){
+        return comparisonService.compare(request);
+    }
+
+    //distribucion del monto de las ordenes (p50/p90/p99, min/max y buckets) por periodo; ALL = todo el rango
+    @GetMapping("/distribution")
+    public List<OrderValueDistributionDTO> getDistribution(
+            @RequestParam(defaultValue = "ALL") ReportType type,
+            @RequestParam ZonedDateTime startDate,
+            @RequestParam ZonedDateTime endDate,
+            @RequestParam(required = false) OrderStatus status
+            ){
+        return distributionService.getDistribution(type, Order.toLocalDay(startDate), Order.toLocalDay(endDate), status);
+    }
+
+    //recalcula los histogramas de montos desde la tabla orders
+    @PostMapping("/distribution/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuildDistribution(){
+        distributionService.rebuild();
+        return ResponseEntity.ok(ApiResponse.success("Histogramas de montos reconstruidos"));
+    }
+
+    //detalle de varias ordenes: ?ids=1,2,3
+    @GetMapping("/details")
+    public List<OrderDetailDTO> getOrderDetails(@RequestParam List<Long> ids){
+        return reportService.getOrderDetails(ids);
+    }
+
     //detalle de la orden
     @GetMapping("/{id}")
     public OrderDetailDTO getOrderDetail(@PathVariable Long id){
         return reportService.getOrderDetail(id);
     }
 
+    //reconstruye el indice de trigramas de busqueda (codigo y email)
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuildSearchIndex(){
+        searchIndexService.rebuild();
+        reportCache.invalidateAll();
+        return ResponseEntity.ok(ApiResponse.success("Indice de busqueda reconstruido"));
+    }
+
+    //aciertos y fallos del cache de reportes
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats(){
+        return reportCache.stats();
+    }
+
+    //consultas de reporte compartidas entre peticiones simultaneas identicas
+    @GetMapping("/coalescing/stats")
+    public Map<String, Object> getCoalescingStats(){
+        return reportService.getCoalescingStats();
+    }
+
+    //recalcula los acumulados de ventas desde la tabla orders
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuildRollups(){
+        rollupService.rebuild();
+        reportCache.invalidateAll();
+        return ResponseEntity.ok(ApiResponse.success("Acumulados de ventas reconstruidos"));
+    }
+
 
 
 }
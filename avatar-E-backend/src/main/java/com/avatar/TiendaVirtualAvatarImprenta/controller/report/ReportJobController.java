@@ -0,0 +1,62 @@
+package com.avatar.TiendaVirtualAvatarImprenta.controller.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportJobDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportJobFile;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportJobRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.ReportJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+
+//reportes largos en segundo plano: se encolan, se consulta el avance y se descarga el archivo
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/reports/jobs")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    public ResponseEntity<ReportJobDTO> submit(
+            @Valid @RequestBody ReportJobRequest request,
+            Principal principal,
+            HttpServletRequest httpRequest
+            ){
+        ReportJobDTO job = reportJobService.submit(request, owner(principal, httpRequest));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{id}")
+    public ReportJobDTO getJob(@PathVariable String id, Principal principal, HttpServletRequest httpRequest){
+        return reportJobService.getJob(id, owner(principal, httpRequest));
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<Resource> download(@PathVariable String id, Principal principal, HttpServletRequest httpRequest){
+        ReportJobFile file = reportJobService.getResult(id, owner(principal, httpRequest));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(file.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.fileName()).build().toString())
+                .body(new FileSystemResource(file.path()));
+    }
+
+    //el limite por usuario y el acceso al trabajo se aplican al usuario autenticado o, sin sesion, a la IP
+    //(no a un header: el cliente podria cambiarlo en cada peticion para saltarse el limite)
+    private static String owner(Principal principal, HttpServletRequest request){
+        if(principal != null){
+            return principal.getName();
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,45 @@
+package com.avatar.TiendaVirtualAvatarImprenta.controller.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.auth.ApiResponse;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.SalesRankingDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.SalesDimension;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.SalesSort;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.SalesAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+//analitica de ventas por item: ranking por producto, subcategoria, categoria, material o color
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/reports/sales")
+public class SalesAnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    //ejem: ?dimension=CATEGORY&startDate=...&endDate=...&sort=QUANTITY&limit=5
+    @GetMapping
+    public List<SalesRankingDTO> getRanking(
+            @RequestParam SalesDimension dimension,
+            @RequestParam ZonedDateTime startDate,
+            @RequestParam ZonedDateTime endDate,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = "REVENUE") SalesSort sort,
+            @RequestParam(defaultValue = "10") int limit
+            ){
+        return salesAnalyticsService.getRanking(dimension, Order.toLocalDay(startDate), Order.toLocalDay(endDate),
+                status, sort, limit);
+    }
+
+    //recalcula los hechos de venta por item desde order_items
+    @PostMapping("/rebuild")
+    public ResponseEntity<ApiResponse<Void>> rebuild(){
+        salesAnalyticsService.rebuild();
+        return ResponseEntity.ok(ApiResponse.success("Ventas por item reconstruidas"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkStatusChangeRequest {
+
+    @NotEmpty(message = "Debe indicar al menos una orden")
+    private List<Long> orderIds;
+
+    @NotNull(message = "El estado nuevo es requerido")
+    private OrderStatus newStatus;
+
+    //queda en el historial de cada orden (ej. "despacho del 13-09")
+    @Size(max = 255, message = "La nota no puede superar 255 caracteres")
+    private String note;
+}
@@ -0,0 +1,30 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+//resultado de un cambio de estado masivo: las ordenes validas se cambian, el resto se informa
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusChangeResultDTO {
+    private OrderStatus newStatus;
+    private int requested;
+    private int updated;
+    //ya estaban en el estado pedido
+    private int unchanged;
+    private List<Rejected> rejected;
+    private long elapsedMs;
+
+    //currentStatus es null si la orden no existe
+    public record Rejected(Long orderId, String code, OrderStatus currentStatus, String reason) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+//respuesta de POST /api/orders (es lo que se guarda y se repite ante un reintento con la misma Idempotency-Key)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderCreatedDTO {
+    private Long id;
+    private String code;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private ZonedDateTime orderDate;
+}
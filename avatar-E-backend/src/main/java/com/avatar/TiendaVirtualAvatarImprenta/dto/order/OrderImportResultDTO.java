@@ -0,0 +1,36 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+//resultado de una importacion de ordenes desde CSV
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderImportResultDTO {
+    private long rowsRead;
+    private long ordersImported;
+    private long itemsImported;
+    //ordenes cuyo codigo ya existia (reimportar el mismo archivo no duplica)
+    private long ordersSkipped;
+    private long ordersRejected;
+    private long batches;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private double ordersPerSecond;
+    //true si se reconstruyeron acumulados, histogramas e indice de busqueda al terminar
+    private boolean derivedDataRebuilt;
+    //primeros errores por fila (errorCount tiene el total)
+    private long errorCount;
+    private List<RowError> errors;
+
+    public record RowError(long line, String orderCode, String message) {
+    }
+}
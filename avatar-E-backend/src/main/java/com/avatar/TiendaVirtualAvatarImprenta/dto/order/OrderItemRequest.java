@@ -18,9 +18,14 @@ public class OrderItemRequest {
     @NotNull(message = "El  producto es requerido")
     private Long productId;
 
+    @NotNull(message = "La cantidad es requerida")
     @Min(value = 1, message = "La cantidad debe ser al menos 1")
     private Integer quantity;//cantidad de producto
 
+    //material y color elegidos (opcionales segun el producto)
+    private Long materialOptionId;
+    private Long colorOptionId;
+
     @NotNull(message = "El precio unitario es requerido")
     private BigDecimal unitPrice = BigDecimal.ZERO;
 
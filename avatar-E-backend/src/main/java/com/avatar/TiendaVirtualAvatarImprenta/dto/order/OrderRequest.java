@@ -1,6 +1,7 @@
 package com.avatar.TiendaVirtualAvatarImprenta.dto.order;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -23,5 +24,5 @@ public class OrderRequest {
     private Long ShippingMethodId;
 
     @NotEmpty(message = "La orden debe tener almenos un producto")
-    private List<OrderItemRequest> items;
+    private List<@Valid @NotNull(message = "Item de la orden vacio") OrderItemRequest> items;
 }
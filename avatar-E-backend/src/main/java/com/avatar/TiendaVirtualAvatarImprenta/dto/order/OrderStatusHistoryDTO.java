@@ -0,0 +1,22 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusHistoryDTO {
+    private OrderStatus previousStatus;
+    private OrderStatus newStatus;
+    private Instant changedAt;
+    private String note;
+}
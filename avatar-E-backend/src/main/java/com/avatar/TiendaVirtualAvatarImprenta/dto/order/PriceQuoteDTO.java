@@ -0,0 +1,35 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceQuoteDTO {
+    private List<Line> lines;
+    private BigDecimal subtotal;
+    private BigDecimal shippingCost;
+    private BigDecimal total;
+    private long catalogVersion;//version del catalogo compilado con que se calculo
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long productId;
+        private Long materialOptionId;
+        private int quantity;
+        private BigDecimal unitPrice;//en patrones de cantidad es el precio del patron dividido por la cantidad
+        private BigDecimal lineTotal;
+    }
+}
@@ -0,0 +1,24 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.order;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//cotizacion del carrito: el unitPrice de cada item se ignora, el precio sale del catalogo
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PriceQuoteRequest {
+
+    private Long shippingMethodId;
+
+    @Valid
+    @NotEmpty(message = "La cotizacion debe tener almenos un producto")
+    private List<OrderItemRequest> items;
+}
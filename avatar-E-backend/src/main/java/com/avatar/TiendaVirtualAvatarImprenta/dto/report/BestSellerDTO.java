@@ -0,0 +1,20 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+//producto del ranking de mas vendidos; los valores son estimados (nunca menores que el real)
+public class BestSellerDTO {
+    private Long productId;
+    private String name;
+    private Long units;//solo en ranking por UNITS
+    private BigDecimal revenue;//solo en ranking por REVENUE
+}
@@ -0,0 +1,26 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+//pagina por cursor: nextCursor es opaco y se envia tal cual para pedir la siguiente pagina
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;//solo en la primera pagina, segun CountMode
+    private Boolean totalExact;
+}
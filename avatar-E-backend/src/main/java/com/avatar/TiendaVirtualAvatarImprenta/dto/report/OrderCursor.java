@@ -0,0 +1,40 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+//posicion de la ultima fila entregada (orderDate, id), codificada en base64 url-safe
+public record OrderCursor(Instant orderDate, long id) {
+
+    public static OrderCursor of(OrderSummaryDTO last) {
+        return new OrderCursor(last.getOrderDate().toInstant(), last.getId());
+    }
+
+    public String encode() {
+        String raw = orderDate.getEpochSecond() + ":" + orderDate.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new ValidationException("Cursor inválido");
+            }
+            Instant orderDate = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new OrderCursor(orderDate, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Cursor inválido");
+        }
+    }
+
+    public ZonedDateTime orderDateInChile() {
+        return orderDate.atZone(Order.ZONE_CHILE);
+    }
+}
@@ -19,5 +19,6 @@ public class OrderDetailDTO {
     private String email;
     private OrderStatus status;
     private BigDecimal totalAmount;
+    private String shippingMethod;
     private List<OrderItemDTO> items;
 }
@@ -0,0 +1,22 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+
+import java.math.BigDecimal;
+
+//fila plana del detalle: cabecera de la orden repetida por cada item
+//los campos del item vienen null cuando la orden no tiene items
+public record OrderDetailRow(
+        Long orderId,
+        String code,
+        String email,
+        OrderStatus status,
+        BigDecimal totalAmount,
+        String shippingMethod,
+        String productName,
+        Integer quantity,
+        BigDecimal price,
+        String materialName,
+        String colorName
+) {
+}
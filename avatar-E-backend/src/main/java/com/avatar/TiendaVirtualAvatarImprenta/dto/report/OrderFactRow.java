@@ -0,0 +1,19 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+//orden con las dimensiones de analitica (cliente y envio) en una fila plana
+public record OrderFactRow(
+        Long id,
+        LocalDate orderDateLocal,
+        OrderStatus status,
+        BigDecimal totalAmount,
+        String region,
+        String comuna,
+        Boolean business,
+        String shippingMethod
+) {
+}
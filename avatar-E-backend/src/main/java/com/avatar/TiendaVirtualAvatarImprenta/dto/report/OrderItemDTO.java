@@ -16,5 +16,7 @@ public class OrderItemDTO {
     private String productName;
     private Integer quantity;
     private BigDecimal price;
+    private String materialName;
+    private String colorName;
 
 }
@@ -0,0 +1,9 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+
+import java.time.ZonedDateTime;
+
+//filtros del listado de ordenes usados por las exportaciones
+public record OrderReportFilter(ZonedDateTime startDate, ZonedDateTime endDate, OrderStatus status, String searchText) {
+}
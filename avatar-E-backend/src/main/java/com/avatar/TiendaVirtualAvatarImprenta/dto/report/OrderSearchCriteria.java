@@ -0,0 +1,32 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+
+import java.util.List;
+
+//searchText ya interpretado para el listado ALL
+//text: texto en minuscula (null = sin filtro), exactCode: codigo ORD-YYYY-NNNNN exacto,
+//statuses: estados cuyo nombre contiene el texto, tokens: trigramas del texto para el indice
+//(vacio = solo LIKE)
+public record OrderSearchCriteria(String text, String exactCode, List<OrderStatus> statuses, List<String> tokens) {
+
+    public static final OrderSearchCriteria NONE = new OrderSearchCriteria(null, null, List.of(), List.of());
+
+    public long statusCount() {
+        return statuses.size();
+    }
+
+    public long tokenCount() {
+        return tokens.size();
+    }
+
+    //listas para los IN de la consulta: un IN () vacio no es SQL valido, se pasa un valor
+    //de relleno que el predicado ignora porque statusCount/tokenCount vale 0
+    public List<OrderStatus> statusParam() {
+        return statuses.isEmpty() ? List.of(OrderStatus.PENDING) : statuses;
+    }
+
+    public List<String> tokenParam() {
+        return tokens.isEmpty() ? List.of("") : tokens;
+    }
+}
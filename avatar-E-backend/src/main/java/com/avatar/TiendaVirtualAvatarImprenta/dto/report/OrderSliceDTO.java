@@ -0,0 +1,36 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+//resultado de la analitica en memoria
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSliceDTO {
+    private List<Group> groups;
+    private long totalOrders;
+    private BigDecimal totalAmount;
+    private long scannedRows;
+    private long elapsedMillis;
+
+    //una combinacion de valores de las dimensiones agrupadas
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Group {
+        private Map<String, String> keys;
+        private long orders;
+        private BigDecimal amount;
+    }
+}
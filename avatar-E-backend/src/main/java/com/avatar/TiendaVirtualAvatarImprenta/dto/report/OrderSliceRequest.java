@@ -0,0 +1,27 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.SliceDimension;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+//filtros y agrupacion de la analitica en memoria; los filtros vacios o null no filtran
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSliceRequest {
+    private ZonedDateTime startDate;
+    private ZonedDateTime endDate;
+    private List<OrderStatus> statuses;
+    private List<String> regions;
+    private List<String> comunas;
+    private Boolean business;
+    private List<String> shippingMethods;
+    private List<SliceDimension> groupBy;
+}
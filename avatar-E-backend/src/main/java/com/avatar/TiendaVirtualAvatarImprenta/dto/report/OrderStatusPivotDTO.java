@@ -0,0 +1,60 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+//reporte por periodo con todos los estados lado a lado (dashboard) + fila de totales del rango
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusPivotDTO {
+    private List<Row> rows;
+    private Row totals;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        private String period;//"2025-09-13", "2025-09", "2025" o "TOTAL"
+        private long totalOrders;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+        //todos los estados presentes, en el orden del enum (0 si no hay ordenes)
+        private Map<OrderStatus, StatusTotals> byStatus = new EnumMap<>(OrderStatus.class);
+
+        public Row(String period) {
+            this.period = period;
+            for (OrderStatus status : OrderStatus.values()) {
+                byStatus.put(status, new StatusTotals());
+            }
+        }
+
+        public void add(OrderStatus status, long orderCount, BigDecimal amount) {
+            StatusTotals totals = byStatus.get(status);
+            totals.setOrders(totals.getOrders() + orderCount);
+            totals.setAmount(totals.getAmount().add(amount));
+            totalOrders += orderCount;
+            totalAmount = totalAmount.add(amount);
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StatusTotals {
+        private long orders;
+        private BigDecimal amount = BigDecimal.ZERO;
+    }
+}
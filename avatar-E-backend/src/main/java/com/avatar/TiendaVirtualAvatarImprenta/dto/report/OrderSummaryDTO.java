@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.time.ZonedDateTime;
 
 @Setter
 @Getter
@@ -21,4 +22,5 @@ public class OrderSummaryDTO {
     private String email;
     private OrderStatus status;
     private BigDecimal totalAmount = BigDecimal.ZERO;
+    private ZonedDateTime orderDate;
 }
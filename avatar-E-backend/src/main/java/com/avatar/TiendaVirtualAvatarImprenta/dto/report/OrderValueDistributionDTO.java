@@ -0,0 +1,37 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+//distribucion del monto de las ordenes de un periodo (valores aproximados al ~3%)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderValueDistributionDTO {
+    private String period;//"2025-09-13", "2025-09", "2025" o "ALL"
+    private long totalOrders;
+    private long min;
+    private long max;
+    private long p50;
+    private long p90;
+    private long p99;
+    private List<Bucket> buckets;
+
+    //ordenes con monto entre from y to (inclusive)
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private long from;
+        private long to;
+        private long count;
+    }
+}
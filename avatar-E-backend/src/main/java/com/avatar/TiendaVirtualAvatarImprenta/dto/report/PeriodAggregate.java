@@ -0,0 +1,14 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import java.math.BigDecimal;
+
+//fila tipada de los reportes agrupados (se construye en la consulta JPQL)
+//month/day valen 0 cuando el reporte no agrupa por ese nivel
+public record PeriodAggregate(int year, int month, int day, long orderCount, BigDecimal totalAmount) {
+
+    public PeriodAggregate {
+        if (totalAmount == null) {
+            totalAmount = BigDecimal.ZERO;
+        }
+    }
+}
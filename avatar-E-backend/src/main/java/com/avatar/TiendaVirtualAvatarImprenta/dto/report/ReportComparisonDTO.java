@@ -0,0 +1,38 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+//una serie por rango, alineadas por posicion: points[i] es el i-esimo dia/mes/año de cada rango
+//(los periodos sin ordenes vienen en 0 para que las series se puedan superponer)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportComparisonDTO {
+    private ReportType type;
+    private List<Series> series;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Series {
+        private String label;
+        private LocalDate startDay;
+        private LocalDate endDay;
+        private long totalOrders;
+        private BigDecimal totalAmount;
+        private List<OrderReportDTO> points;
+    }
+}
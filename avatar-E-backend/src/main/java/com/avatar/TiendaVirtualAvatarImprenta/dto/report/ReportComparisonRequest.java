@@ -0,0 +1,45 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+//comparacion de varios rangos (ej. este mes, mes anterior, mismo mes del año pasado)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportComparisonRequest {
+
+    @NotNull(message = "El tipo de reporte es obligatorio")
+    private ReportType type;
+
+    private OrderStatus status;
+
+    @Valid
+    @NotEmpty(message = "Debe indicar al menos un rango")
+    private List<Range> ranges;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Range {
+        private String label;//opcional, ej. "Mes anterior"
+
+        @NotNull(message = "La fecha de inicio es obligatoria")
+        private ZonedDateTime startDate;
+
+        @NotNull(message = "La fecha de termino es obligatoria")
+        private ZonedDateTime endDate;
+    }
+}
@@ -0,0 +1,30 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportJobStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+//estado de un reporte en segundo plano; el id es propio de quien lo solicito
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReportJobDTO {
+    private String id;
+    private ReportJobStatus status;
+    private long processedRows;
+    private Long estimatedRows;//aproximado, puede faltar (busqueda por texto)
+    private Integer percent;
+    private Instant createdAt;
+    private Instant finishedAt;
+    private String error;
+    private String downloadUrl;
+}
@@ -0,0 +1,7 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import java.nio.file.Path;
+
+//archivo generado por un reporte en segundo plano
+public record ReportJobFile(Path path, String fileName, String contentType) {
+}
@@ -0,0 +1,35 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportFormat;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+
+//solicitud de reporte en segundo plano (mismos filtros que GET /api/reports/orders)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequest {
+
+    @NotNull(message = "El tipo de reporte es obligatorio")
+    private ReportType type;
+
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    private ZonedDateTime startDate;
+
+    @NotNull(message = "La fecha de termino es obligatoria")
+    private ZonedDateTime endDate;
+
+    private OrderStatus status;
+    private String searchText;
+
+    @NotNull(message = "El formato es obligatorio")
+    private ReportFormat format;
+}
@@ -0,0 +1,21 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+//fila del ranking de ventas por producto, subcategoria, categoria, material o color
+public class SalesRankingDTO {
+
+    private Long id;
+    private String name;
+    private Long quantity;//unidades vendidas
+    private BigDecimal revenue = BigDecimal.ZERO;//monto vendido (precio * cantidad)
+}
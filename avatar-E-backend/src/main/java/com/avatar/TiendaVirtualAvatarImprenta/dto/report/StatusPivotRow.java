@@ -0,0 +1,40 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+//fila de un dia con cantidad y monto de cada estado (agregacion condicional en una sola pasada)
+//los montos vienen null cuando el dia no tiene ordenes en ese estado
+public record StatusPivotRow(LocalDate day,
+                             long pendingCount, BigDecimal pendingAmount,
+                             long paidCount, BigDecimal paidAmount,
+                             long shippedCount, BigDecimal shippedAmount,
+                             long deliveredCount, BigDecimal deliveredAmount,
+                             long cancelledCount, BigDecimal cancelledAmount,
+                             long returnedCount, BigDecimal returnedAmount) {
+
+    public long count(OrderStatus status) {
+        return switch (status) {
+            case PENDING -> pendingCount;
+            case PAID -> paidCount;
+            case SHIPPED -> shippedCount;
+            case DELIVERED -> deliveredCount;
+            case CANCELLED -> cancelledCount;
+            case RETURNED -> returnedCount;
+        };
+    }
+
+    public BigDecimal amount(OrderStatus status) {
+        BigDecimal amount = switch (status) {
+            case PENDING -> pendingAmount;
+            case PAID -> paidAmount;
+            case SHIPPED -> shippedAmount;
+            case DELIVERED -> deliveredAmount;
+            case CANCELLED -> cancelledAmount;
+            case RETURNED -> returnedAmount;
+        };
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,47 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+//claves Idempotency-Key de creacion de ordenes; se guardan como hash (usuario + clave) para que
+//la fila tenga tamaño fijo y la clave del cliente no quede en claro
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    //sha-256 hex de usuario + clave
+    @Column(name = "key_hash", nullable = false, unique = true, length = 64)
+    private String keyHash;
+
+    //sha-256 hex del cuerpo: la misma clave con otra solicitud se rechaza
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IdempotencyStatus status;
+
+    //respuesta original en JSON (solo COMPLETED)
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    //IN_PROGRESS: hasta cuando se respeta el bloqueo; COMPLETED: hasta cuando se guarda la respuesta
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -2,10 +2,17 @@ package com.avatar.TiendaVirtualAvatarImprenta.entity.order;
 
 import com.avatar.TiendaVirtualAvatarImprenta.entity.user.User;
 import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.AbstractAggregateRoot;
+import org.springframework.http.HttpStatus;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,11 +23,23 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "orders")
-public class Order {
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_date_local_status", columnList = "order_date_local, status"),
+        @Index(name = "idx_orders_order_date_id", columnList = "order_date, id")
+})
+public class Order extends AbstractAggregateRoot<Order> {
 
+    //zona horaria del negocio: los reportes agrupan por dia calendario de Chile
+    public static final ZoneId ZONE_CHILE = ZoneId.of("America/Santiago");
+
+    //ids reservados por viaje a la tabla de secuencia (orders y order_items)
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    //ids por bloques (pooled) en vez de IDENTITY: Hibernate puede agrupar los INSERT en lotes JDBC
+    //(en MySQL la secuencia es la tabla orders_seq, alineada al iniciar por IdSequenceAlignment)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -29,6 +48,16 @@ public class Order {
     @Column(name = "order_date")
     private ZonedDateTime orderDate;
 
+    //dia/año/mes de orderDate en hora de Chile (persistidos para filtrar por rango con indice)
+    @Column(name = "order_date_local")
+    private LocalDate orderDateLocal;
+
+    @Column(name = "order_year")
+    private Integer orderYear;
+
+    @Column(name = "order_month")
+    private Integer orderMonth;
+
     @Enumerated(EnumType.STRING)
     private OrderStatus status; // PAID, PENDING, SHIPPED ,etc
 
@@ -47,9 +76,55 @@ public class Order {
     private BigDecimal totalAmount = BigDecimal.ZERO;
 
     //metodo de utilidad: generarr codigo de la orden
-    public void generateCode(int orderNumberForYear) {
-        int year = this.orderDate.getYear();
-        this.code = String.format("ORD-%d-%05d",year, orderNumberForYear);
+    public void generateCode(long orderNumberForYear) {
+        this.code = formatCode(this.orderDate.getYear(), orderNumberForYear);
+    }
+
+    //"ORD-2025-00042" (igual que "ORD-%d-%05d" pero sin pasar por Formatter)
+    public static String formatCode(int year, long orderNumberForYear) {
+        String number = Long.toString(orderNumberForYear);
+        StringBuilder code = new StringBuilder(14).append("ORD-").append(year).append('-');
+        for (int i = number.length(); i < 5; i++) {
+            code.append('0');
+        }
+        return code.append(number).toString();
+    }
+
+    //mantiene sincronizadas las columnas locales con orderDate
+    @PrePersist
+    @PreUpdate
+    public void syncLocalDate() {
+        if (orderDate == null) {
+            return;
+        }
+        this.orderDateLocal = toLocalDay(orderDate);
+        this.orderYear = orderDateLocal.getYear();
+        this.orderMonth = orderDateLocal.getMonthValue();
+    }
+
+    //dia calendario en Chile de una fecha/hora
+    public static LocalDate toLocalDay(ZonedDateTime dateTime) {
+        return dateTime.withZoneSameInstant(ZONE_CHILE).toLocalDate();
+    }
+
+    //registra el evento de orden creada (se publica al hacer orderRepository.save)
+    public void markPlaced() {
+        registerEvent(new OrderPlacedEvent(this, this.status));
+    }
+
+    //cambia el estado y registra el evento para actualizar los acumulados de reportes
+    //(mismo flujo que el cambio masivo: OrderStatus.canTransitionTo)
+    public void changeStatus(OrderStatus newStatus) {
+        if (newStatus == null || newStatus == this.status) {
+            return;
+        }
+        if (this.status == null || !this.status.canTransitionTo(newStatus)) {
+            throw new BusinessException("La orden " + code + " no puede pasar de " + this.status + " a " + newStatus,
+                    HttpStatus.CONFLICT);
+        }
+        OrderStatus previousStatus = this.status;
+        this.status = newStatus;
+        registerEvent(new OrderStatusChangedEvent(this, previousStatus, newStatus));
     }
 
 
@@ -0,0 +1,23 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.order;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+//correlativo de codigos de orden por año: next_value es el primer numero aun no entregado
+//a ningun nodo (cada nodo reserva bloques, ver OrderCodeAllocator)
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "order_code_sequences")
+public class OrderCodeSequence {
+
+    @Id
+    @Column(name = "seq_year")
+    private Integer year;
+
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+}
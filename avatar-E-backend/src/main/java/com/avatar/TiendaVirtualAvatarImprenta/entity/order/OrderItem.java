@@ -1,5 +1,7 @@
 package com.avatar.TiendaVirtualAvatarImprenta.entity.order;
 
+import com.avatar.TiendaVirtualAvatarImprenta.entity.product.ColorOption;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.product.MaterialOption;
 import com.avatar.TiendaVirtualAvatarImprenta.entity.product.Product;
 import jakarta.persistence.*;
 import lombok.*;
@@ -15,8 +17,10 @@ import java.math.BigDecimal;
 @Table(name = "order_items")
 public class OrderItem {
 
+    //mismo esquema de ids que Order: los items de una orden se insertan en un solo lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = Order.ID_ALLOCATION_SIZE)
     private Long id;
 
     //Producto que se esta comprando
@@ -24,11 +28,32 @@ public class OrderItem {
     @JoinColumn(name = "product_id")
     private Product product;
 
+    //material y color elegidos (opcionales segun el producto)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "material_option_id")
+    private MaterialOption materialOption;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "color_option_id")
+    private ColorOption colorOption;
+
     private int quantity;
-    private BigDecimal price = BigDecimal.ZERO;
+    private BigDecimal price = BigDecimal.ZERO;//unitario redondeado a 2 decimales (informativo)
+
+    //total cobrado por la linea: price * quantity puede diferir en centavos por el redondeo del unitario.
+    //Null en items anteriores a la columna
+    @Column(name = "line_total")
+    private BigDecimal lineTotal;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="order_id")
     private Order order;
 
+    //monto de la linea para acumulados de venta (el cobrado si existe)
+    public BigDecimal lineAmount() {
+        if (lineTotal != null) {
+            return lineTotal;
+        }
+        return (price != null ? price : BigDecimal.ZERO).multiply(BigDecimal.valueOf(quantity));
+    }
 }
@@ -0,0 +1,27 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.order;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+//trigrama (3 caracteres en minuscula) del codigo o email de una orden, para la busqueda del reporte
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "order_search_tokens",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_search_tokens_order_token", columnNames = {"order_id", "token"}),
+        indexes = @Index(name = "idx_order_search_tokens_token_order", columnList = "token, order_id"))
+public class OrderSearchToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false, length = 3)
+    private String token;
+}
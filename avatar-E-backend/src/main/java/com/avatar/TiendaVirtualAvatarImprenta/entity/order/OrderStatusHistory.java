@@ -0,0 +1,39 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+//historial de cambios de estado de las ordenes (individuales y masivos)
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "order_status_history",
+        indexes = @Index(name = "idx_order_status_history_order_changed", columnList = "order_id, changed_at"))
+public class OrderStatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 20)
+    private OrderStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", nullable = false, length = 20)
+    private OrderStatus newStatus;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    private String note;
+}
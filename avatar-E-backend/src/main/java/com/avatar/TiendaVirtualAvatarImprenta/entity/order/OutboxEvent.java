@@ -0,0 +1,66 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+//efectos secundarios de una orden pendientes de ejecutar; se inserta en la misma transaccion que la orden
+//y OrderOutboxServiceImpl lo entrega a los handlers despues del commit
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_outbox_events_status_processed_at", columnList = "status, processed_at")
+})
+public class OutboxEvent {
+
+    public static final String ORDER_PLACED = "ORDER_PLACED";
+
+    //ids pooled como orders: el INSERT viaja en el mismo lote JDBC que la orden
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = Order.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    //datos del evento en JSON (ver OrderPlacedPayload)
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    //PROCESSING: si el nodo cae, otro puede tomar el evento pasado este instante
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+}
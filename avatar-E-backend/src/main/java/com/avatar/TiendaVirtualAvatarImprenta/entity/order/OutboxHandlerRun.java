@@ -0,0 +1,32 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.order;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+//handler que ya aplico un evento del outbox: si el evento se reintenta (otro handler fallo o vencio el bloqueo)
+//no se vuelve a aplicar. Se borra cuando el evento queda DONE
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "outbox_handler_runs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_outbox_handler_runs_event_handler", columnNames = {"event_id", "handler"}))
+public class OutboxHandlerRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false, length = 100)
+    private String handler;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+}
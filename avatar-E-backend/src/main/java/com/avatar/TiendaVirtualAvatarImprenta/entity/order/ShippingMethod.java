@@ -1,5 +1,6 @@
 package com.avatar.TiendaVirtualAvatarImprenta.entity.order;
 
+import com.avatar.TiendaVirtualAvatarImprenta.event.product.CatalogChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -12,6 +13,7 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @Builder
 @Table(name = "shipping_method")
+@EntityListeners(CatalogChangeListener.class)//recompila el motor de precios
 public class ShippingMethod { //tipo de envio
     //PICKUP, Retiro en tienda
     //DELIVERY,// Envío a domicilio
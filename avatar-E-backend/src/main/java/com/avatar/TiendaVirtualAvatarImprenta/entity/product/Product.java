@@ -1,6 +1,7 @@
 package com.avatar.TiendaVirtualAvatarImprenta.entity.product;
 
 import com.avatar.TiendaVirtualAvatarImprenta.enums.CommercializationType;
+import com.avatar.TiendaVirtualAvatarImprenta.event.product.CatalogChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -17,6 +18,7 @@ import java.util.List;
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 @SuperBuilder
 @Table(name = "products")
+@EntityListeners(CatalogChangeListener.class)//recompila el motor de precios
 public abstract class Product {
 
     @Id
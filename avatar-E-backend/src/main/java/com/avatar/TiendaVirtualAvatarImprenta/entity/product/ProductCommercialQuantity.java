@@ -1,5 +1,6 @@
 package com.avatar.TiendaVirtualAvatarImprenta.entity.product;
 
+import com.avatar.TiendaVirtualAvatarImprenta.event.product.CatalogChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -15,6 +16,7 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "product_commercial_quantity")
+@EntityListeners(CatalogChangeListener.class)//recompila el motor de precios
 public class ProductCommercialQuantity {
 
     @Id
@@ -1,5 +1,6 @@
 package com.avatar.TiendaVirtualAvatarImprenta.entity.product;
 
+import com.avatar.TiendaVirtualAvatarImprenta.event.product.CatalogChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -17,6 +18,7 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @Builder
 @Table(name = "product_material_options")
+@EntityListeners(CatalogChangeListener.class)//recompila el motor de precios
 public class ProductMaterialOption {
 
     @Id
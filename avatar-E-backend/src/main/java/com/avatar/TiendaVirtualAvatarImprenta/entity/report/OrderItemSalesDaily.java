@@ -0,0 +1,53 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+//hechos de venta por item: acumulado diario por producto, material, color y estado de la orden
+//material/color en 0 = el item no tiene esa opcion (asi la clave unica no tiene nulos)
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "order_item_sales_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_item_sales_daily_bucket",
+                columnNames = {"bucket_date", "product_id", "material_option_id", "color_option_id", "status"}),
+        indexes = @Index(name = "idx_order_item_sales_daily_date_status", columnList = "bucket_date, status"))
+public class OrderItemSalesDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;//dia en hora de Chile
+
+    @Column(name = "product_id", nullable = false)
+    private long productId;
+
+    @Column(name = "material_option_id", nullable = false)
+    private long materialOptionId;
+
+    @Column(name = "color_option_id", nullable = false)
+    private long colorOptionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "item_count", nullable = false)
+    private long itemCount;//lineas de orden
+
+    @Column(nullable = false)
+    private long quantity;//unidades
+
+    @Column(nullable = false)
+    @Builder.Default
+    private BigDecimal revenue = BigDecimal.ZERO;//price * quantity
+}
@@ -0,0 +1,38 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+//acumulado diario de ventas por estado (se actualiza al crear/cambiar estado de una orden)
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "order_sales_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_sales_daily_bucket", columnNames = {"bucket_date", "status"}))
+public class OrderSalesDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;//dia en hora de Chile
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "total_amount", nullable = false)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+}
@@ -0,0 +1,38 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+//acumulado mensual de ventas por estado
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "order_sales_monthly",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_sales_monthly_bucket", columnNames = {"bucket_month", "status"}))
+public class OrderSalesMonthly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_month", nullable = false)
+    private LocalDate bucketMonth;//primer dia del mes
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "total_amount", nullable = false)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+}
@@ -0,0 +1,37 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+//acumulado anual de ventas por estado
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "order_sales_yearly",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_sales_yearly_bucket", columnNames = {"bucket_year", "status"}))
+public class OrderSalesYearly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_year", nullable = false)
+    private int bucketYear;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "total_amount", nullable = false)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+}
@@ -0,0 +1,37 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+//histograma diario del monto de las ordenes por estado: una fila por bucket no vacio (ver ValueHistogram)
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "order_value_histogram_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_order_value_histogram_daily_bucket",
+                columnNames = {"bucket_date", "status", "bucket_index"}))
+public class OrderValueHistogramDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;//dia en hora de Chile
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "bucket_index", nullable = false)
+    private int bucketIndex;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+}
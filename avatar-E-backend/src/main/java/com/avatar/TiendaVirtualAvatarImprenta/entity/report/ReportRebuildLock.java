@@ -0,0 +1,19 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.report;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+//fila de bloqueo de los acumulados: las reconstrucciones la toman FOR UPDATE y las escrituras
+//incrementales FOR SHARE, asi un rebuild no se cruza con deltas en vuelo
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "report_rebuild_locks")
+public class ReportRebuildLock {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+}
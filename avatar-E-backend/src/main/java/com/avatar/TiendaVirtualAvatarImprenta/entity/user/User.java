@@ -2,6 +2,7 @@ package com.avatar.TiendaVirtualAvatarImprenta.entity.user;
 
 import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
 import com.avatar.TiendaVirtualAvatarImprenta.enums.UserRole;
+import com.avatar.TiendaVirtualAvatarImprenta.event.user.UserEmailChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -9,6 +10,7 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import org.hibernate.validator.constraints.Length;
 import org.springframework.data.annotation.CreatedDate;
@@ -19,7 +21,7 @@ import java.time.*;
 import java.util.List;
 
 @Entity
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, UserEmailChangeListener.class})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -45,6 +47,11 @@ public class User {
     @Email(message = "El correo debe tener un formato valido")
     private String email;
 
+    //email tal como se cargo de la BD (lo usa UserEmailChangeListener para detectar cambios)
+    @Transient
+    @EqualsAndHashCode.Exclude
+    private String loadedEmail;
+
     @Column(nullable = false, length = 100)
     @Size(min = 6, message = "La contraseña debe tener al menos 6 caracteres")
     private String password;
@@ -0,0 +1,6 @@
+package com.avatar.TiendaVirtualAvatarImprenta.enums;
+
+public enum BestSellerMetric {
+    UNITS,//unidades vendidas
+    REVENUE//monto vendido
+}
@@ -0,0 +1,8 @@
+package com.avatar.TiendaVirtualAvatarImprenta.enums;
+
+//ventana de tiempo del ranking de mas vendidos
+public enum BestSellerWindow {
+    DAY,
+    WEEK,//lunes a domingo
+    MONTH
+}
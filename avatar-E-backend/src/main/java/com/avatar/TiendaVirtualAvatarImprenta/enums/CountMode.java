@@ -0,0 +1,8 @@
+package com.avatar.TiendaVirtualAvatarImprenta.enums;
+
+//como calcular el total en la paginacion por cursor
+public enum CountMode {
+    EXACT,//COUNT sobre orders
+    APPROXIMATE,//desde los acumulados de ventas (por dias completos, sin searchText)
+    NONE//no se calcula
+}
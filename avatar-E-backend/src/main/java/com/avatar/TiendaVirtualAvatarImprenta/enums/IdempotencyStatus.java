@@ -0,0 +1,6 @@
+package com.avatar.TiendaVirtualAvatarImprenta.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,//la primera solicitud con esa clave se esta procesando
+    COMPLETED//respuesta guardada, los reintentos la reciben tal cual
+}
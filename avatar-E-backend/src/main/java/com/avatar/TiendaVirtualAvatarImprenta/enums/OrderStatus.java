@@ -9,5 +9,14 @@ public enum OrderStatus {
     CANCELLED,//pedido cancelado
     RETURNED;//pedido devuelto
 
-
+    //flujo permitido para cambios desde administracion; CANCELLED y RETURNED son finales
+    public boolean canTransitionTo(OrderStatus next) {
+        return switch (this) {
+            case PENDING -> next == PAID || next == CANCELLED;
+            case PAID -> next == SHIPPED || next == CANCELLED;
+            case SHIPPED -> next == DELIVERED || next == RETURNED;
+            case DELIVERED -> next == RETURNED;
+            case CANCELLED, RETURNED -> false;
+        };
+    }
 }
@@ -0,0 +1,8 @@
+package com.avatar.TiendaVirtualAvatarImprenta.enums;
+
+public enum OutboxStatus {
+    PENDING,//esperando (o esperando reintento desde next_attempt_at)
+    PROCESSING,//tomado por un nodo hasta locked_until
+    DONE,//todos los handlers terminaron
+    DEAD//agoto los intentos, queda para revision manual
+}
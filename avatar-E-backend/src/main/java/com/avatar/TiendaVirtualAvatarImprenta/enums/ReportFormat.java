@@ -0,0 +1,23 @@
+package com.avatar.TiendaVirtualAvatarImprenta.enums;
+
+//formatos de salida de los reportes generados en segundo plano
+public enum ReportFormat {
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    PDF("pdf", "application/pdf");
+
+    private final String extension;
+    private final String contentType;
+
+    ReportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
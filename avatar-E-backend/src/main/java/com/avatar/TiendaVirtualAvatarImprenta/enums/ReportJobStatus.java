@@ -0,0 +1,8 @@
+package com.avatar.TiendaVirtualAvatarImprenta.enums;
+
+public enum ReportJobStatus {
+    QUEUED,//esperando un hilo libre
+    RUNNING,
+    DONE,//archivo listo para descargar
+    FAILED
+}
@@ -0,0 +1,10 @@
+package com.avatar.TiendaVirtualAvatarImprenta.enums;
+
+//dimension por la que se agrupan las ventas de items
+public enum SalesDimension {
+    PRODUCT,
+    SUBCATEGORY,
+    CATEGORY,
+    MATERIAL,
+    COLOR
+}
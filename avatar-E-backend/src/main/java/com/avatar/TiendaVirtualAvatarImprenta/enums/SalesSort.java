@@ -0,0 +1,7 @@
+package com.avatar.TiendaVirtualAvatarImprenta.enums;
+
+//criterio del ranking de ventas
+public enum SalesSort {
+    REVENUE,//monto vendido
+    QUANTITY//unidades vendidas
+}
@@ -0,0 +1,12 @@
+package com.avatar.TiendaVirtualAvatarImprenta.enums;
+
+//dimensiones de agrupacion de la analitica en memoria
+public enum SliceDimension {
+    STATUS,
+    REGION,
+    COMUNA,
+    CUSTOMER_TYPE,//empresa o persona
+    SHIPPING_METHOD,
+    DAY,
+    MONTH
+}
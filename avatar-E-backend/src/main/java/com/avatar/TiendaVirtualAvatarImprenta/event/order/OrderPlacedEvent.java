@@ -0,0 +1,9 @@
+package com.avatar.TiendaVirtualAvatarImprenta.event.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+
+//evento de dominio: se registro una nueva orden con el estado inicial indicado
+//se publica al guardar la orden con el repositorio (Spring Data @DomainEvents)
+public record OrderPlacedEvent(Order order, OrderStatus status) {
+}
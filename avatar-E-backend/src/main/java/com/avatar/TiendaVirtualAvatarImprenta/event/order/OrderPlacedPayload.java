@@ -0,0 +1,24 @@
+package com.avatar.TiendaVirtualAvatarImprenta.event.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.user.User;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+//lo que guarda el outbox de una orden nueva: foto al momento de crearla
+//(los handlers corren despues y la orden puede haber cambiado de estado)
+public record OrderPlacedPayload(Long orderId, String code, OrderStatus status, LocalDate day,
+                                 BigDecimal totalAmount, String email, String customerName) {
+
+    public static OrderPlacedPayload of(Order order, OrderStatus status) {
+        LocalDate day = order.getOrderDateLocal() != null ? order.getOrderDateLocal()
+                : order.getOrderDate() != null ? Order.toLocalDay(order.getOrderDate()) : LocalDate.now(Order.ZONE_CHILE);
+        User user = order.getUser();
+        return new OrderPlacedPayload(order.getId(), order.getCode(), status, day,
+                order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO,
+                user != null ? user.getEmail() : null,
+                user != null ? user.getFirstName() : null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.avatar.TiendaVirtualAvatarImprenta.event.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+//cambio de estado masivo aplicado con UPDATE (sin cargar entidades): lleva lo necesario para mover
+//cada orden en los acumulados sin volver a leerla
+public record OrderStatusBulkChangedEvent(List<Change> changes) {
+
+    public record Change(Long orderId, LocalDate day, BigDecimal totalAmount,
+                         OrderStatus previousStatus, OrderStatus newStatus) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.avatar.TiendaVirtualAvatarImprenta.event.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+
+//evento de dominio: la orden cambio de estado (previousStatus -> newStatus)
+public record OrderStatusChangedEvent(Order order, OrderStatus previousStatus, OrderStatus newStatus) {
+}
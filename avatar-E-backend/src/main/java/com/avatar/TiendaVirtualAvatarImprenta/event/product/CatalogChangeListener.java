@@ -0,0 +1,23 @@
+package com.avatar.TiendaVirtualAvatarImprenta.event.product;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+//listener JPA de las entidades que definen precios (Hibernate lo obtiene de Spring para inyectar el publisher)
+@Component
+@RequiredArgsConstructor
+public class CatalogChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(entity.getClass()));
+    }
+}
@@ -0,0 +1,6 @@
+package com.avatar.TiendaVirtualAvatarImprenta.event.product;
+
+//evento de dominio: cambio un producto, material, patron de cantidad o metodo de envio
+//(lo publica CatalogChangeListener; el motor de precios se recompila al confirmar la transaccion)
+public record CatalogChangedEvent(Class<?> entityType) {
+}
@@ -0,0 +1,33 @@
+package com.avatar.TiendaVirtualAvatarImprenta.event.user;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.user.User;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+//listener JPA de User: recuerda el email cargado y publica UserEmailChangedEvent si un update lo cambia
+@Component
+@RequiredArgsConstructor
+public class UserEmailChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    @PostPersist
+    public void remember(User user) {
+        user.setLoadedEmail(user.getEmail());
+    }
+
+    @PostUpdate
+    public void onUpdate(User user) {
+        if (!Objects.equals(user.getLoadedEmail(), user.getEmail())) {
+            user.setLoadedEmail(user.getEmail());
+            eventPublisher.publishEvent(new UserEmailChangedEvent(user.getId()));
+        }
+    }
+}
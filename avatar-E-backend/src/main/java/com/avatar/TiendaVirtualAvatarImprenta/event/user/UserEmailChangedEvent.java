@@ -0,0 +1,6 @@
+package com.avatar.TiendaVirtualAvatarImprenta.event.user;
+
+//evento de dominio: cambio el email de un usuario (lo publica UserEmailChangeListener;
+//el indice de busqueda de ordenes se actualiza al confirmar la transaccion)
+public record UserEmailChangedEvent(Long userId) {
+}
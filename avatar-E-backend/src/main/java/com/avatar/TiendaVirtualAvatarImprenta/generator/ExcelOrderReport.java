@@ -1,4 +1,164 @@
 package com.avatar.TiendaVirtualAvatarImprenta.generator;
 
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportFilter;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import lombok.RequiredArgsConstructor;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+//genera el reporte de ordenes en xlsx con memoria constante:
+//SXSSF mantiene solo ROW_WINDOW filas en memoria y el resto va a archivos temporales comprimidos
+@Component
+@RequiredArgsConstructor
 public class ExcelOrderReport {
+
+    public static final String CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private static final int ROW_WINDOW = 100;
+    //una hoja xlsx admite 1.048.576 filas (incluida la cabecera); al llenarse se abre otra hoja
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final String[] ORDER_HEADERS = {"Codigo", "Fecha", "Cliente", "Estado", "Total"};
+    private static final String[] PERIOD_HEADERS = {"Periodo", "Ordenes", "Total"};
+
+    private final OrderExportSource exportSource;
+
+    public void write(OrderReportFilter filter, OutputStream out) throws IOException {
+        write(filter, out, rows -> { });
+    }
+
+    //progress recibe la cantidad de ordenes escritas hasta el momento
+    public void write(OrderReportFilter filter, OutputStream out, LongConsumer progress) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Styles styles = new Styles(workbook);
+            OrderSheetWriter orders = new OrderSheetWriter(workbook, styles);
+            PeriodTotals totals = new PeriodTotals();
+            long[] written = {0};
+
+            //una sola pasada: se escriben las filas y se acumulan los totales por periodo
+            exportSource.forEach(filter, order -> {
+                orders.append(order);
+                totals.add(order.getOrderDate(), order.getTotalAmount());
+                progress.accept(++written[0]);
+            });
+
+            writePeriodSheet(workbook, styles, "Diario", totals.daily());
+            writePeriodSheet(workbook, styles, "Mensual", totals.monthly());
+            writePeriodSheet(workbook, styles, "Anual", totals.yearly());
+
+            workbook.write(out);
+        } finally {
+            //borra los archivos temporales de las filas ya volcadas
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    //reporte agrupado (DAILY/MONTHLY/YEARLY) ya calculado: una sola hoja
+    public void writePeriods(String title, List<OrderReportDTO> periods, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        try {
+            writePeriodSheet(workbook, new Styles(workbook), title, periods);
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void writePeriodSheet(SXSSFWorkbook workbook, Styles styles, String name, List<OrderReportDTO> periods) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        writeHeader(sheet, styles, PERIOD_HEADERS);
+        int rowIndex = 1;
+        for (OrderReportDTO period : periods) {
+            Row row = sheet.createRow(rowIndex++);
+            row.createCell(0).setCellValue(period.getPeriod());
+            row.createCell(1).setCellValue(period.getTotalOrders());
+            var amount = row.createCell(2);
+            amount.setCellValue(period.getTotalAmount().doubleValue());
+            amount.setCellStyle(styles.amount);
+        }
+    }
+
+    private static void writeHeader(SXSSFSheet sheet, Styles styles, String[] headers) {
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            var cell = header.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(styles.header);
+        }
+    }
+
+    //escribe las filas de ordenes abriendo una hoja nueva cuando se alcanza el limite de filas
+    private static final class OrderSheetWriter {
+        private final SXSSFWorkbook workbook;
+        private final Styles styles;
+        private SXSSFSheet sheet;
+        private int sheetCount;
+        private int rowIndex;
+
+        private OrderSheetWriter(SXSSFWorkbook workbook, Styles styles) {
+            this.workbook = workbook;
+            this.styles = styles;
+            nextSheet();
+        }
+
+        private void nextSheet() {
+            sheetCount++;
+            sheet = workbook.createSheet(sheetCount == 1 ? "Ordenes" : "Ordenes " + sheetCount);
+            writeHeader(sheet, styles, ORDER_HEADERS);
+            rowIndex = 1;
+        }
+
+        private void append(OrderSummaryDTO order) {
+            if (rowIndex == MAX_ROWS_PER_SHEET) {
+                nextSheet();
+            }
+            Row row = sheet.createRow(rowIndex++);
+            row.createCell(0).setCellValue(order.getCode());
+            if (order.getOrderDate() != null) {
+                var date = row.createCell(1);
+                date.setCellValue(order.getOrderDate().withZoneSameInstant(Order.ZONE_CHILE).toLocalDateTime());
+                date.setCellStyle(styles.date);
+            }
+            row.createCell(2).setCellValue(order.getEmail());
+            row.createCell(3).setCellValue(order.getStatus() != null ? order.getStatus().name() : null);
+            var amount = row.createCell(4);
+            amount.setCellValue(order.getTotalAmount() != null ? order.getTotalAmount().doubleValue() : 0d);
+            amount.setCellStyle(styles.amount);
+        }
+    }
+
+    //los estilos se crean una sola vez por libro (excel limita la cantidad de estilos)
+    private static final class Styles {
+        private final CellStyle header;
+        private final CellStyle date;
+        private final CellStyle amount;
+
+        private Styles(SXSSFWorkbook workbook) {
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            header = workbook.createCellStyle();
+            header.setFont(bold);
+
+            var format = workbook.createDataFormat();
+            date = workbook.createCellStyle();
+            date.setDataFormat(format.getFormat("yyyy-mm-dd hh:mm"));
+            amount = workbook.createCellStyle();
+            amount.setDataFormat(format.getFormat("#,##0"));
+        }
+    }
 }
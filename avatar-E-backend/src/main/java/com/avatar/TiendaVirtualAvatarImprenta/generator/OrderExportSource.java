@@ -0,0 +1,53 @@
+package com.avatar.TiendaVirtualAvatarImprenta.generator;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportFilter;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSearchCriteria;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderSearchIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+//recorre todas las ordenes del filtro del listado ALL en bloques por cursor (orderDate, id)
+//cada bloque es una consulta corta: en memoria solo queda un bloque a la vez
+@Component
+@RequiredArgsConstructor
+public class OrderExportSource {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final OrderRepository orderRepository;
+    private final OrderSearchIndexService searchIndexService;
+
+    public void forEach(OrderReportFilter filter, Consumer<OrderSummaryDTO> consumer) {
+        OrderSearchCriteria criteria = searchIndexService.resolve(filter.searchText());
+        if (criteria.exactCode() != null) {
+            orderRepository.findSummaryByCode(criteria.exactCode(), filter.startDate(), filter.endDate(), filter.status())
+                    .ifPresent(consumer);
+            return;
+        }
+
+        ZonedDateTime afterDate = null;
+        Long afterId = null;
+        List<OrderSummaryDTO> chunk;
+        do {
+            chunk = orderRepository.seekOrdersInRange(
+                    filter.startDate(), filter.endDate(), filter.status(),
+                    criteria.text(), criteria.statusParam(), criteria.statusCount(), criteria.tokenParam(), criteria.tokenCount(),
+                    afterDate, afterId, Limit.of(CHUNK_SIZE));
+            for (OrderSummaryDTO order : chunk) {
+                consumer.accept(order);
+            }
+            if (!chunk.isEmpty()) {
+                OrderSummaryDTO last = chunk.get(chunk.size() - 1);
+                afterDate = last.getOrderDate();
+                afterId = last.getId();
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+    }
+}
@@ -0,0 +1,113 @@
+package com.avatar.TiendaVirtualAvatarImprenta.generator;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportFilter;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSearchCriteria;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderSearchIndexService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+//exporta todas las ordenes del filtro en csv o ndjson leyendo un cursor de solo avance:
+//cada fila se escribe en la respuesta apenas llega, sin Page ni entidades
+@Component
+@RequiredArgsConstructor
+public class OrderStreamExport {
+
+    private static final String CSV_HEADER = "id,code,email,status,totalAmount,orderDate";
+
+    private final OrderRepository orderRepository;
+    private final OrderSearchIndexService searchIndexService;
+    private final ObjectMapper objectMapper;
+
+    //la transaccion mantiene abierto el result set mientras se recorre el Stream
+    @Transactional(readOnly = true)
+    public void writeCsv(OrderReportFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        try (Stream<OrderSummaryDTO> orders = openStream(filter)) {
+            Iterator<OrderSummaryDTO> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                OrderSummaryDTO order = iterator.next();
+                writer.write(String.valueOf(order.getId()));
+                writer.write(',');
+                writeCsvValue(writer, order.getCode());
+                writer.write(',');
+                writeCsvValue(writer, order.getEmail());
+                writer.write(',');
+                writer.write(order.getStatus() != null ? order.getStatus().name() : "");
+                writer.write(',');
+                writer.write(order.getTotalAmount() != null ? order.getTotalAmount().toPlainString() : "");
+                writer.write(',');
+                writer.write(order.getOrderDate() != null ? order.getOrderDate().toOffsetDateTime().toString() : "");
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void writeNdjson(OrderReportFilter filter, OutputStream out) throws IOException {
+        //una linea json por orden; el stream de la respuesta lo cierra el contenedor
+        try (Stream<OrderSummaryDTO> orders = openStream(filter);
+             SequenceWriter writer = objectMapper.writer()
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            Iterator<OrderSummaryDTO> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
+        out.write('\n');
+        out.flush();
+    }
+
+    private Stream<OrderSummaryDTO> openStream(OrderReportFilter filter) {
+        OrderSearchCriteria criteria = searchIndexService.resolve(filter.searchText());
+        if (criteria.exactCode() != null) {
+            return orderRepository.findSummaryByCode(criteria.exactCode(), filter.startDate(), filter.endDate(), filter.status())
+                    .stream();
+        }
+        return orderRepository.streamOrdersInRange(filter.startDate(), filter.endDate(), filter.status(),
+                criteria.text(), criteria.statusParam(), criteria.statusCount(), criteria.tokenParam(), criteria.tokenCount());
+    }
+
+    //comillas solo cuando el valor lo necesita (coma, comillas o salto de linea)
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        //un texto que empieza como formula (=, +, -, @, tab o retorno) Excel lo ejecuta al abrir el archivo:
+        //se antepone ' para que quede como texto
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
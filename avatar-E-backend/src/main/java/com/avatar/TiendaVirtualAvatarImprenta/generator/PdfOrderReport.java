@@ -1,4 +1,181 @@
 package com.avatar.TiendaVirtualAvatarImprenta.generator;
 
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportFilter;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.ColumnText;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfPageEventHelper;
+import com.lowagie.text.pdf.PdfWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+//genera el reporte de ordenes en pdf sin armar el documento completo en memoria:
+//la tabla se marca incompleta y se agrega al documento cada FLUSH_ROWS filas,
+//asi las paginas terminadas se escriben al stream y sus filas se liberan
+@Component
+@RequiredArgsConstructor
 public class PdfOrderReport {
+
+    public static final String CONTENT_TYPE = "application/pdf";
+
+    private static final int FLUSH_ROWS = 200;
+
+    //fuentes y plantillas de cabecera: se crean una vez por JVM
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 9, Color.WHITE);
+    private static final Font CELL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 8);
+    private static final Font FOOTER_FONT = FontFactory.getFont(FontFactory.HELVETICA, 7, Color.GRAY);
+    private static final Color HEADER_BACKGROUND = new Color(45, 62, 80);
+
+    private static final float[] ORDER_WIDTHS = {3f, 2.5f, 4.5f, 2f, 2f};
+    private static final float[] PERIOD_WIDTHS = {3f, 2f, 3f};
+    private static final List<PdfPCell> ORDER_HEADER = headerCells("Codigo", "Fecha", "Cliente", "Estado", "Total");
+    private static final List<PdfPCell> PERIOD_HEADER = headerCells("Periodo", "Ordenes", "Total");
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final OrderExportSource exportSource;
+
+    //escribe el reporte del filtro y devuelve la cantidad de paginas generadas
+    public int write(OrderReportFilter filter, OutputStream out) {
+        return write(filter, out, rows -> { });
+    }
+
+    //progress recibe la cantidad de ordenes escritas hasta el momento
+    public int write(OrderReportFilter filter, OutputStream out, LongConsumer progress) {
+        long[] written = {0};
+        return render(sink -> exportSource.forEach(filter, order -> {
+            sink.accept(order);
+            progress.accept(++written[0]);
+        }), out);
+    }
+
+    //reporte agrupado (DAILY/MONTHLY/YEARLY) ya calculado: una sola tabla
+    public int writePeriods(String title, List<OrderReportDTO> periods, OutputStream out) {
+        Document document = new Document(PageSize.A4, 36, 36, 36, 48);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setFullCompression();
+        writer.setPageEvent(new PageFooter());
+        document.open();
+        try {
+            addPeriodTable(document, title, periods);
+            return writer.getPageNumber();
+        } finally {
+            document.close();
+        }
+    }
+
+    //source entrega las ordenes al consumidor recibido; separado de la consulta para poder medirlo aislado
+    public int render(Consumer<Consumer<OrderSummaryDTO>> source, OutputStream out) {
+        Document document = new Document(PageSize.A4, 36, 36, 36, 48);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setFullCompression();
+        writer.setPageEvent(new PageFooter());
+        document.open();
+        try {
+            document.add(new Paragraph("Reporte de ordenes", TITLE_FONT));
+
+            PdfPTable orders = newTable(ORDER_WIDTHS, ORDER_HEADER);
+            orders.setComplete(false);
+            PeriodTotals totals = new PeriodTotals();
+            int[] pending = {0};
+
+            source.accept(order -> {
+                addOrderRow(orders, order);
+                totals.add(order.getOrderDate(), order.getTotalAmount());
+                if (++pending[0] == FLUSH_ROWS) {
+                    document.add(orders);
+                    pending[0] = 0;
+                }
+            });
+            orders.setComplete(true);
+            document.add(orders);
+
+            document.newPage();
+            addPeriodTable(document, "Diario", totals.daily());
+            addPeriodTable(document, "Mensual", totals.monthly());
+            addPeriodTable(document, "Anual", totals.yearly());
+            return writer.getPageNumber();
+        } finally {
+            document.close();
+        }
+    }
+
+    private static void addOrderRow(PdfPTable table, OrderSummaryDTO order) {
+        table.addCell(new Phrase(order.getCode(), CELL_FONT));
+        table.addCell(new Phrase(order.getOrderDate() != null
+                ? order.getOrderDate().withZoneSameInstant(Order.ZONE_CHILE).format(DATE_FORMAT) : "", CELL_FONT));
+        table.addCell(new Phrase(order.getEmail(), CELL_FONT));
+        table.addCell(new Phrase(order.getStatus() != null ? order.getStatus().name() : "", CELL_FONT));
+        table.addCell(amountCell(order.getTotalAmount()));
+    }
+
+    private static void addPeriodTable(Document document, String title, List<OrderReportDTO> periods) {
+        Paragraph heading = new Paragraph(title, TITLE_FONT);
+        heading.setSpacingBefore(8);
+        heading.setSpacingAfter(4);
+        document.add(heading);
+        PdfPTable table = newTable(PERIOD_WIDTHS, PERIOD_HEADER);
+        for (OrderReportDTO period : periods) {
+            table.addCell(new Phrase(period.getPeriod(), CELL_FONT));
+            table.addCell(new Phrase(String.valueOf(period.getTotalOrders()), CELL_FONT));
+            table.addCell(amountCell(period.getTotalAmount()));
+        }
+        document.add(table);
+    }
+
+    private static PdfPTable newTable(float[] widths, List<PdfPCell> header) {
+        PdfPTable table = new PdfPTable(widths);
+        table.setWidthPercentage(100);
+        //la cabecera se repite en cada pagina
+        header.forEach(table::addCell);
+        table.setHeaderRows(1);
+        return table;
+    }
+
+    private static PdfPCell amountCell(BigDecimal amount) {
+        PdfPCell cell = new PdfPCell(new Phrase(
+                (amount != null ? amount : BigDecimal.ZERO).setScale(0, RoundingMode.HALF_UP).toPlainString(), CELL_FONT));
+        cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        return cell;
+    }
+
+    //PdfPTable.addCell copia la celda, por eso las plantillas se pueden compartir
+    private static List<PdfPCell> headerCells(String... titles) {
+        return Arrays.stream(titles).map(title -> {
+            PdfPCell cell = new PdfPCell(new Phrase(title, HEADER_FONT));
+            cell.setBackgroundColor(HEADER_BACKGROUND);
+            cell.setPadding(4);
+            return cell;
+        }).toList();
+    }
+
+    private static final class PageFooter extends PdfPageEventHelper {
+        @Override
+        public void onEndPage(PdfWriter writer, Document document) {
+            ColumnText.showTextAligned(writer.getDirectContent(), Element.ALIGN_RIGHT,
+                    new Phrase("Pagina " + writer.getPageNumber(), FOOTER_FONT),
+                    document.right(), document.bottom() - 20, 0);
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package com.avatar.TiendaVirtualAvatarImprenta.generator;
+
+import com.avatar.TiendaVirtualAvatarImprenta.common.PeriodLabels;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+//acumula conteo y monto por dia mientras se exportan las filas;
+//los totales mensuales y anuales se derivan de los diarios (la memoria depende de los dias, no de las ordenes)
+public class PeriodTotals {
+
+    private final Map<LocalDate, long[]> orderCounts = new TreeMap<>();
+    private final Map<LocalDate, BigDecimal> amounts = new TreeMap<>();
+
+    public void add(ZonedDateTime orderDate, BigDecimal totalAmount) {
+        LocalDate day = Order.toLocalDay(orderDate);
+        orderCounts.computeIfAbsent(day, d -> new long[1])[0]++;
+        amounts.merge(day, totalAmount != null ? totalAmount : BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public List<OrderReportDTO> daily() {
+        return group(day -> PeriodLabels.of(ReportType.DAILY, day));
+    }
+
+    public List<OrderReportDTO> monthly() {
+        return group(day -> PeriodLabels.of(ReportType.MONTHLY, day));
+    }
+
+    public List<OrderReportDTO> yearly() {
+        return group(day -> PeriodLabels.of(ReportType.YEARLY, day));
+    }
+
+    private List<OrderReportDTO> group(Function<LocalDate, String> periodOf) {
+        Map<String, OrderReportDTO> periods = new TreeMap<>();
+        orderCounts.forEach((day, count) -> {
+            OrderReportDTO period = periods.computeIfAbsent(periodOf.apply(day),
+                    key -> new OrderReportDTO(key, 0L, BigDecimal.ZERO));
+            period.setTotalOrders(period.getTotalOrders() + count[0]);
+            period.setTotalAmount(period.getTotalAmount().add(amounts.get(day)));
+        });
+        return new ArrayList<>(periods.values());
+    }
+}
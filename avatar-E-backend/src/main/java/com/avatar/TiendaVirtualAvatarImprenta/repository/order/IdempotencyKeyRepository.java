@@ -0,0 +1,64 @@
+package com.avatar.TiendaVirtualAvatarImprenta.repository.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByKeyHash(String keyHash);
+
+    //reserva la clave: 1 si se creo, 0 si ya existia (la unica restriccion decide entre nodos)
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO idempotency_keys (key_hash, request_hash, status, created_at, expires_at)
+            VALUES (:keyHash, :requestHash, 'IN_PROGRESS', :now, :expiresAt)
+            """, nativeQuery = true)
+    int reserve(@Param("keyHash") String keyHash,
+                @Param("requestHash") String requestHash,
+                @Param("now") Instant now,
+                @Param("expiresAt") Instant expiresAt);
+
+    //toma una clave vencida (bloqueo abandonado por un nodo caido o respuesta aun no purgada)
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE idempotency_keys
+            SET request_hash = :requestHash, status = 'IN_PROGRESS', response_body = NULL,
+            created_at = :now, expires_at = :expiresAt
+            WHERE key_hash = :keyHash AND expires_at < :now
+            """, nativeQuery = true)
+    int takeOverExpired(@Param("keyHash") String keyHash,
+                        @Param("requestHash") String requestHash,
+                        @Param("now") Instant now,
+                        @Param("expiresAt") Instant expiresAt);
+
+    //se llama dentro de la transaccion que crea la orden: orden y respuesta se confirman juntas
+    @Modifying
+    @Query(value = """
+            UPDATE idempotency_keys
+            SET status = 'COMPLETED', response_body = :responseBody, expires_at = :expiresAt
+            WHERE key_hash = :keyHash
+            """, nativeQuery = true)
+    int complete(@Param("keyHash") String keyHash,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") Instant expiresAt);
+
+    //la solicitud fallo: se libera la clave para que un reintento vuelva a ejecutarla
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE key_hash = :keyHash AND status = 'IN_PROGRESS'", nativeQuery = true)
+    int release(@Param("keyHash") String keyHash);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
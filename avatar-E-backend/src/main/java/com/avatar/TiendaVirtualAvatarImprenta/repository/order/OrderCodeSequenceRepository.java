@@ -0,0 +1,44 @@
+package com.avatar.TiendaVirtualAvatarImprenta.repository.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OrderCodeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderCodeSequenceRepository extends JpaRepository<OrderCodeSequence, Integer> {
+
+    //reserva un bloque: crea el año en firstValue + blockSize o avanza next_value en blockSize.
+    //La fila queda bloqueada hasta el commit, asi la lectura siguiente ve el valor propio
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            INSERT INTO order_code_sequences (seq_year, next_value)
+            VALUES (:year, :firstValue + :blockSize)
+            ON DUPLICATE KEY UPDATE
+            next_value = next_value + :blockSize
+            """, nativeQuery = true)
+    int reserveBlock(@Param("year") int year,
+                     @Param("firstValue") long firstValue,
+                     @Param("blockSize") int blockSize);
+
+    @Query(value = "SELECT next_value FROM order_code_sequences WHERE seq_year = :year", nativeQuery = true)
+    long findNextValue(@Param("year") int year);
+
+    //mayor correlativo ya usado en el año (codigos "ORD-YYYY-NNNNN" creados antes de existir la tabla)
+    @Query(value = """
+            SELECT COALESCE(MAX(CAST(SUBSTRING(code, 10) AS UNSIGNED)), 0)
+            FROM orders
+            WHERE code LIKE CONCAT('ORD-', :year, '-%')
+            """, nativeQuery = true)
+    long findMaxCodeNumber(@Param("year") int year);
+
+    //el proximo numero del año queda en al menos minNextValue (ordenes importadas con sus codigos)
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            INSERT INTO order_code_sequences (seq_year, next_value)
+            VALUES (:year, :minNextValue)
+            ON DUPLICATE KEY UPDATE
+            next_value = GREATEST(next_value, :minNextValue)
+            """, nativeQuery = true)
+    int raiseTo(@Param("year") int year, @Param("minNextValue") long minNextValue);
+}
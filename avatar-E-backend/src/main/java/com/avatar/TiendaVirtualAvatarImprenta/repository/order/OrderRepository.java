@@ -1,48 +1,75 @@
 package com.avatar.TiendaVirtualAvatarImprenta.repository.order;
 
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderDetailRow;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderFactRow;
 import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderItemDTO;
 import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.PeriodAggregate;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.StatusPivotRow;
 import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
 import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    @Query("SELECT COUNT(o) FROM Order o WHERE YEAR(o.orderDate) = :year")
-    long countOrdersByYear(@Param("year") int year);
 
+    //conteo por rango de dias (usa el indice de order_date_local)
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.orderDateLocal >= :fromDay AND o.orderDateLocal < :toDay")
+    long countOrdersByDateLocalRange(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
 
-    @Query("SELECT o FROM Order o " +
-            "WHERE YEAR(o.orderDate) = :year  AND MONTH(o.orderDate) = :month")
-    List<Order> findOrderByYearAndMonth(@Param("month") int month, @Param("year") int year);
+    default long countOrdersByYear(int year) {
+        return countOrdersByDateLocalRange(LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
+    }
+
+    @Query("SELECT o FROM Order o WHERE o.orderDateLocal >= :fromDay AND o.orderDateLocal < :toDay")
+    List<Order> findOrderByDateLocalRange(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+    default List<Order> findOrderByYearAndMonth(int month, int year) {
+        LocalDate firstDay = LocalDate.of(year, month, 1);
+        return findOrderByDateLocalRange(firstDay, firstDay.plusMonths(1));
+    }
+
+    //ordenes antiguas sin columnas locales (se completan al iniciar)
+    List<Order> findTop500ByOrderDateLocalIsNullAndOrderDateIsNotNull();
 
 
     //query diario global(agrupado)
     @Query(
             value = """
-            SELECT YEAR(o.orderDate) , MONTH(o.orderDate), DAY(o.orderDate), COUNT(o), SUM(o.totalAmount)
+            SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.PeriodAggregate(
+            o.orderYear, o.orderMonth, DAY(o.orderDateLocal), COUNT(o), SUM(o.totalAmount)
+            )
             FROM Order o
-            WHERE o.orderDate BETWEEN :startDate AND :endDate
+            WHERE o.orderDateLocal BETWEEN :startDay AND :endDay
             AND (:status IS NULL OR o.status = :status)
-            GROUP BY YEAR(o.orderDate), MONTH(o.orderDate), DAY(o.orderDate)
-            ORDER BY YEAR(o.orderDate), MONTH(o.orderDate), DAY(o.orderDate)
+            GROUP BY o.orderYear, o.orderMonth, o.orderDateLocal
+            ORDER BY o.orderDateLocal
             """,
             countQuery = """
-                    SELECT COUNT(DISTINCT CONCAT(YEAR(o.orderDate),'-',MONTH(o.orderDate),'-',DAY(o.orderDate)))
+                    SELECT COUNT(DISTINCT o.orderDateLocal)
                     FROM Order o
-                    WHERE o.orderDate BETWEEN :startDate AND :endDate
+                    WHERE o.orderDateLocal BETWEEN :startDay AND :endDay
                     AND (:status IS NULL OR o.status = :status)
                     """
     )
-    Page<Object[]> getDailyReport(
-            @Param("startDate")ZonedDateTime startDate,
-            @Param("endDate") ZonedDateTime endDate,
+    Page<PeriodAggregate> getDailyReport(
+            @Param("startDay") LocalDate startDay,
+            @Param("endDay") LocalDate endDay,
             @Param("status") OrderStatus status,
             Pageable pageable
             );
@@ -50,24 +77,26 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     //query para filtrar por mes y status(global
     @Query(
             value = """
-            SELECT YEAR(o.orderDate), MONTH(o.orderDate), COUNT(o) , SUM(o.totalAmount)
+            SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.PeriodAggregate(
+            o.orderYear, o.orderMonth, 0, COUNT(o), SUM(o.totalAmount)
+            )
             FROM Order o
-            WHERE o.orderDate BETWEEN :startDate AND :endDate
+            WHERE o.orderDateLocal BETWEEN :startDay AND :endDay
             AND (:status IS NULL OR o.status = :status)
-            GROUP BY YEAR(o.orderDate), MONTH(o.orderDate)
-            ORDER BY YEAR(o.orderDate), MONTH(o.orderDate)
+            GROUP BY o.orderYear, o.orderMonth
+            ORDER BY o.orderYear, o.orderMonth
             """,
             countQuery = """
-                    SELECT COUNT(DISTINCT CONCAT(YEAR(o.orderDate),'-', MONTH(o.orderDate)))
+                    SELECT COUNT(DISTINCT o.orderYear * 100 + o.orderMonth)
                     FROM Order o
-                    WHERE o.orderDate BETWEEN :startDate AND :endDate
+                    WHERE o.orderDateLocal BETWEEN :startDay AND :endDay
                     AND (:status IS NULL OR o.status = :status)
                     """
 
     )
-    Page<Object[]> getMonthlyReport(
-            @Param("startDate") ZonedDateTime startDate,
-            @Param("endDate") ZonedDateTime endDate,
+    Page<PeriodAggregate> getMonthlyReport(
+            @Param("startDay") LocalDate startDay,
+            @Param("endDay") LocalDate endDay,
             @Param("status") OrderStatus status,
             Pageable pageable
     );
@@ -75,75 +104,338 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     //query para filtrar por año y status(global)
     @Query(
             value = """
-            SELECT  YEAR(o.orderDate), COUNT(o), SUM(o.totalAmount)
+            SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.PeriodAggregate(
+            o.orderYear, 0, 0, COUNT(o), SUM(o.totalAmount)
+            )
             FROM Order o
-            WHERE o.orderDate BETWEEN :startDate AND :endDate
+            WHERE o.orderDateLocal BETWEEN :startDay AND :endDay
             AND (:status IS NULL OR o.status = :status)
-            GROUP BY YEAR(o.orderDate)
-            ORDER BY YEAR(o.orderDate)
+            GROUP BY o.orderYear
+            ORDER BY o.orderYear
             """,
             countQuery = """
-            SELECT COUNT(DISTINCT YEAR(o.orderDate))
+            SELECT COUNT(DISTINCT o.orderYear)
             FROM Order o
-            WHERE o.orderDate BETWEEN :startDate AND :endDate
+            WHERE o.orderDateLocal BETWEEN :startDay AND :endDay
             AND (:status IS NULL OR o.status = :status)
             """
 
     )
-    Page<Object[]> getYearlyReport(
-            @Param("startDate") ZonedDateTime startDate,
-            @Param("endDate") ZonedDateTime endDate,
+    Page<PeriodAggregate> getYearlyReport(
+            @Param("startDay") LocalDate startDay,
+            @Param("endDay") LocalDate endDay,
             @Param("status") OrderStatus status,
             Pageable pageable
     );
 
+    //filtro de busqueda del listado ALL (ver OrderSearchIndexService):
+    //estado que coincide en memoria, o ids candidatos por trigramas del indice verificados con LIKE.
+    //statusCount/tokenCount en 0 apagan su predicado (las listas nunca llegan vacias al IN);
+    //sin trigramas (texto corto o solo trigramas comunes) queda solo el LIKE sobre codigo y email
+    String SEARCH_FILTER = """
+      AND (
+      :searchText IS NULL OR
+      (:statusCount > 0 AND o.status IN :matchedStatuses) OR
+      (
+      (:tokenCount = 0 OR o.id IN (
+          SELECT t.orderId FROM OrderSearchToken t
+          WHERE t.token IN :tokens
+          GROUP BY t.orderId
+          HAVING COUNT(t.token) = :tokenCount
+      )) AND (
+      LOWER(o.code) LIKE CONCAT('%', :searchText, '%') OR
+      LOWER(u.email) LIKE CONCAT('%', :searchText, '%')
+      )
+      )
+      )
+      """;
+
+    //busqueda exacta por codigo ORD-YYYY-NNNNN (indice unico de code)
+    @Query("""
+      SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO(
+          o.id, o.code, u.email, o.status, o.totalAmount, o.orderDate)
+      FROM Order o
+      JOIN o.user u
+      WHERE o.code = :code
+      AND o.orderDate BETWEEN :startDate AND :endDate
+      AND (:status IS NULL OR o.status = :status)
+      """)
+    Optional<OrderSummaryDTO> findSummaryByCode(
+            @Param("code") String code,
+            @Param("startDate") ZonedDateTime startDate,
+            @Param("endDate") ZonedDateTime endDate,
+            @Param("status") OrderStatus status);
+
+    //datos para (re)construir el indice de busqueda, por lotes de id
+    @Query("""
+      SELECT o.id, o.code, u.email
+      FROM Order o
+      JOIN o.user u
+      WHERE o.id > :afterId
+      ORDER BY o.id
+      """)
+    List<Object[]> findSearchableAfter(@Param("afterId") long afterId, Limit limit);
+
+    //ordenes de un cliente para reindexarlas cuando cambia su email
+    @Query("""
+      SELECT o.id, o.code, u.email
+      FROM Order o
+      JOIN o.user u
+      WHERE u.id = :userId
+      """)
+    List<Object[]> findSearchableByUser(@Param("userId") Long userId);
+
+    //dia, estado y monto por lotes de id (reconstruccion de histogramas)
+    @Query("""
+      SELECT o.id, o.orderDateLocal, o.status, o.totalAmount
+      FROM Order o
+      WHERE o.id > :afterId
+      AND o.orderDateLocal IS NOT NULL AND o.status IS NOT NULL
+      ORDER BY o.id
+      """)
+    List<Object[]> findAmountsAfter(@Param("afterId") long afterId, Limit limit);
+
+    //filas planas para el almacen columnar de analitica, por lotes de id
+    @Query("""
+      SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderFactRow(
+          o.id, o.orderDateLocal, o.status, o.totalAmount, u.region, u.comuna, u.isBusiness, sm.name)
+      FROM Order o
+      JOIN o.user u
+      LEFT JOIN o.shippingMethod sm
+      WHERE o.id > :afterId
+      ORDER BY o.id
+      """)
+    List<OrderFactRow> findFactRowsAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("""
+      SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderFactRow(
+          o.id, o.orderDateLocal, o.status, o.totalAmount, u.region, u.comuna, u.isBusiness, sm.name)
+      FROM Order o
+      JOIN o.user u
+      LEFT JOIN o.shippingMethod sm
+      WHERE o.id IN :orderIds
+      """)
+    List<OrderFactRow> findFactRows(@Param("orderIds") Collection<Long> orderIds);
+
     //query de todos las ordenes  por fecha y status
     @Query(
             value = """
       SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO(
-          o.id, o.code, u.email, o.status, o.totalAmount)
+          o.id, o.code, u.email, o.status, o.totalAmount, o.orderDate)
       FROM Order o
       JOIN o.user u
       WHERE o.orderDate BETWEEN :startDate AND :endDate
       AND (:status IS NULL OR o.status = :status)
-      AND (
-      :searchText IS NULL OR
-      LOWER(o.code) LIKE LOWER(CONCAT('%', :searchText,'%')) OR
-      LOWER(u.email) LIKE LOWER(CONCAT('%', :searchText, '%')) OR
-      LOWER(o.status) LIKE LOWER(CONCAT('%', :searchText, '%'))
-      )
-      """,
+      """ + SEARCH_FILTER,
             countQuery = """
       SELECT COUNT(o)
       FROM Order o
       JOIN o.user u
       WHERE o.orderDate BETWEEN :startDate AND :endDate
       AND (:status IS NULL OR o.status = :status)
-      AND(
-      :searchText IS NULL OR
-      LOWER(o.code) LIKE LOWER(CONCAT('%', :searchText, '%')) OR
-      LOWER(u.email) LIKE LOWER(CONCAT('%', :searchText, '%')) OR
-      LOWER(o.status) LIKE LOWER(CONCAT('%', :searchText, '%'))
-      )
-      """
+      """ + SEARCH_FILTER
     )
     Page<OrderSummaryDTO> getOrdersInRange(
             @Param("startDate") ZonedDateTime startDate,
             @Param("endDate") ZonedDateTime endDate,
             @Param("status") OrderStatus status,
             @Param("searchText") String searchText,
+            @Param("matchedStatuses") List<OrderStatus> matchedStatuses,
+            @Param("statusCount") long statusCount,
+            @Param("tokens") List<String> tokens,
+            @Param("tokenCount") long tokenCount,
             Pageable pageable);
 
+    //paginacion por cursor: siguiente pagina despues de (afterDate, afterId), sin OFFSET ni COUNT
+    @Query("""
+      SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO(
+          o.id, o.code, u.email, o.status, o.totalAmount, o.orderDate)
+      FROM Order o
+      JOIN o.user u
+      WHERE o.orderDate BETWEEN :startDate AND :endDate
+      AND (:status IS NULL OR o.status = :status)
+      AND (
+      :afterDate IS NULL OR
+      o.orderDate < :afterDate OR
+      (o.orderDate = :afterDate AND o.id < :afterId)
+      )
+      """ + SEARCH_FILTER + """
+      ORDER BY o.orderDate DESC, o.id DESC
+      """)
+    List<OrderSummaryDTO> seekOrdersInRange(
+            @Param("startDate") ZonedDateTime startDate,
+            @Param("endDate") ZonedDateTime endDate,
+            @Param("status") OrderStatus status,
+            @Param("searchText") String searchText,
+            @Param("matchedStatuses") List<OrderStatus> matchedStatuses,
+            @Param("statusCount") long statusCount,
+            @Param("tokens") List<String> tokens,
+            @Param("tokenCount") long tokenCount,
+            @Param("afterDate") ZonedDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    //exportacion completa: MySQL entrega las filas en modo streaming (fetch size Integer.MIN_VALUE),
+    //sin cargar el resultado en memoria; el Stream debe consumirse y cerrarse dentro de una transaccion
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+      SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO(
+          o.id, o.code, u.email, o.status, o.totalAmount, o.orderDate)
+      FROM Order o
+      JOIN o.user u
+      WHERE o.orderDate BETWEEN :startDate AND :endDate
+      AND (:status IS NULL OR o.status = :status)
+      """ + SEARCH_FILTER + """
+      ORDER BY o.orderDate DESC, o.id DESC
+      """)
+    Stream<OrderSummaryDTO> streamOrdersInRange(
+            @Param("startDate") ZonedDateTime startDate,
+            @Param("endDate") ZonedDateTime endDate,
+            @Param("status") OrderStatus status,
+            @Param("searchText") String searchText,
+            @Param("matchedStatuses") List<OrderStatus> matchedStatuses,
+            @Param("statusCount") long statusCount,
+            @Param("tokens") List<String> tokens,
+            @Param("tokenCount") long tokenCount);
+
+    //total exacto para el modo cursor (solo se pide en la primera pagina)
+    @Query("""
+      SELECT COUNT(o)
+      FROM Order o
+      JOIN o.user u
+      WHERE o.orderDate BETWEEN :startDate AND :endDate
+      AND (:status IS NULL OR o.status = :status)
+      """ + SEARCH_FILTER)
+    long countOrdersInRange(
+            @Param("startDate") ZonedDateTime startDate,
+            @Param("endDate") ZonedDateTime endDate,
+            @Param("status") OrderStatus status,
+            @Param("searchText") String searchText,
+            @Param("matchedStatuses") List<OrderStatus> matchedStatuses,
+            @Param("statusCount") long statusCount,
+            @Param("tokens") List<String> tokens,
+            @Param("tokenCount") long tokenCount);
+
 
 
+    //todos los estados por dia en una sola pasada (agregacion condicional); el servicio agrupa
+    //los dias en meses o años. Sin acumulados es lo que evita una consulta por estado
+    @Query("""
+            SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.StatusPivotRow(
+            o.orderDateLocal,
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.PENDING THEN 1 ELSE 0 END),
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.PENDING THEN o.totalAmount END),
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.PAID THEN 1 ELSE 0 END),
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.PAID THEN o.totalAmount END),
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.SHIPPED THEN 1 ELSE 0 END),
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.SHIPPED THEN o.totalAmount END),
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.DELIVERED THEN 1 ELSE 0 END),
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.DELIVERED THEN o.totalAmount END),
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.CANCELLED THEN 1 ELSE 0 END),
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.CANCELLED THEN o.totalAmount END),
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.RETURNED THEN 1 ELSE 0 END),
+            SUM(CASE WHEN o.status = com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.RETURNED THEN o.totalAmount END)
+            )
+            FROM Order o
+            WHERE o.orderDateLocal BETWEEN :startDay AND :endDay
+            GROUP BY o.orderDateLocal
+            ORDER BY o.orderDateLocal
+            """)
+    List<StatusPivotRow> getStatusPivotByDay(@Param("startDay") LocalDate startDay,
+                                             @Param("endDay") LocalDate endDay);
+
+    //fuente para reconstruir los acumulados de ventas: (dia, estado, cantidad, monto)
+    @Query("""
+            SELECT o.orderDateLocal, o.status, COUNT(o), SUM(o.totalAmount)
+            FROM Order o
+            WHERE o.orderDateLocal IS NOT NULL AND o.status IS NOT NULL
+            GROUP BY o.orderDateLocal, o.status
+            """)
+    List<Object[]> sumTotalsByDayAndStatus();
+
     //dtealle de una orden especifica
     @Query("""
             SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderItemDTO(
-            p.name, o.quantity, o.price
+            p.name, o.quantity, o.price, m.name, c.name
             )
             FROM OrderItem o
             JOIN o.product p
+            LEFT JOIN o.materialOption m
+            LEFT JOIN o.colorOption c
             WHERE o.order.id = :orderId
             """)
     List<OrderItemDTO>findItemsByOrderId(@Param("orderId") Long orderId);
+
+    //detalle de varias ordenes en una sola consulta: una fila por item (o una fila sin item si la orden no tiene)
+    @Query("""
+            SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderDetailRow(
+            o.id, o.code, u.email, o.status, o.totalAmount, sm.name,
+            p.name, i.quantity, i.price, m.name, c.name
+            )
+            FROM Order o
+            JOIN o.user u
+            LEFT JOIN o.shippingMethod sm
+            LEFT JOIN o.items i
+            LEFT JOIN i.product p
+            LEFT JOIN i.materialOption m
+            LEFT JOIN i.colorOption c
+            WHERE o.id IN :orderIds
+            ORDER BY o.id, i.id
+            """)
+    List<OrderDetailRow> findDetailRows(@Param("orderIds") Collection<Long> orderIds);
+
+    //codigo e id de las ordenes del lote que ya estan en la base (importacion de ordenes)
+    @Query("SELECT o.code, o.id FROM Order o WHERE o.code IN :codes")
+    List<Object[]> findIdsByCodes(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT COALESCE(MAX(o.id), 0) FROM Order o")
+    long findMaxId();
+
+    //bloquea las ordenes del tramo de ids (en orden de id, sin deadlocks entre dos cambios masivos)
+    @Query(value = """
+            SELECT id FROM orders
+            WHERE id BETWEEN :fromId AND :toId AND id IN (:orderIds)
+            ORDER BY id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Long> lockInRange(@Param("fromId") long fromId, @Param("toId") long toId,
+                           @Param("orderIds") Collection<Long> orderIds);
+
+    //id, estado, dia y monto de las ordenes (cambio de estado masivo)
+    @Query("""
+            SELECT o.id, o.code, o.status, o.orderDateLocal, o.orderDate, o.totalAmount
+            FROM Order o
+            WHERE o.id BETWEEN :fromId AND :toId AND o.id IN :orderIds
+            """)
+    List<Object[]> findStatusRowsInRange(@Param("fromId") long fromId, @Param("toId") long toId,
+                                         @Param("orderIds") Collection<Long> orderIds);
+
+    //cambio de estado sin cargar entidades; el estado anterior en el WHERE confirma lo validado en memoria
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Order o SET o.status = :newStatus
+            WHERE o.id BETWEEN :fromId AND :toId AND o.id IN :orderIds AND o.status = :previousStatus
+            """)
+    int updateStatusInRange(@Param("fromId") long fromId, @Param("toId") long toId,
+                            @Param("orderIds") Collection<Long> orderIds,
+                            @Param("previousStatus") OrderStatus previousStatus,
+                            @Param("newStatus") OrderStatus newStatus);
+
+    //items de las ordenes sumados por orden y producto/material/color (acumulados por item);
+    //el dia de cada orden lo pone quien llama, con el mismo criterio que los acumulados de ventas
+    @Query("""
+            SELECT o.id, p.id, COALESCE(m.id, 0), COALESCE(c.id, 0),
+            COUNT(i), SUM(i.quantity), SUM(COALESCE(i.lineTotal, i.price * i.quantity))
+            FROM OrderItem i
+            JOIN i.order o
+            JOIN i.product p
+            LEFT JOIN i.materialOption m
+            LEFT JOIN i.colorOption c
+            WHERE o.id IN :orderIds
+            GROUP BY o.id, p.id, COALESCE(m.id, 0), COALESCE(c.id, 0)
+            """)
+    List<Object[]> sumItemsByOrder(@Param("orderIds") Collection<Long> orderIds);
 }
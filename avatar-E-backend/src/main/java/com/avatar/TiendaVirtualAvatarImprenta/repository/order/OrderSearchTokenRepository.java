@@ -0,0 +1,14 @@
+package com.avatar.TiendaVirtualAvatarImprenta.repository.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OrderSearchToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OrderSearchTokenRepository extends JpaRepository<OrderSearchToken, Long> {
+
+    @Modifying
+    @Query("DELETE FROM OrderSearchToken t WHERE t.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
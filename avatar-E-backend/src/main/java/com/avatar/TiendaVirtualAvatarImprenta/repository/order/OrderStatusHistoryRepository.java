@@ -0,0 +1,11 @@
+package com.avatar.TiendaVirtualAvatarImprenta.repository.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OrderStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, Long> {
+
+    List<OrderStatusHistory> findByOrderIdOrderByChangedAtAscIdAsc(Long orderId);
+}
@@ -0,0 +1,87 @@
+package com.avatar.TiendaVirtualAvatarImprenta.repository.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OutboxEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    //eventos listos (o con bloqueo vencido); SKIP LOCKED: varios nodos reparten el lote sin esperarse (MySQL 8+)
+    //se llama dentro de la transaccion que los marca PROCESSING
+    @Query(value = """
+            SELECT id FROM outbox_events
+            WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+            OR (status = 'PROCESSING' AND locked_until < :now)
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> lockClaimable(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = 'PROCESSING', e.lockedUntil = :lockedUntil, e.attempts = e.attempts + 1
+            WHERE e.id IN :ids
+            """)
+    int markProcessing(@Param("ids") List<Long> ids, @Param("lockedUntil") Instant lockedUntil);
+
+    //markDone y markFailed solo cambian el evento si este nodo aun tiene el bloqueo con que lo tomo:
+    //si vencio y otro nodo lo retomo (lockedUntil distinto) devuelven 0 y no pisan su resultado
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = 'DONE', e.processedAt = :now, e.lockedUntil = NULL, e.lastError = NULL
+            WHERE e.id = :id AND e.status = 'PROCESSING' AND e.lockedUntil = :lockedUntil
+            """)
+    int markDone(@Param("id") Long id, @Param("lockedUntil") Instant lockedUntil, @Param("now") Instant now);
+
+    //fallo: vuelve a PENDING con la fecha del reintento, o queda DEAD
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lockedUntil = NULL, e.lastError = :lastError
+            WHERE e.id = :id AND e.status = 'PROCESSING' AND e.lockedUntil = :lockedUntil
+            """)
+    int markFailed(@Param("id") Long id,
+                   @Param("lockedUntil") Instant lockedUntil,
+                   @Param("status") OutboxStatus status,
+                   @Param("nextAttemptAt") Instant nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    //reintento manual de los eventos muertos (los handlers que ya terminaron no se repiten)
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e
+            SET e.status = 'PENDING', e.attempts = 0, e.nextAttemptAt = :now
+            WHERE e.status = 'DEAD'
+            """)
+    int retryDead(@Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'DONE' AND e.processedAt < :before")
+    int deleteDoneBefore(@Param("before") Instant before);
+
+    //eventos aun no entregados (incluye DEAD: un retryDead los volveria a entregar)
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.eventType = :eventType AND e.status <> 'DONE'")
+    List<Long> findUndeliveredIds(@Param("eventType") String eventType);
+
+    @Query("SELECT e.status, COUNT(e) FROM OutboxEvent e GROUP BY e.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.status IN ('PENDING', 'PROCESSING')")
+    long countInFlight();
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status IN ('PENDING', 'PROCESSING')")
+    Instant findOldestPendingCreatedAt();
+}
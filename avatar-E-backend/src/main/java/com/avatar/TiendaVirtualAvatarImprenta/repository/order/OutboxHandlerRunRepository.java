@@ -0,0 +1,26 @@
+package com.avatar.TiendaVirtualAvatarImprenta.repository.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OutboxHandlerRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface OutboxHandlerRunRepository extends JpaRepository<OutboxHandlerRun, Long> {
+
+    boolean existsByEventIdAndHandler(Long eventId, String handler);
+
+    //1 si el handler aun no habia aplicado el evento; sin @Transactional: se confirma junto con lo que hizo el handler
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO outbox_handler_runs (event_id, handler, completed_at)
+            VALUES (:eventId, :handler, :now)
+            """, nativeQuery = true)
+    int markRun(@Param("eventId") Long eventId, @Param("handler") String handler, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxHandlerRun r WHERE r.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+}
@@ -2,6 +2,12 @@ package com.avatar.TiendaVirtualAvatarImprenta.repository.order;
 
 import com.avatar.TiendaVirtualAvatarImprenta.entity.order.ShippingMethod;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface ShippingMethodRepository extends JpaRepository<ShippingMethod, Long> {
+
+    @Query("SELECT s.id FROM ShippingMethod s")
+    List<Long> findAllIds();
 }
@@ -2,6 +2,12 @@ package com.avatar.TiendaVirtualAvatarImprenta.repository.product;
 
 import com.avatar.TiendaVirtualAvatarImprenta.entity.product.ColorOption;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface ColorRepository extends JpaRepository<ColorOption, Long> {
+
+    @Query("SELECT c.id FROM ColorOption c")
+    List<Long> findAllIds();
 }
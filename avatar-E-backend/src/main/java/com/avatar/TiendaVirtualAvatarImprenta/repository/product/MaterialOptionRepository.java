@@ -2,6 +2,12 @@ package com.avatar.TiendaVirtualAvatarImprenta.repository.product;
 
 import com.avatar.TiendaVirtualAvatarImprenta.entity.product.MaterialOption;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface MaterialOptionRepository extends JpaRepository<MaterialOption, Long> {
+
+    @Query("SELECT m.id FROM MaterialOption m")
+    List<Long> findAllIds();
 }
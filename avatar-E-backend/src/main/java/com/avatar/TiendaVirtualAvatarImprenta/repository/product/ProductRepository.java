@@ -2,6 +2,25 @@ package com.avatar.TiendaVirtualAvatarImprenta.repository.product;
 
 import com.avatar.TiendaVirtualAvatarImprenta.entity.product.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    //reglas de precio del catalogo (fuente del motor de precios): id, precio, tipo de comercializacion
+    @Query("SELECT p.id, p.price, p.commercializationType FROM Product p")
+    List<Object[]> findPriceRows();
+
+    //patrones de comercializacion: producto, cantidad, precio del patron
+    @Query("SELECT q.product.id, q.quantity, q.price FROM ProductCommercialQuantity q")
+    List<Object[]> findQuantityTierRows();
+
+    //recargo por material: producto, material, precio adicional
+    @Query("SELECT m.product.id, m.materialOption.id, m.extraPrice FROM ProductMaterialOption m")
+    List<Object[]> findMaterialSurchargeRows();
+
+    //codigo -> id de todos los productos (importacion de ordenes)
+    @Query("SELECT p.code, p.id FROM Product p")
+    List<Object[]> findCodeIdRows();
 }
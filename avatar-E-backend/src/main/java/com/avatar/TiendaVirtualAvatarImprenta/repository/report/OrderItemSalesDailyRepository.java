@@ -0,0 +1,143 @@
+package com.avatar.TiendaVirtualAvatarImprenta.repository.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.SalesRankingDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.report.OrderItemSalesDaily;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OrderItemSalesDailyRepository extends JpaRepository<OrderItemSalesDaily, Long> {
+
+    //filtro comun de los rankings; el orden (unidades o monto) lo elige el servicio con un Sort
+    String RANGE_FILTER = """
+            WHERE f.bucketDate BETWEEN :fromDay AND :toDay
+            AND (:status IS NULL OR f.status = :status)
+            """;
+
+    //suma (o resta) el delta al acumulado, creando la fila si no existe
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_item_sales_daily
+            (bucket_date, product_id, material_option_id, color_option_id, status, item_count, quantity, revenue)
+            VALUES (:bucketDate, :productId, :materialOptionId, :colorOptionId, :status, :itemCount, :quantity, :revenue)
+            ON DUPLICATE KEY UPDATE
+            item_count = item_count + :itemCount,
+            quantity = quantity + :quantity,
+            revenue = revenue + :revenue
+            """, nativeQuery = true)
+    int upsertDelta(@Param("bucketDate") LocalDate bucketDate,
+                    @Param("productId") long productId,
+                    @Param("materialOptionId") long materialOptionId,
+                    @Param("colorOptionId") long colorOptionId,
+                    @Param("status") String status,
+                    @Param("itemCount") long itemCount,
+                    @Param("quantity") long quantity,
+                    @Param("revenue") BigDecimal revenue);
+
+    //recalcula todos los hechos desde order_items en una sola sentencia
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_item_sales_daily
+            (bucket_date, product_id, material_option_id, color_option_id, status, item_count, quantity, revenue)
+            SELECT o.order_date_local, i.product_id, COALESCE(i.material_option_id, 0), COALESCE(i.color_option_id, 0),
+            o.status, COUNT(*), SUM(i.quantity), SUM(COALESCE(i.line_total, i.price * i.quantity))
+            FROM order_items i
+            JOIN orders o ON o.id = i.order_id
+            WHERE o.order_date_local IS NOT NULL AND o.status IS NOT NULL AND i.product_id IS NOT NULL
+            GROUP BY o.order_date_local, i.product_id, COALESCE(i.material_option_id, 0),
+            COALESCE(i.color_option_id, 0), o.status
+            """, nativeQuery = true)
+    int insertFromOrderItems();
+
+    //unidades y monto por dia y producto (todos los estados) para sembrar los mas vendidos
+    @Query("""
+            SELECT f.bucketDate, f.productId, SUM(f.quantity), SUM(f.revenue)
+            FROM OrderItemSalesDaily f
+            WHERE f.bucketDate >= :fromDay
+            GROUP BY f.bucketDate, f.productId
+            ORDER BY f.bucketDate
+            """)
+    List<Object[]> sumByDayAndProduct(@Param("fromDay") LocalDate fromDay);
+
+    @Query("""
+            SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.SalesRankingDTO(
+            p.id, p.name, SUM(f.quantity), SUM(f.revenue))
+            FROM OrderItemSalesDaily f
+            JOIN Product p ON p.id = f.productId
+            """ + RANGE_FILTER + """
+            GROUP BY p.id, p.name
+            """)
+    List<SalesRankingDTO> rankByProduct(@Param("fromDay") LocalDate fromDay,
+                                        @Param("toDay") LocalDate toDay,
+                                        @Param("status") OrderStatus status,
+                                        Sort sort,
+                                        Limit limit);
+
+    @Query("""
+            SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.SalesRankingDTO(
+            s.id, s.name, SUM(f.quantity), SUM(f.revenue))
+            FROM OrderItemSalesDaily f
+            JOIN Product p ON p.id = f.productId
+            JOIN p.subcategory s
+            """ + RANGE_FILTER + """
+            GROUP BY s.id, s.name
+            """)
+    List<SalesRankingDTO> rankBySubCategory(@Param("fromDay") LocalDate fromDay,
+                                            @Param("toDay") LocalDate toDay,
+                                            @Param("status") OrderStatus status,
+                                            Sort sort,
+                                            Limit limit);
+
+    @Query("""
+            SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.SalesRankingDTO(
+            c.id, c.name, SUM(f.quantity), SUM(f.revenue))
+            FROM OrderItemSalesDaily f
+            JOIN Product p ON p.id = f.productId
+            JOIN p.subcategory s
+            JOIN s.category c
+            """ + RANGE_FILTER + """
+            GROUP BY c.id, c.name
+            """)
+    List<SalesRankingDTO> rankByCategory(@Param("fromDay") LocalDate fromDay,
+                                         @Param("toDay") LocalDate toDay,
+                                         @Param("status") OrderStatus status,
+                                         Sort sort,
+                                         Limit limit);
+
+    //items sin material (material_option_id = 0) no entran al ranking de materiales
+    @Query("""
+            SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.SalesRankingDTO(
+            m.id, m.name, SUM(f.quantity), SUM(f.revenue))
+            FROM OrderItemSalesDaily f
+            JOIN MaterialOption m ON m.id = f.materialOptionId
+            """ + RANGE_FILTER + """
+            GROUP BY m.id, m.name
+            """)
+    List<SalesRankingDTO> rankByMaterial(@Param("fromDay") LocalDate fromDay,
+                                         @Param("toDay") LocalDate toDay,
+                                         @Param("status") OrderStatus status,
+                                         Sort sort,
+                                         Limit limit);
+
+    @Query("""
+            SELECT new com.avatar.TiendaVirtualAvatarImprenta.dto.report.SalesRankingDTO(
+            c.id, c.name, SUM(f.quantity), SUM(f.revenue))
+            FROM OrderItemSalesDaily f
+            JOIN ColorOption c ON c.id = f.colorOptionId
+            """ + RANGE_FILTER + """
+            GROUP BY c.id, c.name
+            """)
+    List<SalesRankingDTO> rankByColor(@Param("fromDay") LocalDate fromDay,
+                                      @Param("toDay") LocalDate toDay,
+                                      @Param("status") OrderStatus status,
+                                      Sort sort,
+                                      Limit limit);
+}
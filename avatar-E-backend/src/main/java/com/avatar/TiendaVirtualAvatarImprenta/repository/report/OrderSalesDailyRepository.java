@@ -0,0 +1,38 @@
+package com.avatar.TiendaVirtualAvatarImprenta.repository.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.report.OrderSalesDaily;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OrderSalesDailyRepository extends JpaRepository<OrderSalesDaily, Long> {
+
+    //suma (o resta) el delta al acumulado del dia, creando la fila si no existe
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_sales_daily (bucket_date, status, order_count, total_amount)
+            VALUES (:bucketDate, :status, :orderCount, :totalAmount)
+            ON DUPLICATE KEY UPDATE
+            order_count = order_count + :orderCount,
+            total_amount = total_amount + :totalAmount
+            """, nativeQuery = true)
+    int upsertDelta(@Param("bucketDate") LocalDate bucketDate,
+                    @Param("status") String status,
+                    @Param("orderCount") long orderCount,
+                    @Param("totalAmount") BigDecimal totalAmount);
+
+    @Query("""
+            SELECT d FROM OrderSalesDaily d
+            WHERE d.bucketDate BETWEEN :fromDay AND :toDay
+            AND (:status IS NULL OR d.status = :status)
+            """)
+    List<OrderSalesDaily> findInRange(@Param("fromDay") LocalDate fromDay,
+                                      @Param("toDay") LocalDate toDay,
+                                      @Param("status") OrderStatus status);
+}
@@ -0,0 +1,38 @@
+package com.avatar.TiendaVirtualAvatarImprenta.repository.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.report.OrderSalesMonthly;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OrderSalesMonthlyRepository extends JpaRepository<OrderSalesMonthly, Long> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_sales_monthly (bucket_month, status, order_count, total_amount)
+            VALUES (:bucketMonth, :status, :orderCount, :totalAmount)
+            ON DUPLICATE KEY UPDATE
+            order_count = order_count + :orderCount,
+            total_amount = total_amount + :totalAmount
+            """, nativeQuery = true)
+    int upsertDelta(@Param("bucketMonth") LocalDate bucketMonth,
+                    @Param("status") String status,
+                    @Param("orderCount") long orderCount,
+                    @Param("totalAmount") BigDecimal totalAmount);
+
+    //fromMonth y toMonth son el primer dia de cada mes
+    @Query("""
+            SELECT m FROM OrderSalesMonthly m
+            WHERE m.bucketMonth BETWEEN :fromMonth AND :toMonth
+            AND (:status IS NULL OR m.status = :status)
+            """)
+    List<OrderSalesMonthly> findInRange(@Param("fromMonth") LocalDate fromMonth,
+                                        @Param("toMonth") LocalDate toMonth,
+                                        @Param("status") OrderStatus status);
+}
@@ -0,0 +1,36 @@
+package com.avatar.TiendaVirtualAvatarImprenta.repository.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.report.OrderSalesYearly;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface OrderSalesYearlyRepository extends JpaRepository<OrderSalesYearly, Long> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_sales_yearly (bucket_year, status, order_count, total_amount)
+            VALUES (:bucketYear, :status, :orderCount, :totalAmount)
+            ON DUPLICATE KEY UPDATE
+            order_count = order_count + :orderCount,
+            total_amount = total_amount + :totalAmount
+            """, nativeQuery = true)
+    int upsertDelta(@Param("bucketYear") int bucketYear,
+                    @Param("status") String status,
+                    @Param("orderCount") long orderCount,
+                    @Param("totalAmount") BigDecimal totalAmount);
+
+    @Query("""
+            SELECT y FROM OrderSalesYearly y
+            WHERE y.bucketYear BETWEEN :fromYear AND :toYear
+            AND (:status IS NULL OR y.status = :status)
+            """)
+    List<OrderSalesYearly> findInRange(@Param("fromYear") int fromYear,
+                                       @Param("toYear") int toYear,
+                                       @Param("status") OrderStatus status);
+}
@@ -0,0 +1,40 @@
+package com.avatar.TiendaVirtualAvatarImprenta.repository.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.report.OrderValueHistogramDaily;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OrderValueHistogramDailyRepository extends JpaRepository<OrderValueHistogramDaily, Long> {
+
+    //suma (o resta) el delta al bucket del dia, creando la fila si no existe
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_value_histogram_daily (bucket_date, status, bucket_index, order_count)
+            VALUES (:bucketDate, :status, :bucketIndex, :orderCount)
+            ON DUPLICATE KEY UPDATE
+            order_count = order_count + :orderCount
+            """, nativeQuery = true)
+    int upsertDelta(@Param("bucketDate") LocalDate bucketDate,
+                    @Param("status") String status,
+                    @Param("bucketIndex") int bucketIndex,
+                    @Param("orderCount") long orderCount);
+
+    //buckets por dia del rango (los estados se suman): dia, bucket, cantidad
+    @Query("""
+            SELECT h.bucketDate, h.bucketIndex, SUM(h.orderCount)
+            FROM OrderValueHistogramDaily h
+            WHERE h.bucketDate BETWEEN :fromDay AND :toDay
+            AND (:status IS NULL OR h.status = :status)
+            GROUP BY h.bucketDate, h.bucketIndex
+            HAVING SUM(h.orderCount) > 0
+            """)
+    List<Object[]> sumByDayAndBucket(@Param("fromDay") LocalDate fromDay,
+                                     @Param("toDay") LocalDate toDay,
+                                     @Param("status") OrderStatus status);
+}
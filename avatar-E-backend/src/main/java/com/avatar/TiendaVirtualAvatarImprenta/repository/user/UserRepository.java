@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -16,4 +17,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByCedula(String cedula);
     @Query("SELECT u FROM User u WHERE LOWER(u.email) = LOWER(:email) AND u.active = true")
     Optional<User>  findByEmailAndActiveTrue(@Param("email") String email);
+
+    //email -> id de todos los usuarios (importacion de ordenes)
+    @Query("SELECT u.email, u.id FROM User u")
+    List<Object[]> findEmailIdRows();
 }
@@ -0,0 +1,18 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.analytics;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.BestSellerDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.BestSellerMetric;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.BestSellerWindow;
+
+import java.time.LocalDate;
+import java.util.List;
+
+//productos mas vendidos por dia, semana y mes (top-K aproximado, sin recorrer order_items)
+public interface BestSellerService {
+
+    //day: cualquier dia de la ventana pedida (hora de Chile)
+    List<BestSellerDTO> getTop(BestSellerWindow window, LocalDate day, BestSellerMetric metric, int limit);
+
+    //guarda el estado en disco
+    void snapshot();
+}
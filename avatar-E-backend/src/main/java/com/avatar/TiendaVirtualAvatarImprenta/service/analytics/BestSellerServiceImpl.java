@@ -0,0 +1,258 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.analytics;
+
+import com.avatar.TiendaVirtualAvatarImprenta.common.HeavyHitters;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.BestSellerDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.product.Product;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.BestSellerMetric;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.BestSellerWindow;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedPayload;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.product.ProductRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.report.OrderItemSalesDailyRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderPlacedHandler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//mas vendidos en streaming: por cada ventana (dia, semana, mes) un count-min sketch + top-K
+//por unidades y otro por monto. Se alimenta desde el outbox con cada orden nueva; los cambios de estado
+//posteriores (cancelaciones) no se descuentan porque el sketch solo admite sumas
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BestSellerServiceImpl implements BestSellerService, OrderPlacedHandler {
+
+    private static final int SNAPSHOT_MAGIC = 0x42534C52;//"BSLR"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SKETCH_DEPTH = 4;
+    //ventanas que se conservan por tipo
+    private static final int KEEP_DAYS = 35;
+    private static final int KEEP_WEEKS = 13;
+    private static final int KEEP_MONTHS = 12;
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemSalesDailyRepository itemSalesRepository;
+
+    //productos guardados por ventana (el ranking devuelve como maximo esta cantidad)
+    @Value("${app.best-sellers.capacity:50}")
+    private int capacity;
+
+    @Value("${app.best-sellers.sketch-width:1024}")
+    private int sketchWidth;
+
+    @Value("${app.best-sellers.snapshot-file:${java.io.tmpdir}/avatar-best-sellers.bin}")
+    private String snapshotFile;
+
+    private final Map<WindowKey, Tracker> trackers = new ConcurrentHashMap<>();
+    private final Map<Long, String> productNames = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+    private volatile boolean restored;
+
+    @PostConstruct
+    void restore() {
+        Path path = Path.of(snapshotFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Snapshot de mas vendidos con formato desconocido, se ignora: {}", path);
+                return;
+            }
+            int windows = in.readInt();
+            for (int i = 0; i < windows; i++) {
+                BestSellerWindow window = BestSellerWindow.values()[in.readByte()];
+                LocalDate start = LocalDate.ofEpochDay(in.readLong());
+                trackers.put(new WindowKey(window, start),
+                        new Tracker(HeavyHitters.readFrom(in), HeavyHitters.readFrom(in)));
+            }
+            restored = true;
+            log.info("Mas vendidos restaurados desde {}: {} ventanas", path, windows);
+        } catch (IOException | RuntimeException e) {
+            trackers.clear();
+            log.warn("No se pudo leer el snapshot de mas vendidos {}: {}", path, e.getMessage());
+        }
+    }
+
+    //sin snapshot (primer arranque o archivo perdido): se siembra desde los hechos diarios por item
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        if (restored) {
+            return;
+        }
+        LocalDate today = LocalDate.now(Order.ZONE_CHILE);
+        LocalDate from = today.minusMonths(KEEP_MONTHS - 1).withDayOfMonth(1);
+        for (Object[] row : itemSalesRepository.sumByDayAndProduct(from)) {
+            long quantity = ((Number) row[2]).longValue();
+            BigDecimal revenue = row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO;
+            if (quantity > 0) {
+                record((LocalDate) row[0], ((Number) row[1]).longValue(), quantity, revenue);
+            }
+        }
+        purgeOldWindows(today);
+        dirty = true;
+    }
+
+    @Override
+    public String handlerName() {
+        return "best-sellers";
+    }
+
+    //items de la orden ya sumados por producto en la base (el monto es el total cobrado de cada linea)
+    @Override
+    public void onOrderPlaced(OrderPlacedPayload payload) {
+        for (Object[] row : orderRepository.sumItemsByOrder(List.of(payload.orderId()))) {
+            long quantity = ((Number) row[5]).longValue();
+            BigDecimal revenue = row[6] != null ? (BigDecimal) row[6] : BigDecimal.ZERO;
+            if (quantity > 0) {
+                record(payload.day(), ((Number) row[1]).longValue(), quantity, revenue);
+            }
+        }
+    }
+
+    //el sketch esta en memoria y solo suma: se marca despues; una caida entre medio puede contar la orden dos veces
+    @Override
+    public boolean transactional() {
+        return false;
+    }
+
+    @Override
+    public List<BestSellerDTO> getTop(BestSellerWindow window, LocalDate day, BestSellerMetric metric, int limit) {
+        if (limit < 1 || limit > capacity) {
+            throw new ValidationException("El limite debe estar entre 1 y " + capacity);
+        }
+        Tracker tracker = trackers.get(new WindowKey(window, windowStart(window, day)));
+        if (tracker == null) {
+            return List.of();
+        }
+        HeavyHitters hitters = metric == BestSellerMetric.UNITS ? tracker.units() : tracker.revenueCents();
+        List<HeavyHitters.Entry> top = hitters.top(limit);
+        resolveNames(top);
+
+        List<BestSellerDTO> result = new ArrayList<>(top.size());
+        for (HeavyHitters.Entry entry : top) {
+            String name = productNames.get(entry.key());
+            result.add(metric == BestSellerMetric.UNITS
+                    ? new BestSellerDTO(entry.key(), name, entry.estimate(), null)
+                    : new BestSellerDTO(entry.key(), name, null, BigDecimal.valueOf(entry.estimate(), 2)));
+        }
+        return result;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.best-sellers.snapshot-interval:PT1M}")
+    public synchronized void snapshot() {
+        purgeOldWindows(LocalDate.now(Order.ZONE_CHILE));
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        Path path = Path.of(snapshotFile);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                List<Map.Entry<WindowKey, Tracker>> entries = new ArrayList<>(trackers.entrySet());
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<WindowKey, Tracker> entry : entries) {
+                    out.writeByte(entry.getKey().window().ordinal());
+                    out.writeLong(entry.getKey().start().toEpochDay());
+                    entry.getValue().units().writeTo(out);
+                    entry.getValue().revenueCents().writeTo(out);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("No se pudo guardar el snapshot de mas vendidos {}: {}", path, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    private void record(LocalDate day, long productId, long quantity, BigDecimal revenue) {
+        long cents = revenue.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+        for (BestSellerWindow window : BestSellerWindow.values()) {
+            Tracker tracker = trackers.computeIfAbsent(new WindowKey(window, windowStart(window, day)),
+                    key -> new Tracker(new HeavyHitters(capacity, SKETCH_DEPTH, sketchWidth),
+                            new HeavyHitters(capacity, SKETCH_DEPTH, sketchWidth)));
+            tracker.units().add(productId, quantity);
+            if (cents > 0) {
+                tracker.revenueCents().add(productId, cents);
+            }
+        }
+        dirty = true;
+    }
+
+    private void purgeOldWindows(LocalDate today) {
+        LocalDate oldestDay = today.minusDays(KEEP_DAYS - 1);
+        LocalDate oldestWeek = windowStart(BestSellerWindow.WEEK, today).minusWeeks(KEEP_WEEKS - 1);
+        LocalDate oldestMonth = windowStart(BestSellerWindow.MONTH, today).minusMonths(KEEP_MONTHS - 1);
+        boolean removed = trackers.keySet().removeIf(key -> key.start().isBefore(switch (key.window()) {
+            case DAY -> oldestDay;
+            case WEEK -> oldestWeek;
+            case MONTH -> oldestMonth;
+        }));
+        dirty |= removed;
+    }
+
+    //nombres de los productos del ranking (se cachean: son pocos y cambian poco)
+    private void resolveNames(List<HeavyHitters.Entry> top) {
+        List<Long> missing = top.stream().map(HeavyHitters.Entry::key)
+                .filter(id -> !productNames.containsKey(id)).toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (Product product : productRepository.findAllById(missing)) {
+            productNames.put(product.getId(), product.getName());
+        }
+    }
+
+    private static LocalDate windowStart(BestSellerWindow window, LocalDate day) {
+        return switch (window) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private record WindowKey(BestSellerWindow window, LocalDate start) {
+    }
+
+    private record Tracker(HeavyHitters units, HeavyHitters revenueCents) {
+    }
+}
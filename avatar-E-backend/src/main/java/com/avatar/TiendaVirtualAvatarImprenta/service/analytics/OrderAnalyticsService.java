@@ -0,0 +1,13 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.analytics;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSliceDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSliceRequest;
+
+//analitica interactiva de ordenes sobre el almacen columnar en memoria
+public interface OrderAnalyticsService {
+
+    OrderSliceDTO slice(OrderSliceRequest request);
+
+    //vuelve a cargar todas las ordenes desde la base de datos
+    void reload();
+}
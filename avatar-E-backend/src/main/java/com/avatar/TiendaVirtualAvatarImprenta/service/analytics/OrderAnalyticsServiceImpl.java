@@ -0,0 +1,190 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.analytics;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderFactRow;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSliceDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSliceRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.SliceDimension;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedPayload;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusBulkChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderPlacedHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderAnalyticsServiceImpl implements OrderAnalyticsService, OrderPlacedHandler {
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final OrderRepository orderRepository;
+
+    @Value("${app.analytics.columnar.enabled:true}")
+    private boolean enabled;
+
+    //null hasta la primera carga; una recarga arma otro almacen y lo reemplaza al terminar
+    private volatile OrderColumnStore store;
+
+    //los refrescos leen la base y escriben el almacen con este lock tomado: uno posterior siempre
+    //lee un estado igual o mas nuevo, asi nunca se pisa una fila con una version anterior
+    private final ReentrantLock applyLock = new ReentrantLock();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    //ordenes refrescadas mientras corre una recarga (se releen antes del reemplazo); null fuera de ella
+    private Set<Long> touchedDuringReload;
+
+    //la carga inicial corre en otro hilo para no demorar el arranque
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofVirtual().name("order-analytics-load").start(() -> {
+            try {
+                reload();
+            } catch (Exception e) {
+                log.error("No se pudo cargar la analitica en memoria: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    public String handlerName() {
+        return "order-analytics";
+    }
+
+    //orden nueva (desde el outbox, fuera del hilo de la compra): se relee con el estado confirmado
+    @Override
+    public void onOrderPlaced(OrderPlacedPayload payload) {
+        refresh(List.of(payload.orderId()));
+    }
+
+    //el almacen esta en memoria, no en la base: se marca despues (repetirlo solo vuelve a leer la fila)
+    @Override
+    public boolean transactional() {
+        return false;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        refresh(event.order());
+    }
+
+    //cambio masivo: se releen solo las ordenes afectadas, por tramos
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusBulkChanged(OrderStatusBulkChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        refresh(event.changes().stream().map(OrderStatusBulkChangedEvent.Change::orderId).toList());
+    }
+
+    @Override
+    public OrderSliceDTO slice(OrderSliceRequest request) {
+        if (!enabled) {
+            throw new BusinessException("La analitica en memoria esta deshabilitada", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        OrderColumnStore current = store;
+        if (current == null) {
+            throw new BusinessException("La analitica en memoria se esta cargando, intenta en unos segundos",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        List<SliceDimension> groupBy =
+                request.getGroupBy() != null ? request.getGroupBy().stream().distinct().toList() : List.of();
+        Integer fromDay = request.getStartDate() != null ? (int) Order.toLocalDay(request.getStartDate()).toEpochDay() : null;
+        Integer toDay = request.getEndDate() != null ? (int) Order.toLocalDay(request.getEndDate()).toEpochDay() : null;
+        if (fromDay != null && toDay != null && fromDay > toDay) {
+            throw new ValidationException("La fecha de inicio debe ser anterior a la fecha de termino");
+        }
+        return current.aggregate(fromDay, toDay, request.getStatuses(), request.getRegions(), request.getComunas(),
+                request.getBusiness(), request.getShippingMethods(), groupBy);
+    }
+
+    //carga por lotes de id en un almacen nuevo; el anterior sigue respondiendo hasta el reemplazo.
+    //Las ordenes que cambian durante la carga se releen justo antes de reemplazarlo
+    @Override
+    public void reload() {
+        reloadLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            applyLock.lock();
+            try {
+                touchedDuringReload = new HashSet<>();
+            } finally {
+                applyLock.unlock();
+            }
+
+            OrderColumnStore fresh = new OrderColumnStore();
+            long afterId = 0;
+            List<OrderFactRow> batch;
+            do {
+                batch = orderRepository.findFactRowsAfter(afterId, Limit.of(LOAD_BATCH_SIZE));
+                fresh.upsertAll(batch);
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+
+            applyLock.lock();
+            try {
+                upsertFromDatabase(fresh, new ArrayList<>(touchedDuringReload));
+                store = fresh;
+            } finally {
+                touchedDuringReload = null;
+                applyLock.unlock();
+            }
+            log.info("Analitica en memoria cargada: {} ordenes en {} ms", fresh.size(), System.currentTimeMillis() - started);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void refresh(Order order) {
+        if (order.getId() != null) {
+            refresh(List.of(order.getId()));
+        }
+    }
+
+    private void refresh(List<Long> orderIds) {
+        if (!enabled || orderIds.isEmpty()) {
+            return;
+        }
+        applyLock.lock();
+        try {
+            OrderColumnStore current = store;
+            if (current != null) {
+                upsertFromDatabase(current, orderIds);
+            }
+            if (touchedDuringReload != null) {
+                touchedDuringReload.addAll(orderIds);
+            }
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    //relee las ordenes por tramos (el estado confirmado) y las escribe en el almacen
+    private void upsertFromDatabase(OrderColumnStore target, List<Long> orderIds) {
+        for (int from = 0; from < orderIds.size(); from += LOAD_BATCH_SIZE) {
+            target.upsertAll(orderRepository.findFactRows(orderIds.subList(from, Math.min(orderIds.size(), from + LOAD_BATCH_SIZE))));
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.analytics;
+
+import com.avatar.TiendaVirtualAvatarImprenta.common.PeriodLabels;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderFactRow;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSliceDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.SliceDimension;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+//almacen columnar de ordenes en memoria: un arreglo primitivo por columna, una posicion por orden
+//- codigos 0 = sin dato (estado nulo, region vacia, sin metodo de envio)
+//- region, comuna y metodo de envio se guardan codificados por diccionario
+//- las lecturas comparten el read lock; las escrituras (upsert) toman el write lock
+class OrderColumnStore {
+
+    static final int NO_DAY = Integer.MIN_VALUE;
+    static final String UNKNOWN = "Sin dato";
+
+    private static final int INITIAL_CAPACITY = 1 << 14;
+    //filas minimas por bloque del recorrido paralelo
+    private static final int MIN_CHUNK_ROWS = 1 << 15;
+    //hasta esta cantidad de combinaciones se agrega en arreglos; sobre eso, en un mapa
+    private static final int DENSE_CELL_LIMIT = 1 << 16;
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rowById = new HashMap<>();
+
+    private int size;
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private long[] amountCents = new long[INITIAL_CAPACITY];
+    private int[] regions = new int[INITIAL_CAPACITY];
+    private int[] comunas = new int[INITIAL_CAPACITY];
+    private byte[] business = new byte[INITIAL_CAPACITY];
+    private int[] shippingMethods = new int[INITIAL_CAPACITY];
+
+    private int minDay = Integer.MAX_VALUE;
+    private int maxDay = Integer.MIN_VALUE;
+
+    private final Dictionary regionDictionary = new Dictionary();
+    private final Dictionary comunaDictionary = new Dictionary();
+    private final Dictionary shippingDictionary = new Dictionary();
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //inserta o reemplaza las ordenes (idempotente: la fila trae el estado actual de la base)
+    void upsertAll(Collection<OrderFactRow> rows) {
+        lock.writeLock().lock();
+        try {
+            for (OrderFactRow row : rows) {
+                upsertRow(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void upsertRow(OrderFactRow row) {
+        Integer existing = rowById.get(row.id());
+        int index;
+        if (existing != null) {
+            index = existing;
+        } else {
+            ensureCapacity(size + 1);
+            index = size++;
+            rowById.put(row.id(), index);
+        }
+        int day = row.orderDateLocal() != null ? (int) row.orderDateLocal().toEpochDay() : NO_DAY;
+        ids[index] = row.id();
+        epochDays[index] = day;
+        statuses[index] = (byte) (row.status() != null ? row.status().ordinal() + 1 : 0);
+        amountCents[index] = row.totalAmount() != null
+                ? row.totalAmount().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : 0L;
+        regions[index] = regionDictionary.encode(row.region());
+        comunas[index] = comunaDictionary.encode(row.comuna());
+        business[index] = (byte) (Boolean.TRUE.equals(row.business()) ? 1 : 0);
+        shippingMethods[index] = shippingDictionary.encode(row.shippingMethod());
+        if (day != NO_DAY) {
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        epochDays = Arrays.copyOf(epochDays, newCapacity);
+        statuses = Arrays.copyOf(statuses, newCapacity);
+        amountCents = Arrays.copyOf(amountCents, newCapacity);
+        regions = Arrays.copyOf(regions, newCapacity);
+        comunas = Arrays.copyOf(comunas, newCapacity);
+        business = Arrays.copyOf(business, newCapacity);
+        shippingMethods = Arrays.copyOf(shippingMethods, newCapacity);
+    }
+
+    //filtra y agrupa; fromDay/toDay en epoch day (null = sin limite), listas null = sin filtro
+    OrderSliceDTO aggregate(Integer fromDay, Integer toDay, List<OrderStatus> statusFilter, List<String> regionFilter,
+                            List<String> comunaFilter, Boolean businessFilter, List<String> shippingFilter,
+                            List<SliceDimension> groupBy) {
+        long started = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Scan scan = new Scan();
+            scan.rows = size;
+            scan.fromDay = fromDay != null ? fromDay : Integer.MIN_VALUE + 1;
+            scan.toDay = toDay != null ? toDay : Integer.MAX_VALUE;
+            scan.statusMask = statusMask(statusFilter);
+            scan.regionMask = regionDictionary.mask(regionFilter);
+            scan.comunaMask = comunaDictionary.mask(comunaFilter);
+            scan.shippingMask = shippingDictionary.mask(shippingFilter);
+            scan.business = businessFilter == null ? -1 : (byte) (businessFilter ? 1 : 0);
+            scan.dimensions = groupBy.toArray(new SliceDimension[0]);
+            prepareGrouping(scan);
+
+            Partial total = runParallel(scan);
+            return toResult(scan, total, started);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //calcula la cardinalidad de cada dimension y su paso dentro de la clave compuesta
+    private void prepareGrouping(Scan scan) {
+        boolean byDay = false;
+        for (SliceDimension dimension : scan.dimensions) {
+            byDay |= dimension == SliceDimension.DAY || dimension == SliceDimension.MONTH;
+        }
+        //el rango de dias agrupable: el filtro acotado a los datos existentes
+        //(en long: sin ordenes con fecha minDay > maxDay y la resta en int se desborda)
+        scan.baseDay = Math.max(scan.fromDay, minDay);
+        int lastDay = Math.min(scan.toDay, maxDay);
+        int dayCount = (int) Math.max(0L, (long) lastDay - scan.baseDay + 1);
+        if (byDay) {
+            scan.excludeUndated = true;
+            scan.monthOfDay = new int[dayCount];
+            if (dayCount > 0) {
+                LocalDate first = LocalDate.ofEpochDay(scan.baseDay);
+                scan.baseMonth = first.getYear() * 12 + first.getMonthValue() - 1;
+                for (int i = 0; i < dayCount; i++) {
+                    LocalDate day = first.plusDays(i);
+                    scan.monthOfDay[i] = day.getYear() * 12 + day.getMonthValue() - 1 - scan.baseMonth;
+                }
+            }
+        }
+        int monthCount = dayCount > 0 && byDay ? scan.monthOfDay[dayCount - 1] + 1 : 0;
+
+        scan.cardinalities = new int[scan.dimensions.length];
+        scan.strides = new long[scan.dimensions.length];
+        long cells = 1;
+        for (int d = 0; d < scan.dimensions.length; d++) {
+            int cardinality = switch (scan.dimensions[d]) {
+                case STATUS -> STATUSES.length + 1;
+                case REGION -> regionDictionary.size();
+                case COMUNA -> comunaDictionary.size();
+                case CUSTOMER_TYPE -> 2;
+                case SHIPPING_METHOD -> shippingDictionary.size();
+                case DAY -> dayCount;
+                case MONTH -> monthCount;
+            };
+            scan.cardinalities[d] = Math.max(cardinality, 1);
+            scan.strides[d] = cells;
+            cells *= scan.cardinalities[d];
+        }
+        scan.cells = cells;
+        scan.dense = cells <= DENSE_CELL_LIMIT;
+    }
+
+    private Partial runParallel(Scan scan) {
+        int parallelism = ForkJoinPool.commonPool().getParallelism();
+        int chunks = Math.max(1, Math.min(scan.rows / MIN_CHUNK_ROWS, parallelism * 4));
+        int chunkSize = (scan.rows + chunks - 1) / Math.max(chunks, 1);
+        //cada bloque agrega por separado en el pool fork-join y los parciales se combinan al final
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> scanChunk(scan, chunk * chunkSize, Math.min(scan.rows, (chunk + 1) * chunkSize)))
+                .reduce(Partial::merge)
+                .orElseGet(() -> new Partial(scan));
+    }
+
+    //recorrido de un bloque: solo arreglos primitivos y comparaciones, sin objetos por fila
+    private Partial scanChunk(Scan scan, int from, int to) {
+        Partial partial = new Partial(scan);
+        int fromDay = scan.fromDay;
+        int toDay = scan.toDay;
+        boolean filterDays = fromDay != Integer.MIN_VALUE + 1 || toDay != Integer.MAX_VALUE || scan.excludeUndated;
+        boolean[] statusMask = scan.statusMask;
+        boolean[] regionMask = scan.regionMask;
+        boolean[] comunaMask = scan.comunaMask;
+        boolean[] shippingMask = scan.shippingMask;
+        int businessFilter = scan.business;
+        SliceDimension[] dimensions = scan.dimensions;
+        long[] strides = scan.strides;
+
+        for (int i = from; i < to; i++) {
+            int day = epochDays[i];
+            if (filterDays && (day == NO_DAY || day < fromDay || day > toDay)) {
+                continue;
+            }
+            if (statusMask != null && !statusMask[statuses[i]]) {
+                continue;
+            }
+            if (regionMask != null && !regionMask[regions[i]]) {
+                continue;
+            }
+            if (comunaMask != null && !comunaMask[comunas[i]]) {
+                continue;
+            }
+            if (shippingMask != null && !shippingMask[shippingMethods[i]]) {
+                continue;
+            }
+            if (businessFilter >= 0 && business[i] != businessFilter) {
+                continue;
+            }
+            long key = 0;
+            for (int d = 0; d < dimensions.length; d++) {
+                int code = switch (dimensions[d]) {
+                    case STATUS -> statuses[i];
+                    case REGION -> regions[i];
+                    case COMUNA -> comunas[i];
+                    case CUSTOMER_TYPE -> business[i];
+                    case SHIPPING_METHOD -> shippingMethods[i];
+                    case DAY -> day - scan.baseDay;
+                    case MONTH -> scan.monthOfDay[day - scan.baseDay];
+                };
+                key += code * strides[d];
+            }
+            partial.add(key, amountCents[i]);
+        }
+        return partial;
+    }
+
+    private OrderSliceDTO toResult(Scan scan, Partial total, long started) {
+        List<OrderSliceDTO.Group> groups = new ArrayList<>();
+        long totalOrders = 0;
+        long totalCents = 0;
+        if (scan.dense) {
+            for (int key = 0; key < total.counts.length; key++) {
+                if (total.counts[key] > 0) {
+                    groups.add(toGroup(scan, key, total.counts[key], total.cents[key]));
+                    totalOrders += total.counts[key];
+                    totalCents += total.cents[key];
+                }
+            }
+        } else {
+            for (Map.Entry<Long, long[]> entry : total.sparse.entrySet()) {
+                long[] values = entry.getValue();
+                groups.add(toGroup(scan, entry.getKey(), values[0], values[1]));
+                totalOrders += values[0];
+                totalCents += values[1];
+            }
+        }
+        //mayor monto primero
+        groups.sort((a, b) -> b.getAmount().compareTo(a.getAmount()));
+        return OrderSliceDTO.builder()
+                .groups(groups)
+                .totalOrders(totalOrders)
+                .totalAmount(BigDecimal.valueOf(totalCents, 2))
+                .scannedRows(scan.rows)
+                .elapsedMillis((System.nanoTime() - started) / 1_000_000)
+                .build();
+    }
+
+    private OrderSliceDTO.Group toGroup(Scan scan, long key, long orders, long cents) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        for (int d = 0; d < scan.dimensions.length; d++) {
+            int code = (int) (key / scan.strides[d] % scan.cardinalities[d]);
+            keys.put(scan.dimensions[d].name(), label(scan, scan.dimensions[d], code));
+        }
+        return new OrderSliceDTO.Group(keys, orders, BigDecimal.valueOf(cents, 2));
+    }
+
+    private String label(Scan scan, SliceDimension dimension, int code) {
+        return switch (dimension) {
+            case STATUS -> code == 0 ? UNKNOWN : STATUSES[code - 1].name();
+            case REGION -> regionDictionary.decode(code);
+            case COMUNA -> comunaDictionary.decode(code);
+            case CUSTOMER_TYPE -> code == 1 ? "EMPRESA" : "PERSONA";
+            case SHIPPING_METHOD -> shippingDictionary.decode(code);
+            case DAY -> {
+                LocalDate day = LocalDate.ofEpochDay(scan.baseDay + (long) code);
+                yield PeriodLabels.day(day.getYear(), day.getMonthValue(), day.getDayOfMonth());
+            }
+            case MONTH -> {
+                int month = scan.baseMonth + code;
+                yield PeriodLabels.month(month / 12, month % 12 + 1);
+            }
+        };
+    }
+
+    private static boolean[] statusMask(List<OrderStatus> filter) {
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+        boolean[] mask = new boolean[STATUSES.length + 1];
+        for (OrderStatus status : filter) {
+            mask[status.ordinal() + 1] = true;
+        }
+        return mask;
+    }
+
+    //parametros ya resueltos de una consulta
+    private static final class Scan {
+        private int rows;
+        private int fromDay;
+        private int toDay;
+        private boolean excludeUndated;
+        private boolean[] statusMask;
+        private boolean[] regionMask;
+        private boolean[] comunaMask;
+        private boolean[] shippingMask;
+        private int business;
+        private SliceDimension[] dimensions;
+        private int[] cardinalities;
+        private long[] strides;
+        private long cells;
+        private boolean dense;
+        private int baseDay;
+        private int baseMonth;
+        private int[] monthOfDay;
+    }
+
+    //acumulado de un bloque: arreglos por combinacion o mapa si hay demasiadas combinaciones
+    private static final class Partial {
+        private final long[] counts;
+        private final long[] cents;
+        private final Map<Long, long[]> sparse;
+
+        private Partial(Scan scan) {
+            if (scan.dense) {
+                counts = new long[(int) scan.cells];
+                cents = new long[(int) scan.cells];
+                sparse = null;
+            } else {
+                counts = null;
+                cents = null;
+                sparse = new HashMap<>();
+            }
+        }
+
+        private void add(long key, long amount) {
+            if (counts != null) {
+                counts[(int) key]++;
+                cents[(int) key] += amount;
+            } else {
+                long[] values = sparse.computeIfAbsent(key, k -> new long[2]);
+                values[0]++;
+                values[1] += amount;
+            }
+        }
+
+        private Partial merge(Partial other) {
+            if (counts != null) {
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += other.counts[i];
+                    cents[i] += other.cents[i];
+                }
+            } else {
+                other.sparse.forEach((key, values) -> {
+                    long[] mine = sparse.computeIfAbsent(key, k -> new long[2]);
+                    mine[0] += values[0];
+                    mine[1] += values[1];
+                });
+            }
+            return this;
+        }
+    }
+
+    //texto <-> codigo entero; el codigo 0 queda reservado para "sin dato"
+    private static final class Dictionary {
+        private final List<String> values = new ArrayList<>(List.of(UNKNOWN));
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private int encode(String value) {
+            if (value == null || value.isBlank()) {
+                return 0;
+            }
+            return codes.computeIfAbsent(value.trim(), key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        private String decode(int code) {
+            return values.get(code);
+        }
+
+        private int size() {
+            return values.size();
+        }
+
+        //valores desconocidos no marcan nada: el filtro no deja pasar filas por ellos
+        private boolean[] mask(List<String> filter) {
+            if (filter == null || filter.isEmpty()) {
+                return null;
+            }
+            boolean[] mask = new boolean[values.size()];
+            for (String value : filter) {
+                Integer code = value != null ? codes.get(value.trim()) : null;
+                if (code != null) {
+                    mask[code] = true;
+                }
+            }
+            return mask;
+        }
+    }
+}
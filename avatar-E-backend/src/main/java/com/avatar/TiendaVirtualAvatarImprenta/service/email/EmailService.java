@@ -1,6 +1,9 @@
 package com.avatar.TiendaVirtualAvatarImprenta.service.email;
 
+import java.math.BigDecimal;
+
 public interface EmailService {
     void sendPasswordResetEmail(String toEmail, String userName, String resetToken);
     void sendWelcomeEmail(String toEmail, String userName);
+    void sendOrderConfirmationEmail(String toEmail, String userName, String orderCode, BigDecimal totalAmount);
 }
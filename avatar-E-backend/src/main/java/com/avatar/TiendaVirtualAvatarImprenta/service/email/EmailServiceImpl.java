@@ -12,7 +12,10 @@ import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
+import java.math.BigDecimal;
+import java.text.NumberFormat;
 import java.time.Year;
+import java.util.Locale;
 
 @Slf4j
 @Service
@@ -121,4 +124,56 @@ public class EmailServiceImpl implements EmailService{
             );
         }
     }
+
+    @Override
+    public void sendOrderConfirmationEmail(String toEmail, String userName, String orderCode, BigDecimal totalAmount) {
+        try {
+            // Validación básica
+            if (toEmail == null || toEmail.trim().isEmpty()) {
+                throw new EmailException("Email del destinatario es inválido", toEmail, EmailErrorType.INVALID_RECIPIENT);
+            }
+
+            // Preparar contexto para la plantilla (monto en formato chileno: $12.345)
+            Context context = new Context();
+            context.setVariable("userName", userName);
+            context.setVariable("orderCode", orderCode);
+            context.setVariable("totalAmount", NumberFormat.getCurrencyInstance(Locale.of("es", "CL")).format(totalAmount));
+            context.setVariable("supportEmail", "soporte@imprentaavatar.cl");
+            context.setVariable("websiteUrl", "http://localhost:4200");
+
+            // Procesar plantilla HTML
+            String htmlContent;
+            try {
+                htmlContent = templateEngine.process("order-confirmation", context);
+            } catch (Exception e) {
+                log.error("Error al procesar la plantilla de confirmación de orden para: {}", toEmail, e);
+                throw new EmailException(
+                        "Error al procesar la plantilla de confirmación de orden: " + e.getMessage(),
+                        toEmail,
+                        EmailErrorType.TEMPLATE_PROCESSING_ERROR,
+                        e
+                );
+            }
+
+            // Crear y enviar email
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+            helper.setTo(toEmail);
+            helper.setSubject("Recibimos tu orden " + orderCode);
+            helper.setText(htmlContent, true);
+
+            mailSender.send(message);
+            log.info("Email de confirmación de la orden {} enviado a: {}", orderCode, toEmail);
+
+        } catch (MessagingException e) {
+            log.error("Error de mensajería enviando confirmación de orden a: {}", toEmail, e);
+            throw new EmailException(
+                    "Error enviando confirmación de orden: " + e.getMessage(),
+                    toEmail,
+                    EmailErrorType.SEND_FAILURE,
+                    e
+            );
+        }
+    }
 }
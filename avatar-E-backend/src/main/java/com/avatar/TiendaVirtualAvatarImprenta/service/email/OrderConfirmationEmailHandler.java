@@ -0,0 +1,39 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.email;
+
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedPayload;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderPlacedHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+//correo de confirmacion de la orden, enviado desde el outbox (un SMTP lento o caido no frena la compra)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderConfirmationEmailHandler implements OrderPlacedHandler {
+
+    private final EmailService emailService;
+
+    @Value("${app.orders.confirmation-email.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public String handlerName() {
+        return "confirmation-email";
+    }
+
+    @Override
+    public void onOrderPlaced(OrderPlacedPayload payload) {
+        if (!enabled || payload.email() == null) {
+            return;
+        }
+        emailService.sendOrderConfirmationEmail(payload.email(), payload.customerName(), payload.code(), payload.totalAmount());
+    }
+
+    //el correo no se puede deshacer: se marca despues de enviarlo
+    @Override
+    public boolean transactional() {
+        return false;
+    }
+}
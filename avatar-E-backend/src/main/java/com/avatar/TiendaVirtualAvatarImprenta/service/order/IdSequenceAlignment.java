@@ -0,0 +1,54 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+//orders y order_items usaban AUTO_INCREMENT: las tablas de secuencia nuevas (orders_seq, order_items_seq)
+//parten en 1 y chocarian con los ids existentes. Se adelantan por sobre el mayor id antes de que
+//el servidor reciba peticiones (por eso @PostConstruct y no ApplicationReadyEvent)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdSequenceAlignment {
+
+    //tabla de secuencia -> tabla cuyos ids entrega
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items");
+
+    private final JdbcTemplate jdbcTemplate;
+    //depende del EntityManagerFactory para correr despues de que Hibernate cree las tablas de secuencia
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void align() {
+        SEQUENCES.forEach((sequence, table) -> {
+            try {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                //con el optimizador pooled un valor V entrega los ids [V - allocationSize, V)
+                long floor = (maxId != null ? maxId : 0) + Order.ID_ALLOCATION_SIZE + 1;
+                int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", floor, floor);
+                Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + sequence, Long.class);
+                if (rows != null && rows == 0) {
+                    jdbcTemplate.update("INSERT INTO " + sequence + " (next_val) VALUES (?)", floor);
+                    updated = 1;
+                }
+                if (updated > 0) {
+                    log.info("Secuencia {} alineada a {} (max id en {}: {})", sequence, floor, table, maxId);
+                }
+            } catch (DataAccessException e) {
+                //sin alinear, los inserts chocarian con ids existentes: mejor no levantar el servidor
+                log.error("No se pudo alinear la secuencia {}: {}", sequence, e.getMessage());
+                throw e;
+            }
+        });
+    }
+}
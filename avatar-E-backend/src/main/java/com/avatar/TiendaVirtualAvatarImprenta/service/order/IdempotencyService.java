@@ -0,0 +1,24 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+//ejecuta una accion a lo sumo una vez por (ambito, Idempotency-Key); los reintentos reciben la respuesta original
+public interface IdempotencyService {
+
+    default <T> Result<T> execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        return execute(scope, key, request, responseType, () -> null, ignored -> action.get());
+    }
+
+    //prepare corre despues de tomar la clave y antes de abrir la transaccion de la accion
+    //(ej. reservar el numero de la orden sin ocupar una segunda conexion dentro de la transaccion)
+    <P, T> Result<T> execute(String scope, String key, Object request, Class<T> responseType,
+                             Supplier<P> prepare, Function<P, T> action);
+
+    //borra claves vencidas
+    void purgeExpired();
+
+    //replayed = la respuesta viene de una solicitud anterior (la accion no se ejecuto)
+    record Result<T>(T body, boolean replayed) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.common.SingleFlight;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.IdempotencyKey;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.IdempotencyStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+//tres niveles:
+//- cache en memoria (respuestas recientes): un reintento no toca la base
+//- SingleFlight: duplicados simultaneos en este nodo esperan la misma ejecucion
+//- tabla idempotency_keys: la reserva (INSERT IGNORE) decide entre nodos y sobrevive reinicios
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository keyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    //cuanto se guarda la respuesta para repetirla
+    @Value("${app.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    //si el nodo que tomo la clave cae, otra solicitud puede tomarla pasado este tiempo
+    @Value("${app.idempotency.lock-timeout:PT2M}")
+    private Duration lockTimeout;
+
+    @Value("${app.idempotency.cache-size:10000}")
+    private long cacheSize;
+
+    private Cache<String, Stored> recent;
+    private final SingleFlight<String, Stored> inFlight = new SingleFlight<>();
+
+    @PostConstruct
+    void init() {
+        recent = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public <P, T> Result<T> execute(String scope, String key, Object request, Class<T> responseType,
+                                    Supplier<P> prepare, Function<P, T> action) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("La Idempotency-Key debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+        }
+        String keyHash = sha256(scope + '\n' + key);
+        String requestHash = sha256(toJson(request));
+
+        Stored cached = recent.getIfPresent(keyHash);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        //solo el hilo que ejecuta la accion llena el arreglo: los que esperaron reciben una repeticion
+        Object[] executed = new Object[1];
+        Stored stored = inFlight.execute(keyHash, () -> runOnce(keyHash, requestHash, prepare, action, executed));
+        if (executed[0] != null) {
+            return new Result<>(responseType.cast(executed[0]), false);
+        }
+        return replay(stored, requestHash, responseType);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int deleted = keyRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Claves de idempotencia vencidas eliminadas: {}", deleted);
+        }
+    }
+
+    private <P, T> Stored runOnce(String keyHash, String requestHash, Supplier<P> prepare, Function<P, T> action,
+                                  Object[] executed) {
+        Instant now = Instant.now();
+        boolean reserved = keyRepository.reserve(keyHash, requestHash, now, now.plus(lockTimeout)) == 1
+                || keyRepository.takeOverExpired(keyHash, requestHash, now, now.plus(lockTimeout)) == 1;
+        if (!reserved) {
+            //otro nodo ya la tomo: si termino se repite su respuesta, si no el cliente debe reintentar
+            IdempotencyKey existing = keyRepository.findByKeyHash(keyHash)
+                    .orElseThrow(() -> new BusinessException("Solicitud en proceso, intente nuevamente", HttpStatus.CONFLICT));
+            if (existing.getStatus() != IdempotencyStatus.COMPLETED) {
+                throw new BusinessException("Solicitud en proceso, intente nuevamente", HttpStatus.CONFLICT);
+            }
+            Stored stored = new Stored(existing.getRequestHash(), existing.getResponseBody());
+            recent.put(keyHash, stored);
+            return stored;
+        }
+
+        try {
+            P prepared = prepare.get();
+            //la respuesta se guarda en la misma transaccion que la accion (ej. la orden y sus items)
+            Stored stored = transactionTemplate.execute(status -> {
+                T value = action.apply(prepared);
+                String body = toJson(value);
+                keyRepository.complete(keyHash, body, Instant.now().plus(ttl));
+                executed[0] = value;
+                return new Stored(requestHash, body);
+            });
+            recent.put(keyHash, stored);
+            return stored;
+        } catch (RuntimeException | Error e) {
+            executed[0] = null;
+            keyRepository.release(keyHash);
+            throw e;
+        }
+    }
+
+    private <T> Result<T> replay(Stored stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BusinessException("La Idempotency-Key ya se uso con otra solicitud", HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        try {
+            return new Result<>(objectMapper.readValue(stored.responseBody(), responseType), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta idempotente ilegible", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la solicitud", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //respuesta guardada y hash de la solicitud que la produjo
+    private record Stored(String requestHash, String responseBody) {
+    }
+}
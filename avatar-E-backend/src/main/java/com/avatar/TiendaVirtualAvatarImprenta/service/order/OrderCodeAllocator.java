@@ -0,0 +1,88 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderCodeSequenceRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+//correlativo anual de codigos de orden estilo hi/lo: cada nodo reserva un bloque de numeros en
+//order_code_sequences (una escritura por bloque) y los entrega desde memoria.
+//Unico entre nodos, sin COUNT ni bloqueo por orden; se reinicia cada año.
+//Un bloque sin terminar al reiniciar el nodo (o una orden que hace rollback) deja huecos en la numeracion.
+//next() se llama antes de abrir la transaccion de la orden: recargar un bloque usa su propia conexion
+//y, dentro de otra transaccion, pediria una segunda al pool (con el pool agotado, nadie avanza)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderCodeAllocator {
+
+    private final OrderCodeSequenceRepository sequenceRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.orders.code-block-size:20}")
+    private int blockSize;
+
+    private final Map<Integer, Block> blocks = new ConcurrentHashMap<>();
+    private TransactionTemplate reserveTransaction;
+
+    @PostConstruct
+    void init() {
+        //la reserva se confirma sola: no depende de que la orden que la pidio haga commit
+        reserveTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    //siguiente numero del año (1, 2, 3... salvo huecos); fuera de una transaccion
+    public long next(int year) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("El numero de orden se reserva antes de abrir la transaccion");
+        }
+        Block block = blocks.computeIfAbsent(year, y -> new Block());
+        //ReentrantLock y no synchronized: un hilo virtual que espera la recarga no fija su hilo portador
+        block.lock.lock();
+        try {
+            if (block.next >= block.end) {
+                long first = reserve(year);
+                block.next = first;
+                block.end = first + blockSize;
+            }
+            return block.next++;
+        } finally {
+            block.lock.unlock();
+        }
+    }
+
+    //se importaron ordenes con codigos del año: sube la secuencia sobre el mayor codigo y descarta los bloques
+    //de este nodo (otros nodos terminan sus bloques en uso; importar con la tienda detenida evita choques)
+    public void realign(int year) {
+        reserveTransaction.executeWithoutResult(status ->
+                sequenceRepository.raiseTo(year, sequenceRepository.findMaxCodeNumber(year) + 1));
+        blocks.remove(year);
+    }
+
+    private long reserve(int year) {
+        Long first = reserveTransaction.execute(status -> {
+            //primer bloque del año: continua despues de los codigos que ya existan
+            long firstValue = sequenceRepository.existsById(year) ? 0 : sequenceRepository.findMaxCodeNumber(year) + 1;
+            sequenceRepository.reserveBlock(year, firstValue, blockSize);
+            return sequenceRepository.findNextValue(year) - blockSize;
+        });
+        log.debug("Bloque de codigos de orden {}: {}..{}", year, first, first + blockSize - 1);
+        return first;
+    }
+
+    //rango [next, end) del bloque en uso
+    private static final class Block {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next;
+        private long end;
+    }
+}
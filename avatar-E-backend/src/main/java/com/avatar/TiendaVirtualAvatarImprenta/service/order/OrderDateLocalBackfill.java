@@ -0,0 +1,46 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+//completa order_date_local/order_year/order_month en ordenes creadas antes de existir esas columnas
+//corre antes que cualquier otro proceso de inicio que lea los reportes
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderDateLocalBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfill() {
+        long total = 0;
+        Integer updated;
+        do {
+            //cada lote en su propia transaccion: @PreUpdate sincroniza las columnas al hacer flush
+            updated = transactionTemplate.execute(status -> {
+                List<Order> batch = orderRepository.findTop500ByOrderDateLocalIsNullAndOrderDateIsNotNull();
+                batch.forEach(Order::syncLocalDate);
+                return batch.size();
+            });
+            total += updated != null ? updated : 0;
+        } while (updated != null && updated == BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("Fecha local completada en {} ordenes", total);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderImportResultDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+//importacion desde linea de comandos; la aplicacion termina al finalizar:
+//java -jar app.jar --spring.main.web-application-type=none --import-orders=/ruta/ordenes.csv [--import-orders.skip-rebuild]
+//codigo de salida 0 = todo importado, 2 = hubo ordenes rechazadas, 1 = error
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderImportRunner implements ApplicationRunner {
+
+    private static final String OPTION = "import-orders";
+
+    private final OrderImportService importService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION) || args.getOptionValues(OPTION).isEmpty()) {
+            return;
+        }
+        Path file = Path.of(args.getOptionValues(OPTION).get(0));
+        boolean rebuild = !args.containsOption(OPTION + ".skip-rebuild");
+        int exitCode;
+        try (InputStream input = Files.newInputStream(file)) {
+            log.info("Importando ordenes desde {}", file);
+            OrderImportResultDTO result = importService.importCsv(input, rebuild);
+            result.getErrors().forEach(error ->
+                    log.warn("Linea {} ({}): {}", error.line(), error.orderCode(), error.message()));
+            if (result.getErrorCount() > result.getErrors().size()) {
+                log.warn("... y {} errores mas", result.getErrorCount() - result.getErrors().size());
+            }
+            exitCode = result.getOrdersRejected() > 0 ? 2 : 0;
+        } catch (Exception e) {
+            log.error("La importacion de ordenes fallo: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
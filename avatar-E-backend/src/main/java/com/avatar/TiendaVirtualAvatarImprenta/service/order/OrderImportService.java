@@ -0,0 +1,15 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderImportResultDTO;
+
+import java.io.InputStream;
+
+//carga masiva de ordenes historicas desde CSV (migracion del sistema anterior)
+//Una fila por item con cabecera; las filas de una misma orden van seguidas:
+//order_code, order_date, user_email, status, product_code, quantity, unit_price
+//y opcionales shipping_method_id, total_amount, material_option_id, color_option_id
+public interface OrderImportService {
+
+    //rebuildDerivedData: reconstruye acumulados, histogramas e indice de busqueda al terminar
+    OrderImportResultDTO importCsv(InputStream input, boolean rebuildDerivedData);
+}
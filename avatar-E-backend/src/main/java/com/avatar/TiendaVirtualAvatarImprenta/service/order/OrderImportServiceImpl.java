@@ -0,0 +1,576 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.common.CsvReader;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderImportResultDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OrderItem;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.ShippingMethod;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.product.ColorOption;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.product.MaterialOption;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.product.Product;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.user.User;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.ShippingMethodRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.product.ColorRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.product.MaterialOptionRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.product.ProductRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.user.UserRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.analytics.OrderAnalyticsService;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.OrderReportCache;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.OrderSalesRollupService;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.OrderValueDistributionService;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.SalesAnalyticsService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+//importacion en streaming: el CSV se lee registro a registro y solo vive en memoria el lote actual.
+//- productos, usuarios, materiales, colores y envios se resuelven con mapas cargados una vez (sin consulta por fila)
+//- cada lote de ordenes es una transaccion: persist con JDBC batch, flush y clear del EntityManager
+//- las ordenes se guardan con persist y no con el repositorio: no publican eventos (ni outbox ni correo);
+//  los datos derivados se reconstruyen una vez al final
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderImportServiceImpl implements OrderImportService {
+
+    private static final String ORDER_CODE = "order_code";
+    private static final String ORDER_DATE = "order_date";
+    private static final String USER_EMAIL = "user_email";
+    private static final String STATUS = "status";
+    private static final String SHIPPING_METHOD_ID = "shipping_method_id";
+    private static final String TOTAL_AMOUNT = "total_amount";
+    private static final String PRODUCT_CODE = "product_code";
+    private static final String MATERIAL_OPTION_ID = "material_option_id";
+    private static final String COLOR_OPTION_ID = "color_option_id";
+    private static final String QUANTITY = "quantity";
+    private static final String UNIT_PRICE = "unit_price";
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of(ORDER_CODE, ORDER_DATE, USER_EMAIL, STATUS, PRODUCT_CODE, QUANTITY, UNIT_PRICE);
+    private static final long PROGRESS_LOG_ROWS = 100_000;
+
+    private final TransactionTemplate transactionTemplate;
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final MaterialOptionRepository materialOptionRepository;
+    private final ColorRepository colorRepository;
+    private final ShippingMethodRepository shippingMethodRepository;
+    private final OrderCodeAllocator codeAllocator;
+    private final OrderOutboxService outboxService;
+    private final OrderSalesRollupService rollupService;
+    private final SalesAnalyticsService salesAnalyticsService;
+    private final OrderValueDistributionService valueDistributionService;
+    private final OrderSearchIndexService searchIndexService;
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final OrderReportCache reportCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    //ordenes por transaccion; al terminar cada lote se hace flush y clear del EntityManager
+    @Value("${app.orders.import.batch-size:500}")
+    private int batchSize;
+
+    //filas por sentencia JDBC durante la importacion (el resto de la aplicacion usa hibernate.jdbc.batch_size)
+    @Value("${app.orders.import.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Value("${app.orders.import.separator:,}")
+    private char separator;
+
+    @Value("${app.orders.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    //espera maxima a que el outbox quede vacio antes de reconstruir los datos derivados
+    @Value("${app.orders.import.outbox-drain-timeout:PT2M}")
+    private Duration outboxDrainTimeout;
+
+    //una importacion a la vez: dos en paralelo pelearian por los mismos codigos
+    private final ReentrantLock importLock = new ReentrantLock();
+
+    @Override
+    public OrderImportResultDTO importCsv(InputStream input, boolean rebuildDerivedData) {
+        if (!importLock.tryLock()) {
+            throw new BusinessException("Ya hay una importacion de ordenes en curso", HttpStatus.CONFLICT);
+        }
+        try {
+            return runImport(input, rebuildDerivedData);
+        } finally {
+            importLock.unlock();
+        }
+    }
+
+    private OrderImportResultDTO runImport(InputStream input, boolean rebuildDerivedData) {
+        long started = System.nanoTime();
+        Lookups lookups = loadLookups();
+        Progress progress = new Progress(maxReportedErrors, orderRepository.findMaxId());
+
+        try (CsvReader csv = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8), separator)) {
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new ValidationException("El archivo esta vacio");
+            }
+            Columns columns = Columns.of(header);
+
+            List<PendingOrder> batch = new ArrayList<>(batchSize);
+            PendingOrder current = null;
+            List<String> row;
+            try {
+                while ((row = csv.next()) != null) {
+                    long line = csv.recordLine();
+                    progress.rowsRead++;
+                    String code = columns.get(row, ORDER_CODE);
+                    if (code.isEmpty()) {
+                        progress.error(line, null, "order_code vacio");
+                        continue;
+                    }
+                    if (current == null || !current.code.equals(code)) {
+                        if (current != null) {
+                            enqueue(current, batch, progress);
+                        }
+                        //las filas de una orden van juntas: el mismo codigo mas adelante es otra orden con
+                        //codigo repetido, que se detecta al guardar su lote (persistBatch)
+                        current = startOrder(code, line, row, columns, lookups);
+                    }
+                    addItem(current, line, row, columns, lookups);
+
+                    if (progress.rowsRead % PROGRESS_LOG_ROWS == 0) {
+                        log.info("Importacion de ordenes: {} filas, {} ordenes ({} filas/s)", progress.rowsRead,
+                                progress.ordersImported, Math.round(perSecond(progress.rowsRead, started)));
+                    }
+                }
+            } catch (IOException e) {
+                //lo ya confirmado queda; se informa donde se corto la lectura
+                progress.error(csv.recordLine(), current != null ? current.code : null, "Lectura interrumpida: " + e.getMessage());
+                current = null;
+            }
+            if (current != null) {
+                enqueue(current, batch, progress);
+            }
+            writeBatch(batch, progress);
+        } catch (IOException e) {
+            throw new BusinessException("No se pudo leer el archivo: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        //los codigos importados "ORD-YYYY-NNNNN" no deben repetirse en ordenes nuevas
+        progress.years.forEach(codeAllocator::realign);
+
+        boolean rebuilt = rebuildDerivedData && progress.ordersImported > 0;
+        if (rebuilt) {
+            rebuildDerivedData();
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        OrderImportResultDTO result = OrderImportResultDTO.builder()
+                .rowsRead(progress.rowsRead)
+                .ordersImported(progress.ordersImported)
+                .itemsImported(progress.itemsImported)
+                .ordersSkipped(progress.ordersSkipped)
+                .ordersRejected(progress.ordersRejected)
+                .batches(progress.batches)
+                .elapsedMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond(perSecond(progress.rowsRead, started))
+                .ordersPerSecond(perSecond(progress.ordersImported, started))
+                .derivedDataRebuilt(rebuilt)
+                .errorCount(progress.errorCount)
+                .errors(progress.errors)
+                .build();
+        log.info("Importacion de ordenes terminada: {} filas, {} ordenes, {} items, {} omitidas, {} rechazadas en {} ms ({} filas/s)",
+                result.getRowsRead(), result.getOrdersImported(), result.getItemsImported(), result.getOrdersSkipped(),
+                result.getOrdersRejected(), result.getElapsedMs(), Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    private Lookups loadLookups() {
+        Map<String, Long> products = new HashMap<>();
+        for (Object[] row : productRepository.findCodeIdRows()) {
+            products.put(((String) row[0]).trim().toUpperCase(Locale.ROOT), (Long) row[1]);
+        }
+        Map<String, Long> users = new HashMap<>();
+        for (Object[] row : userRepository.findEmailIdRows()) {
+            if (row[0] != null) {
+                users.put(((String) row[0]).trim().toLowerCase(Locale.ROOT), (Long) row[1]);
+            }
+        }
+        return new Lookups(products, users,
+                new HashSet<>(materialOptionRepository.findAllIds()),
+                new HashSet<>(colorRepository.findAllIds()),
+                new HashSet<>(shippingMethodRepository.findAllIds()));
+    }
+
+    //datos de la orden: se toman de su primera fila
+    private PendingOrder startOrder(String code, long line, List<String> row, Columns columns, Lookups lookups) {
+        PendingOrder order = new PendingOrder(code, line);
+        try {
+            order.orderDate = parseDate(columns.get(row, ORDER_DATE));
+            String email = columns.get(row, USER_EMAIL).toLowerCase(Locale.ROOT);
+            order.userId = lookups.users().get(email);
+            if (order.userId == null) {
+                throw new ValidationException("Usuario no encontrado: " + email);
+            }
+            order.status = parseStatus(columns.get(row, STATUS));
+            order.shippingMethodId = parseId(columns.get(row, SHIPPING_METHOD_ID), lookups.shippingMethods(), "Metodo de envio");
+            String total = columns.get(row, TOTAL_AMOUNT);
+            order.totalAmount = total.isEmpty() ? null : parseAmount(total, TOTAL_AMOUNT);
+        } catch (ValidationException e) {
+            order.reject(line, e.getMessage());
+        }
+        return order;
+    }
+
+    private void addItem(PendingOrder order, long line, List<String> row, Columns columns, Lookups lookups) {
+        if (order.error != null) {
+            return;
+        }
+        try {
+            String productCode = columns.get(row, PRODUCT_CODE).toUpperCase(Locale.ROOT);
+            Long productId = lookups.products().get(productCode);
+            if (productId == null) {
+                throw new ValidationException("Producto no encontrado: " + productCode);
+            }
+            int quantity = parseQuantity(columns.get(row, QUANTITY));
+            BigDecimal unitPrice = parseAmount(columns.get(row, UNIT_PRICE), UNIT_PRICE);
+            Long materialId = parseId(columns.get(row, MATERIAL_OPTION_ID), lookups.materials(), "Material");
+            Long colorId = parseId(columns.get(row, COLOR_OPTION_ID), lookups.colors(), "Color");
+            order.items.add(new PendingItem(productId, materialId, colorId, quantity, unitPrice));
+        } catch (ValidationException e) {
+            order.reject(line, e.getMessage());
+        }
+    }
+
+    //una orden con cualquier fila invalida se rechaza completa
+    private void enqueue(PendingOrder order, List<PendingOrder> batch, Progress progress) {
+        if (order.error != null) {
+            progress.ordersRejected++;
+            progress.error(order.errorLine, order.code, order.error);
+            return;
+        }
+        batch.add(order);
+        if (batch.size() >= batchSize) {
+            writeBatch(batch, progress);
+        }
+    }
+
+    private void writeBatch(List<PendingOrder> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> codes = new HashSet<>(batch.size());
+        for (PendingOrder order : batch) {
+            codes.add(order.code);
+        }
+        try {
+            BatchCounts counts = transactionTemplate.execute(status -> persistBatch(batch, codes, progress.importedAfterId));
+            progress.ordersImported += counts.orders();
+            progress.itemsImported += counts.items();
+            progress.ordersSkipped += counts.skipped();
+            progress.years.addAll(counts.years());
+            for (PendingOrder repeated : counts.repeated()) {
+                progress.ordersRejected++;
+                progress.error(repeated.errorLine, repeated.code, repeated.error);
+            }
+        } catch (RuntimeException e) {
+            //el lote completo hizo rollback (ej. FK invalida)
+            log.warn("Lote de importacion rechazado (lineas {}-{}): {}", batch.get(0).line,
+                    batch.get(batch.size() - 1).line, e.getMessage());
+            progress.ordersRejected += batch.size();
+            progress.error(batch.get(0).line, batch.get(0).code, "Lote de " + batch.size()
+                    + " ordenes rechazado hasta la linea " + batch.get(batch.size() - 1).line + ": " + rootMessage(e));
+        }
+        progress.batches++;
+        batch.clear();
+    }
+
+    //importedAfterId: las ordenes con id mayor las creo esta misma importacion
+    private BatchCounts persistBatch(List<PendingOrder> batch, Set<String> codes, long importedAfterId) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        Map<String, Long> existing = new HashMap<>();
+        for (Object[] row : orderRepository.findIdsByCodes(codes)) {
+            existing.put((String) row[0], (Long) row[1]);
+        }
+        //primera linea de cada codigo dentro del lote (solo vive mientras se guarda el lote)
+        Map<String, Long> lineByCode = new HashMap<>(batch.size() * 2);
+        List<PendingOrder> repeated = new ArrayList<>();
+        long orders = 0;
+        long items = 0;
+        long skipped = 0;
+        Set<Integer> years = new TreeSet<>();
+        for (PendingOrder pending : batch) {
+            Long existingId = existing.get(pending.code);
+            if (existingId != null && existingId <= importedAfterId) {
+                //reimportar el mismo archivo (o retomar uno cortado) omite las ordenes ya cargadas
+                skipped++;
+                continue;
+            }
+            if (existingId != null) {
+                pending.reject(pending.line, "order_code repetido en el archivo (ya importado en un lote anterior)");
+                repeated.add(pending);
+                continue;
+            }
+            Long firstLine = lineByCode.putIfAbsent(pending.code, pending.line);
+            if (firstLine != null) {
+                pending.reject(pending.line, "order_code repetido en el archivo (ya usado en la linea " + firstLine + ")");
+                repeated.add(pending);
+                continue;
+            }
+            entityManager.persist(toEntity(pending));
+            orders++;
+            items += pending.items.size();
+            years.add(pending.orderDate.withZoneSameInstant(Order.ZONE_CHILE).getYear());
+        }
+        //el EntityManager no crece con la importacion: despues de cada lote queda vacio
+        entityManager.flush();
+        entityManager.clear();
+        return new BatchCounts(orders, items, skipped, years, repeated);
+    }
+
+    private Order toEntity(PendingOrder pending) {
+        Order order = new Order();
+        order.setCode(pending.code);
+        order.setOrderDate(pending.orderDate);
+        order.setStatus(pending.status);
+        order.setUser(entityManager.getReference(User.class, pending.userId));
+        if (pending.shippingMethodId != null) {
+            order.setShippingMethod(entityManager.getReference(ShippingMethod.class, pending.shippingMethodId));
+        }
+        //precios historicos tal cual vienen: el catalogo actual no aplica a ordenes pasadas
+        BigDecimal itemsTotal = BigDecimal.ZERO;
+        for (PendingItem pendingItem : pending.items) {
+            OrderItem item = OrderItem.builder()
+                    .product(entityManager.getReference(Product.class, pendingItem.productId()))
+                    .materialOption(pendingItem.materialOptionId() != null
+                            ? entityManager.getReference(MaterialOption.class, pendingItem.materialOptionId()) : null)
+                    .colorOption(pendingItem.colorOptionId() != null
+                            ? entityManager.getReference(ColorOption.class, pendingItem.colorOptionId()) : null)
+                    .quantity(pendingItem.quantity())
+                    .price(pendingItem.unitPrice())
+                    .lineTotal(pendingItem.unitPrice().multiply(BigDecimal.valueOf(pendingItem.quantity())))
+                    .build();
+            item.setOrder(order);
+            order.getItems().add(item);
+            itemsTotal = itemsTotal.add(item.getLineTotal());
+        }
+        //sin total_amount se usa la suma de los items (el envio historico no se conoce)
+        order.setTotalAmount(pending.totalAmount != null ? pending.totalAmount : itemsTotal);
+        return order;
+    }
+
+    private void rebuildDerivedData() {
+        //primero se espera a que el outbox quede vacio (sin PENDING ni PROCESSING, tambien de otros nodos)
+        long started = System.nanoTime();
+        if (!outboxService.awaitDrained(outboxDrainTimeout)) {
+            //los rebuilds marcan los eventos que sigan pendientes, asi que tampoco se cuentan dos veces
+            log.warn("El outbox no quedo vacio en {}; se reconstruye igual", outboxDrainTimeout);
+        }
+        rollupService.rebuild();
+        salesAnalyticsService.rebuild();
+        valueDistributionService.rebuild();
+        searchIndexService.rebuild();
+        reportCache.invalidateAll();
+        orderAnalyticsService.reload();
+        log.info("Datos derivados reconstruidos despues de la importacion en {} ms",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    //acepta ISO con zona u offset, "yyyy-MM-dd HH:mm:ss" (hora Chile) o solo fecha
+    private static ZonedDateTime parseDate(String value) {
+        if (value.isEmpty()) {
+            throw new ValidationException("order_date vacio");
+        }
+        String iso = value.length() > 10 && value.charAt(10) == ' ' ? value.substring(0, 10) + 'T' + value.substring(11) : value;
+        try {
+            return ZonedDateTime.parse(iso);
+        } catch (DateTimeParseException ignored) {
+            //sin zona
+        }
+        try {
+            return iso.length() > 10
+                    ? LocalDateTime.parse(iso).atZone(Order.ZONE_CHILE)
+                    : LocalDate.parse(iso).atStartOfDay(Order.ZONE_CHILE);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("order_date invalido: " + value);
+        }
+    }
+
+    private static OrderStatus parseStatus(String value) {
+        try {
+            return OrderStatus.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Estado invalido: " + value);
+        }
+    }
+
+    private static int parseQuantity(String value) {
+        try {
+            int quantity = Integer.parseInt(value);
+            if (quantity < 1) {
+                throw new ValidationException("La cantidad debe ser al menos 1: " + value);
+            }
+            return quantity;
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Cantidad invalida: " + value);
+        }
+    }
+
+    private static BigDecimal parseAmount(String value, String column) {
+        try {
+            BigDecimal amount = new BigDecimal(value);
+            if (amount.signum() < 0) {
+                throw new ValidationException(column + " negativo: " + value);
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new ValidationException(column + " invalido: " + value);
+        }
+    }
+
+    //id opcional que debe existir en la tabla (vacio = null)
+    private static Long parseId(String value, Set<Long> known, String label) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            Long id = Long.valueOf(value);
+            if (!known.contains(id)) {
+                throw new ValidationException(label + " no encontrado: " + value);
+            }
+            return id;
+        } catch (NumberFormatException e) {
+            throw new ValidationException(label + " invalido: " + value);
+        }
+    }
+
+    private static double perSecond(long count, long startedNanos) {
+        long elapsed = Math.max(System.nanoTime() - startedNanos, 1);
+        return count * 1_000_000_000.0 / elapsed;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private record Lookups(Map<String, Long> products, Map<String, Long> users,
+                           Set<Long> materials, Set<Long> colors, Set<Long> shippingMethods) {
+    }
+
+    private record PendingItem(Long productId, Long materialOptionId, Long colorOptionId, int quantity,
+                               BigDecimal unitPrice) {
+    }
+
+    private record BatchCounts(long orders, long items, long skipped, Set<Integer> years, List<PendingOrder> repeated) {
+    }
+
+    //orden leida del CSV y aun no guardada
+    private static final class PendingOrder {
+        private final String code;
+        private final long line;
+        private ZonedDateTime orderDate;
+        private Long userId;
+        private OrderStatus status;
+        private Long shippingMethodId;
+        private BigDecimal totalAmount;
+        private final List<PendingItem> items = new ArrayList<>();
+        private String error;
+        private long errorLine;
+
+        private PendingOrder(String code, long line) {
+            this.code = code;
+            this.line = line;
+        }
+
+        //solo se informa el primer error de la orden
+        private void reject(long line, String message) {
+            if (error == null) {
+                error = message;
+                errorLine = line;
+            }
+        }
+    }
+
+    //posicion de cada columna segun la cabecera (el orden en el archivo es libre)
+    private record Columns(Map<String, Integer> index) {
+
+        static Columns of(List<String> header) {
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                //el BOM de UTF-8 de Excel llega pegado a la primera columna
+                index.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+            }
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !index.containsKey(column)).toList();
+            if (!missing.isEmpty()) {
+                throw new ValidationException("Faltan columnas en el CSV: " + String.join(", ", missing));
+            }
+            return new Columns(index);
+        }
+
+        //valor sin espacios; "" si la columna no existe o la fila es mas corta
+        String get(List<String> row, String column) {
+            Integer i = index.get(column);
+            return i != null && i < row.size() ? row.get(i).trim() : "";
+        }
+    }
+
+    private static final class Progress {
+        private final int maxErrors;
+        private final List<OrderImportResultDTO.RowError> errors = new ArrayList<>();
+        private final Set<Integer> years = new TreeSet<>();
+        //id maximo de ordenes al empezar: un codigo ya guardado con id mayor se repite dentro del archivo
+        //(las primeras ordenes pueden usar ids que este nodo reservo antes, a lo sumo Order.ID_ALLOCATION_SIZE;
+        //si una de esas se repite mas adelante se omite como ya cargada en vez de informarse)
+        private final long importedAfterId;
+        private long rowsRead;
+        private long ordersImported;
+        private long itemsImported;
+        private long ordersSkipped;
+        private long ordersRejected;
+        private long batches;
+        private long errorCount;
+
+        private Progress(int maxErrors, long importedAfterId) {
+            this.maxErrors = maxErrors;
+            this.importedAfterId = importedAfterId;
+        }
+
+        private void error(long line, String orderCode, String message) {
+            errorCount++;
+            if (errors.size() < maxErrors) {
+                errors.add(new OrderImportResultDTO.RowError(line, orderCode, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import java.time.Duration;
+import java.util.Map;
+
+//entrega los eventos de outbox_events a los OrderPlacedHandler con reintentos y eventos muertos
+public interface OrderOutboxService {
+
+    //toma y procesa lotes hasta vaciar la cola (lo llama el poller)
+    int dispatchPending();
+
+    //entrega y espera hasta que no queden eventos PENDING ni PROCESSING (incluye los que esperan reintento);
+    //false si se cumple el plazo antes
+    boolean awaitDrained(Duration timeout);
+
+    //vuelve a PENDING los eventos DEAD; devuelve cuantos
+    int retryDead();
+
+    //borra eventos DONE mas antiguos que la retencion
+    void purgeProcessed();
+
+    Map<String, Object> stats();
+}
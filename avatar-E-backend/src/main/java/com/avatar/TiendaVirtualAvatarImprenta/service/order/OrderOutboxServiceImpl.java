@@ -0,0 +1,311 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OutboxEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OutboxStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedPayload;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OutboxEventRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OutboxHandlerRunRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.OrderReportCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//poller del outbox:
+//- toma un lote con SELECT ... FOR UPDATE SKIP LOCKED y lo marca PROCESSING con bloqueo temporal (una transaccion corta)
+//- reparte los eventos en un pool fijo de workers; cada handler corre en su propia transaccion
+//- si un handler falla el evento se reintenta con backoff exponencial (solo los handlers pendientes) y
+//  al agotar los intentos queda DEAD
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderOutboxServiceImpl implements OrderOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    //pausa entre revisiones mientras se espera que el outbox quede vacio
+    private static final long DRAIN_CHECK_MILLIS = 500;
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxHandlerRunRepository handlerRunRepository;
+    private final List<OrderPlacedHandler> handlers;
+    private final OrderReportCache reportCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    //workers = eventos en paralelo (cada uno usa una conexion mientras corre un handler)
+    @Value("${app.outbox.workers:4}")
+    private int workers;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    //si el nodo cae con un lote tomado, otro lo retoma pasado este tiempo
+    @Value("${app.outbox.lease:PT2M}")
+    private Duration lease;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.initial-backoff:PT5S}")
+    private Duration initialBackoff;
+
+    @Value("${app.outbox.max-backoff:PT30M}")
+    private Duration maxBackoff;
+
+    //cuanto se guardan los eventos DONE
+    @Value("${app.outbox.retention:P7D}")
+    private Duration retention;
+
+    private ExecutorService workerPool;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        workerPool = Executors.newFixedThreadPool(Math.max(1, workers), Thread.ofPlatform().name("order-outbox-", 0).factory());
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        //los eventos que no alcancen a terminar quedan PROCESSING y se retoman al vencer el bloqueo
+        workerPool.shutdown();
+        workerPool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT1S}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            dispatchPending();
+        } catch (RuntimeException e) {
+            log.error("Error procesando el outbox de ordenes: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int dispatchPending() {
+        int processed = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = claimBatch();
+            dispatch(batch);
+            processed += batch.size();
+        } while (batch.size() == batchSize);
+        return processed;
+    }
+
+    @Override
+    public boolean awaitDrained(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            dispatchPending();
+            //eventos de otros nodos en proceso, o pendientes con el reintento aun en el futuro
+            if (outboxRepository.countInFlight() == 0) {
+                return true;
+            }
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(DRAIN_CHECK_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public int retryDead() {
+        int retried = outboxRepository.retryDead(Instant.now());
+        if (retried > 0) {
+            log.info("Eventos del outbox reprogramados: {}", retried);
+        }
+        return retried;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval:PT1H}")
+    public void purgeProcessed() {
+        int deleted = outboxRepository.deleteDoneBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Eventos procesados del outbox eliminados: {}", deleted);
+        }
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<OutboxStatus, Long> byStatus = new EnumMap<>(OutboxStatus.class);
+        for (OutboxStatus status : OutboxStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        for (Object[] row : outboxRepository.countByStatus()) {
+            byStatus.put((OutboxStatus) row[0], ((Number) row[1]).longValue());
+        }
+        Instant oldestPending = outboxRepository.findOldestPendingCreatedAt();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("workers", workers);
+        result.put("handlers", handlers.stream().map(OrderPlacedHandler::handlerName).toList());
+        result.put("byStatus", byStatus);
+        //atraso de los efectos secundarios respecto de la creacion de la orden
+        result.put("oldestPendingAgeMs", oldestPending != null ? Duration.between(oldestPending, Instant.now()).toMillis() : 0);
+        result.put("delivered", delivered.sum());
+        result.put("failedAttempts", failedAttempts.sum());
+        result.put("deadLettered", deadLettered.sum());
+        return result;
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<Long> ids = outboxRepository.lockClaimable(now, batchSize);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            outboxRepository.markProcessing(ids, now.plus(lease));
+            return outboxRepository.findAllById(ids);
+        });
+    }
+
+    private void dispatch(List<OutboxEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            tasks.add(() -> {
+                process(event);
+                return null;
+            });
+        }
+        try {
+            workerPool.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void process(OutboxEvent event) {
+        if (!OutboxEvent.ORDER_PLACED.equals(event.getEventType())) {
+            fail(event, "Tipo de evento desconocido: " + event.getEventType(), true);
+            return;
+        }
+        OrderPlacedPayload payload;
+        try {
+            payload = objectMapper.readValue(event.getPayload(), OrderPlacedPayload.class);
+        } catch (JsonProcessingException e) {
+            fail(event, "Payload invalido: " + e.getOriginalMessage(), true);
+            return;
+        }
+
+        //un handler que falla no detiene a los demas; en el reintento solo se repiten los que faltan
+        List<String> errors = new ArrayList<>();
+        for (OrderPlacedHandler handler : handlers) {
+            try {
+                run(handler, event.getId(), payload);
+            } catch (RuntimeException e) {
+                log.warn("Handler {} fallo para el evento {} (orden {}): {}",
+                        handler.handlerName(), event.getId(), payload.orderId(), e.getMessage());
+                errors.add(handler.handlerName() + ": " + e.getMessage());
+            }
+        }
+        //los acumulados del dia cambiaron: fuera los reportes cacheados que lo cubren
+        reportCache.invalidateDay(payload.day());
+
+        if (errors.isEmpty()) {
+            boolean done = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (outboxRepository.markDone(event.getId(), event.getLockedUntil(), Instant.now()) == 0) {
+                    return false;
+                }
+                handlerRunRepository.deleteByEventId(event.getId());
+                return true;
+            }));
+            if (done) {
+                delivered.increment();
+            } else {
+                //las marcas de los handlers quedan: el nodo que lo retomo no los repite
+                logLeaseLost(event);
+            }
+        } else {
+            fail(event, String.join("; ", errors), false);
+        }
+    }
+
+    private void run(OrderPlacedHandler handler, Long eventId, OrderPlacedPayload payload) {
+        String name = handler.handlerName();
+        if (handler.transactional()) {
+            //marca y efecto en la misma transaccion: si la marca ya existe, el handler ya se aplico
+            transactionTemplate.executeWithoutResult(status -> {
+                if (handlerRunRepository.markRun(eventId, name, Instant.now()) == 1) {
+                    handler.onOrderPlaced(payload);
+                }
+            });
+            return;
+        }
+        if (handlerRunRepository.existsByEventIdAndHandler(eventId, name)) {
+            return;
+        }
+        handler.onOrderPlaced(payload);
+        transactionTemplate.executeWithoutResult(status -> handlerRunRepository.markRun(eventId, name, Instant.now()));
+    }
+
+    private void fail(OutboxEvent event, String error, boolean permanent) {
+        failedAttempts.increment();
+        String lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        //attempts ya incluye el intento actual (se sumo al tomar el lote)
+        if (permanent || event.getAttempts() >= maxAttempts) {
+            if (outboxRepository.markFailed(event.getId(), event.getLockedUntil(), OutboxStatus.DEAD, Instant.now(), lastError) == 0) {
+                logLeaseLost(event);
+                return;
+            }
+            deadLettered.increment();
+            log.error("Evento {} del outbox ({}) quedo DEAD tras {} intentos: {}",
+                    event.getId(), event.getEventType(), event.getAttempts(), lastError);
+            return;
+        }
+        if (outboxRepository.markFailed(event.getId(), event.getLockedUntil(), OutboxStatus.PENDING,
+                Instant.now().plus(backoff(event.getAttempts())), lastError) == 0) {
+            logLeaseLost(event);
+        }
+    }
+
+    private void logLeaseLost(OutboxEvent event) {
+        log.warn("Evento {} del outbox: el bloqueo vencio y otro nodo lo retomo", event.getId());
+    }
+
+    //initialBackoff * 2^(intento - 1) con tope, y jitter para que los reintentos de un lote no coincidan
+    private Duration backoff(int attempt) {
+        long base = initialBackoff.toMillis() << Math.min(Math.max(attempt - 1, 0), 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+}
@@ -0,0 +1,52 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OutboxEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedPayload;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+//lo unico que la creacion de la orden paga en linea: un INSERT en outbox_events dentro de su transaccion
+//(acumulados, indices, analitica en memoria, mas vendidos y correo los aplica OrderOutboxServiceImpl despues del commit)
+@Component
+@RequiredArgsConstructor
+public class OrderOutboxWriter {
+
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (event.status() == null) {
+            return;
+        }
+        Order order = event.order();
+        Instant now = Instant.now();
+        outboxRepository.save(OutboxEvent.builder()
+                .eventType(OutboxEvent.ORDER_PLACED)
+                .aggregateId(order.getId())
+                .payload(toJson(OrderPlacedPayload.of(order, event.status())))
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    private String toJson(OrderPlacedPayload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("No se pudo registrar el evento de la orden", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedPayload;
+
+//efecto secundario de una orden nueva, ejecutado por OrderOutboxServiceImpl despues del commit
+//cada handler se aplica a lo sumo una vez por evento aunque el evento se reintente
+public interface OrderPlacedHandler {
+
+    //nombre estable: se guarda en outbox_handler_runs
+    String handlerName();
+
+    void onOrderPlaced(OrderPlacedPayload payload);
+
+    //true: el handler solo escribe en la base y se confirma junto con su marca (exactamente una vez)
+    //false: efecto externo (ej. correo); la marca se guarda despues y un fallo entre medio lo repite
+    default boolean transactional() {
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSearchCriteria;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+
+//indice de trigramas sobre el codigo de la orden y el email del cliente
+public interface OrderSearchIndexService {
+
+    //interpreta el texto de busqueda del reporte (codigo exacto, estado o trigramas)
+    OrderSearchCriteria resolve(String searchText);
+
+    //agrega (o reemplaza) los trigramas de una orden
+    void index(Order order);
+
+    //borra y vuelve a indexar todas las ordenes
+    void rebuild();
+}
@@ -0,0 +1,207 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSearchCriteria;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedPayload;
+import com.avatar.TiendaVirtualAvatarImprenta.event.user.UserEmailChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderSearchTokenRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.ReportRebuildGuard;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderSearchIndexServiceImpl implements OrderSearchIndexService, OrderPlacedHandler {
+
+    private static final int GRAM_SIZE = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Pattern ORDER_CODE = Pattern.compile("^ord-\\d{4}-\\d{5,}$");
+    //un IN con muchos trigramas cuesta mas que lo que filtra: basta un subconjunto porque el LIKE verifica
+    private static final int MAX_QUERY_TOKENS = 6;
+    //trigramas presentes en casi todas las ordenes (prefijo del codigo y dominios de correo comunes):
+    //sus listas de ids son del tamaño de la tabla y no filtran nada
+    private static final Set<String> COMMON_TOKENS = commonTokens(
+            "ord-20", "@gmail.com", "@hotmail.com", "@outlook.com", "@yahoo.com", ".cl");
+    private static final String INSERT_TOKEN_SQL =
+            "INSERT IGNORE INTO order_search_tokens (order_id, token) VALUES (?, ?)";
+
+    private final OrderSearchTokenRepository tokenRepository;
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReportRebuildGuard rebuildGuard;
+
+    @Override
+    public OrderSearchCriteria resolve(String searchText) {
+        if (searchText == null || searchText.isBlank()) {
+            return OrderSearchCriteria.NONE;
+        }
+        String text = searchText.trim().toLowerCase(Locale.ROOT);
+
+        //codigo completo: va directo al indice unico de orders.code
+        String exactCode = ORDER_CODE.matcher(text).matches() ? text.toUpperCase(Locale.ROOT) : null;
+
+        //el estado se compara en memoria contra el enum (no con LIKE sobre la columna)
+        List<OrderStatus> statuses = Arrays.stream(OrderStatus.values())
+                .filter(status -> status.name().toLowerCase(Locale.ROOT).contains(text))
+                .toList();
+
+        //textos de menos de 3 caracteres (o con solo trigramas comunes) no usan el indice: queda el LIKE
+        return new OrderSearchCriteria(text, exactCode, statuses, queryTokens(text));
+    }
+
+    //reindexa las ordenes del cliente despues de confirmar el cambio de email
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserEmailChanged(UserEmailChangedEvent event) {
+        List<Object[]> orders = orderRepository.findSearchableByUser(event.userId());
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] order : orders) {
+            Long orderId = (Long) order[0];
+            tokenRepository.deleteByOrderId(orderId);
+            for (String token : tokensOf((String) order[1], (String) order[2])) {
+                rows.add(new Object[]{orderId, token});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TOKEN_SQL, rows);
+        }
+        log.info("Reindexadas {} ordenes del usuario {} por cambio de email", orders.size(), event.userId());
+    }
+
+    @Override
+    @Transactional
+    public void index(Order order) {
+        tokenRepository.deleteByOrderId(order.getId());
+        insertTokens(order.getId(), tokensOf(order));
+    }
+
+    @Override
+    public String handlerName() {
+        return "search-index";
+    }
+
+    //orden nueva (desde el outbox): INSERT IGNORE, repetirlo no duplica tokens
+    @Override
+    @Transactional
+    public void onOrderPlaced(OrderPlacedPayload payload) {
+        rebuildGuard.lockForDelta();
+        insertTokens(payload.orderId(), tokensOf(payload.code(), payload.email()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeIfEmpty() {
+        //el bloqueo va antes del count: rebuild() corre en esta misma transaccion y su foto
+        rebuildGuard.lockForRebuild();
+        if (tokenRepository.count() == 0 && orderRepository.count() > 0) {
+            log.info("Indice de busqueda de ordenes vacio, reconstruyendo...");
+            rebuild();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        //las ordenes con el evento del outbox pendiente se indexan aqui; el outbox no repite el handler
+        rebuildGuard.lockForRebuild(handlerName());
+        tokenRepository.deleteAllInBatch();
+
+        long afterId = 0;
+        long indexed = 0;
+        List<Object[]> batch;
+        do {
+            batch = orderRepository.findSearchableAfter(afterId, Limit.of(REBUILD_BATCH_SIZE));
+            List<Object[]> rows = new ArrayList<>();
+            for (Object[] order : batch) {
+                Long orderId = (Long) order[0];
+                for (String token : tokensOf((String) order[1], (String) order[2])) {
+                    rows.add(new Object[]{orderId, token});
+                }
+                afterId = orderId;
+            }
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_TOKEN_SQL, rows);
+            }
+            indexed += batch.size();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        log.info("Indice de busqueda reconstruido para {} ordenes", indexed);
+    }
+
+    private void insertTokens(Long orderId, Set<String> tokens) {
+        List<Object[]> rows = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            rows.add(new Object[]{orderId, token});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TOKEN_SQL, rows);
+        }
+    }
+
+    private Set<String> tokensOf(Order order) {
+        String email = order.getUser() != null ? order.getUser().getEmail() : null;
+        return tokensOf(order.getCode(), email);
+    }
+
+    private Set<String> tokensOf(String code, String email) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokens.addAll(trigrams(code));
+        tokens.addAll(trigrams(email));
+        return tokens;
+    }
+
+    //trigramas que filtran: sin los comunes y a lo sumo MAX_QUERY_TOKENS repartidos a lo largo del texto
+    private List<String> queryTokens(String text) {
+        List<String> grams = new ArrayList<>(trigrams(text));
+        grams.removeAll(COMMON_TOKENS);
+        if (grams.size() <= MAX_QUERY_TOKENS) {
+            return grams;
+        }
+        List<String> picked = new ArrayList<>(MAX_QUERY_TOKENS);
+        for (int i = 0; i < MAX_QUERY_TOKENS; i++) {
+            picked.add(grams.get(i * (grams.size() - 1) / (MAX_QUERY_TOKENS - 1)));
+        }
+        return picked;
+    }
+
+    private static Set<String> commonTokens(String... fragments) {
+        Set<String> tokens = new HashSet<>();
+        for (String fragment : fragments) {
+            tokens.addAll(trigrams(fragment));
+        }
+        return tokens;
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (value == null) {
+            return grams;
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i + GRAM_SIZE <= lower.length(); i++) {
+            grams.add(lower.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
@@ -1,45 +1,151 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderCreatedDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderItemRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderRequest;
 import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OrderItem;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.ShippingMethod;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
 import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.ShippingMethodRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.product.ColorRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.product.MaterialOptionRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.product.ProductRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.user.UserRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.pricing.PricingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
-/*
+
     private final OrderRepository orderRepository;
+    private final OrderCodeAllocator codeAllocator;
+    private final PricingService pricingService;
+    private final UserRepository userRepository;
+    private final ShippingMethodRepository shippingMethodRepository;
+    private final ProductRepository productRepository;
+    private final MaterialOptionRepository materialOptionRepository;
+    private final ColorRepository colorRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Fecha y numero de una orden, reservados antes de abrir su transaccion (ver OrderCodeAllocator)
+    public record OrderNumber(ZonedDateTime orderDate, long number) {
+    }
+
+    public OrderNumber reserveOrderNumber() {
+        return reserveOrderNumber(ZonedDateTime.now(Order.ZONE_CHILE));
+    }
+
+    private OrderNumber reserveOrderNumber(ZonedDateTime orderDate) {
+        return new OrderNumber(orderDate, codeAllocator.next(orderDate.getYear()));
+    }
+
+    // Crea la orden desde la solicitud del carrito (los precios salen del catalogo, no del cliente)
+    public OrderCreatedDTO placeOrder(OrderRequest request) {
+        OrderNumber number = reserveOrderNumber();
+        return transactionTemplate.execute(status -> placeOrder(request, number));
+    }
+
+    // Igual que placeOrder pero dentro de una transaccion ya abierta, con el numero ya reservado
+    // (la usa la Idempotency-Key para guardar la respuesta en la misma transaccion)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OrderCreatedDTO placeOrder(OrderRequest request, OrderNumber number) {
+        Order order = new Order();
+        order.setUser(userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new BusinessException("Usuario no encontrado", HttpStatus.NOT_FOUND)));
+        //el motor de precios valida productos, materiales y envio; aqui bastan referencias sin consulta
+        order.setShippingMethod(shippingMethodRepository.getReferenceById(request.getShippingMethodId()));
+        for (OrderItemRequest itemRequest : request.getItems()) {
+            //tambien se valida aqui: placeOrder puede llamarse sin pasar por @Valid del controlador
+            if (itemRequest.getQuantity() == null || itemRequest.getQuantity() < 1) {
+                throw new ValidationException("La cantidad debe ser al menos 1 (producto " + itemRequest.getProductId() + ")");
+            }
+            if (itemRequest.getColorOptionId() != null && !colorRepository.existsById(itemRequest.getColorOptionId())) {
+                throw new ValidationException("Color no encontrado: " + itemRequest.getColorOptionId());
+            }
+            OrderItem item = OrderItem.builder()
+                    .product(productRepository.getReferenceById(itemRequest.getProductId()))
+                    .materialOption(itemRequest.getMaterialOptionId() != null
+                            ? materialOptionRepository.getReferenceById(itemRequest.getMaterialOptionId()) : null)
+                    .colorOption(itemRequest.getColorOptionId() != null
+                            ? colorRepository.getReferenceById(itemRequest.getColorOptionId()) : null)
+                    .quantity(itemRequest.getQuantity())
+                    .build();
+            item.setOrder(order);
+            order.getItems().add(item);
+        }
+
+        Order saved = createOrder(order, number);
+        return OrderCreatedDTO.builder()
+                .id(saved.getId())
+                .code(saved.getCode())
+                .status(saved.getStatus())
+                .totalAmount(saved.getTotalAmount())
+                .orderDate(saved.getOrderDate())
+                .build();
+    }
 
     // Crear una nueva orden con correlativo reiniciado por año
     public Order createOrder(Order order) {
-        int year = order.getOrderDate().getYear();
-
-        // Número de órdenes existentes en el mismo año
-        long count = orderRepository.countOrdersByYear(year);
+        OrderNumber number = reserveOrderNumber(order.getOrderDate() != null
+                ? order.getOrderDate() : ZonedDateTime.now(Order.ZONE_CHILE));
+        return transactionTemplate.execute(status -> createOrder(order, number));
+    }
 
-        // El siguiente número para este año
-        int nextOrderNumber = (int) count + 1;
+    private Order createOrder(Order order, OrderNumber number) {
+        // La fecha es la de la reserva: el numero pertenece al correlativo de ese año
+        order.setOrderDate(number.orderDate());
+        if (order.getStatus() == null) {
+            order.setStatus(OrderStatus.PENDING);
+        }
 
-        // Generar el código único
-        order.generateCode(nextOrderNumber);
+        // Generar el código único (numero tomado del bloque reservado en order_code_sequences, sin COUNT por orden)
+        order.generateCode(number.number());
 
         // Calcular el total antes de guardar
         calculateTotalAmount(order);
 
-        // Guardar en la base
+        // Guardar en la base (el evento deja acumulados, indices y correo en el outbox)
+        order.markPlaced();
         return orderRepository.save(order);
     }
 
-    // Calcula el total de la orden
+    // Calcula el total de la orden con el catalogo de precios compilado (centavos, sin consultas)
+    // y fija el precio unitario de cada item
     public void calculateTotalAmount(Order order) {
-        BigDecimal itemsTotal = order.getItems().stream()
-                .map(item -> item.getPrice().multiply(new BigDecimal(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long totalCents = 0;
+        for (OrderItem item : order.getItems()) {
+            //un item sin producto o sin cantidad no se omite: dejaria una orden con items no cobrados
+            if (item.getProduct() == null) {
+                throw new ValidationException("Cada item debe tener un producto");
+            }
+            if (item.getQuantity() <= 0) {
+                throw new ValidationException("La cantidad debe ser mayor a 0 (producto " + item.getProduct().getId() + ")");
+            }
+            long lineCents = pricingService.lineTotalCents(item.getProduct().getId(),
+                    item.getMaterialOption() != null ? item.getMaterialOption().getId() : null,
+                    item.getQuantity());
+            item.setPrice(BigDecimal.valueOf((lineCents + item.getQuantity() / 2) / item.getQuantity(), 2));
+            item.setLineTotal(BigDecimal.valueOf(lineCents, 2));
+            totalCents = Math.addExact(totalCents, lineCents);
+        }
 
-        BigDecimal shippingCost = order.getShippingType() != null
-                ? order.getShippingType().getCost()
-                : BigDecimal.ZERO;
+        long shippingCents = pricingService.shippingCostCents(
+                order.getShippingMethod() != null ? order.getShippingMethod().getId() : null);
 
-        order.setTotalAmount(itemsTotal.add(shippingCost));
+        order.setTotalAmount(BigDecimal.valueOf(Math.addExact(totalCents, shippingCents), 2));
     }
 
     // Métodos auxiliares
@@ -55,10 +161,8 @@ public class OrderService {
         calculateTotalAmount(order);
     }
 
-    public void updateShippingType(Order order, ShippingType shippingType) {
-        order.setShippingType(shippingType);
+    public void updateShippingMethod(Order order, ShippingMethod shippingMethod) {
+        order.setShippingMethod(shippingMethod);
         calculateTotalAmount(order);
     }
-
- */
 }
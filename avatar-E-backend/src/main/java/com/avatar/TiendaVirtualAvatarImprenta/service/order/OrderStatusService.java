@@ -0,0 +1,16 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.BulkStatusChangeRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.BulkStatusChangeResultDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderStatusHistoryDTO;
+
+import java.util.List;
+
+//cambios de estado de ordenes desde administracion e historial de estados
+public interface OrderStatusService {
+
+    //valida las transiciones en memoria y aplica las validas con UPDATE por tramos de id, en una transaccion
+    BulkStatusChangeResultDTO changeStatusBulk(BulkStatusChangeRequest request);
+
+    List<OrderStatusHistoryDTO> getHistory(Long orderId);
+}
@@ -0,0 +1,200 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.BulkStatusChangeRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.BulkStatusChangeResultDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderStatusHistoryDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusBulkChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderStatusHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+//cambio de estado masivo sin cargar entidades Order:
+//- se bloquean y leen solo id, estado, dia y monto, por tramos de ids ordenados
+//- las transiciones se validan en memoria (OrderStatus.canTransitionTo)
+//- UPDATE por tramo y estado anterior, historial con un solo batch INSERT
+//- un evento con todos los cambios: los acumulados se ajustan una vez por bucket afectado
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatusServiceImpl implements OrderStatusService {
+
+    private static final String INSERT_HISTORY_SQL = """
+            INSERT INTO order_status_history (order_id, previous_status, new_status, changed_at, note)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusHistoryRepository historyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.orders.bulk-status.max-orders:5000}")
+    private int maxOrders;
+
+    //ids por sentencia (tramo contiguo de la lista ordenada)
+    @Value("${app.orders.bulk-status.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    @Transactional
+    public BulkStatusChangeResultDTO changeStatusBulk(BulkStatusChangeRequest request) {
+        long started = System.currentTimeMillis();
+        OrderStatus newStatus = request.getNewStatus();
+        List<Long> orderIds = new ArrayList<>(new TreeSet<>(request.getOrderIds().stream()
+                .filter(id -> id != null).toList()));
+        if (orderIds.isEmpty()) {
+            throw new ValidationException("Debe indicar al menos una orden");
+        }
+        if (orderIds.size() > maxOrders) {
+            throw new ValidationException("Se pueden cambiar hasta " + maxOrders + " ordenes por solicitud");
+        }
+
+        //lectura con bloqueo: entre la validacion y el UPDATE nadie mas cambia estas ordenes
+        Map<Long, StatusRow> rows = new HashMap<>(orderIds.size() * 2);
+        for (List<Long> chunk : chunks(orderIds)) {
+            long fromId = chunk.get(0);
+            long toId = chunk.get(chunk.size() - 1);
+            orderRepository.lockInRange(fromId, toId, chunk);
+            for (Object[] row : orderRepository.findStatusRowsInRange(fromId, toId, chunk)) {
+                StatusRow statusRow = new StatusRow((Long) row[0], (String) row[1], (OrderStatus) row[2],
+                        dayOf((LocalDate) row[3], (ZonedDateTime) row[4]),
+                        row[5] != null ? (BigDecimal) row[5] : BigDecimal.ZERO);
+                rows.put(statusRow.id(), statusRow);
+            }
+        }
+
+        List<StatusRow> accepted = new ArrayList<>();
+        List<BulkStatusChangeResultDTO.Rejected> rejected = new ArrayList<>();
+        int unchanged = 0;
+        for (Long orderId : orderIds) {
+            StatusRow row = rows.get(orderId);
+            if (row == null) {
+                rejected.add(new BulkStatusChangeResultDTO.Rejected(orderId, null, null, "Orden no encontrada"));
+            } else if (row.status() == newStatus) {
+                unchanged++;
+            } else if (row.status() == null || !row.status().canTransitionTo(newStatus)) {
+                rejected.add(new BulkStatusChangeResultDTO.Rejected(orderId, row.code(), row.status(),
+                        "No se puede pasar de " + row.status() + " a " + newStatus));
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            apply(accepted, newStatus, request.getNote());
+        }
+
+        log.info("Cambio de estado masivo a {}: {} actualizadas, {} sin cambio, {} rechazadas",
+                newStatus, accepted.size(), unchanged, rejected.size());
+        return BulkStatusChangeResultDTO.builder()
+                .newStatus(newStatus)
+                .requested(orderIds.size())
+                .updated(accepted.size())
+                .unchanged(unchanged)
+                .rejected(rejected)
+                .elapsedMs(System.currentTimeMillis() - started)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderStatusHistoryDTO> getHistory(Long orderId) {
+        if (!orderRepository.existsById(orderId)) {
+            throw new BusinessException("Orden no encontrada", HttpStatus.NOT_FOUND);
+        }
+        return historyRepository.findByOrderIdOrderByChangedAtAscIdAsc(orderId).stream()
+                .map(history -> OrderStatusHistoryDTO.builder()
+                        .previousStatus(history.getPreviousStatus())
+                        .newStatus(history.getNewStatus())
+                        .changedAt(history.getChangedAt())
+                        .note(history.getNote())
+                        .build())
+                .toList();
+    }
+
+    //cambio individual (Order.changeStatus): tambien queda en el historial, en la misma transaccion
+    @EventListener
+    @Transactional
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        jdbcTemplate.update(INSERT_HISTORY_SQL, event.order().getId(),
+                event.previousStatus() != null ? event.previousStatus().name() : null,
+                event.newStatus().name(), Timestamp.from(Instant.now()), null);
+    }
+
+    private void apply(List<StatusRow> accepted, OrderStatus newStatus, String note) {
+        //UPDATE por tramo y estado anterior; el estado en el WHERE debe coincidir con lo bloqueado
+        for (List<StatusRow> chunk : chunks(accepted)) {
+            Map<OrderStatus, List<Long>> byPrevious = new EnumMap<>(OrderStatus.class);
+            for (StatusRow row : chunk) {
+                byPrevious.computeIfAbsent(row.status(), s -> new ArrayList<>()).add(row.id());
+            }
+            long fromId = chunk.get(0).id();
+            long toId = chunk.get(chunk.size() - 1).id();
+            byPrevious.forEach((previous, ids) -> {
+                int updated = orderRepository.updateStatusInRange(fromId, toId, ids, previous, newStatus);
+                if (updated != ids.size()) {
+                    throw new BusinessException("Las ordenes cambiaron durante la actualizacion, intenta nuevamente",
+                            HttpStatus.CONFLICT);
+                }
+            });
+        }
+
+        //historial: un batch (con rewriteBatchedStatements viaja como un INSERT multi-fila)
+        Timestamp changedAt = Timestamp.from(Instant.now());
+        List<Object[]> history = new ArrayList<>(accepted.size());
+        List<OrderStatusBulkChangedEvent.Change> changes = new ArrayList<>(accepted.size());
+        for (StatusRow row : accepted) {
+            history.add(new Object[]{row.id(), row.status().name(), newStatus.name(), changedAt, note});
+            changes.add(new OrderStatusBulkChangedEvent.Change(row.id(), row.day(), row.totalAmount(), row.status(), newStatus));
+        }
+        jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, history);
+
+        //acumulados, histogramas y hechos por item en esta transaccion; cache y analitica despues del commit
+        eventPublisher.publishEvent(new OrderStatusBulkChangedEvent(changes));
+    }
+
+    //tramos contiguos de la lista ordenada por id
+    private <T> List<List<T>> chunks(List<T> sorted) {
+        int size = Math.max(1, chunkSize);
+        List<List<T>> chunks = new ArrayList<>((sorted.size() + size - 1) / size);
+        for (int from = 0; from < sorted.size(); from += size) {
+            chunks.add(sorted.subList(from, Math.min(sorted.size(), from + size)));
+        }
+        return chunks;
+    }
+
+    private static LocalDate dayOf(LocalDate orderDateLocal, ZonedDateTime orderDate) {
+        if (orderDateLocal != null) {
+            return orderDateLocal;
+        }
+        return orderDate != null ? Order.toLocalDay(orderDate) : LocalDate.now(Order.ZONE_CHILE);
+    }
+
+    private record StatusRow(Long id, String code, OrderStatus status, LocalDate day, BigDecimal totalAmount) {
+    }
+}
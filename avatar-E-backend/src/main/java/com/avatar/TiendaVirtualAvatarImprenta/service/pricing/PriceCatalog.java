@@ -0,0 +1,182 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.pricing;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+//reglas de precio compiladas e inmutables: todo en arreglos primitivos ordenados, precios en centavos.
+//Por producto (indice i de productIds):
+//- basePriceCents[i] y patternPricing[i]
+//- patrones de cantidad en tierQuantities/tierPriceCents[tierStart[i] .. tierStart[i + 1])
+//- recargos por material en materialIds/materialSurchargeCents[materialStart[i] .. materialStart[i + 1])
+//cada busqueda es binaria sobre long/int, sin boxing ni BigDecimal
+final class PriceCatalog {
+
+    static final long NOT_FOUND = -1;
+
+    private final long[] productIds;
+    private final long[] basePriceCents;
+    private final boolean[] patternPricing;
+    private final int[] tierStart;
+    private final int[] tierQuantities;
+    private final long[] tierPriceCents;
+    private final int[] materialStart;
+    private final long[] materialIds;
+    private final long[] materialSurchargeCents;
+    private final long[] shippingIds;
+    private final long[] shippingCostCents;
+    private final long version;
+
+    private PriceCatalog(long[] productIds, long[] basePriceCents, boolean[] patternPricing,
+                         int[] tierStart, int[] tierQuantities, long[] tierPriceCents,
+                         int[] materialStart, long[] materialIds, long[] materialSurchargeCents,
+                         long[] shippingIds, long[] shippingCostCents, long version) {
+        this.productIds = productIds;
+        this.basePriceCents = basePriceCents;
+        this.patternPricing = patternPricing;
+        this.tierStart = tierStart;
+        this.tierQuantities = tierQuantities;
+        this.tierPriceCents = tierPriceCents;
+        this.materialStart = materialStart;
+        this.materialIds = materialIds;
+        this.materialSurchargeCents = materialSurchargeCents;
+        this.shippingIds = shippingIds;
+        this.shippingCostCents = shippingCostCents;
+        this.version = version;
+    }
+
+    //indice del producto o -1
+    int productIndex(long productId) {
+        int index = Arrays.binarySearch(productIds, productId);
+        return index >= 0 ? index : -1;
+    }
+
+    long basePriceCents(int product) {
+        return basePriceCents[product];
+    }
+
+    boolean isPatternPricing(int product) {
+        return patternPricing[product];
+    }
+
+    //precio del patron con esa cantidad exacta, o NOT_FOUND
+    long tierPriceCents(int product, int quantity) {
+        int index = Arrays.binarySearch(tierQuantities, tierStart[product], tierStart[product + 1], quantity);
+        return index >= 0 ? tierPriceCents[index] : NOT_FOUND;
+    }
+
+    //cantidades validas del producto (solo para mensajes de error)
+    int[] tierQuantities(int product) {
+        return Arrays.copyOfRange(tierQuantities, tierStart[product], tierStart[product + 1]);
+    }
+
+    //recargo unitario del material para el producto, o NOT_FOUND si el producto no lo ofrece
+    long materialSurchargeCents(int product, long materialId) {
+        int index = Arrays.binarySearch(materialIds, materialStart[product], materialStart[product + 1], materialId);
+        return index >= 0 ? materialSurchargeCents[index] : NOT_FOUND;
+    }
+
+    long shippingCostCents(long shippingMethodId) {
+        int index = Arrays.binarySearch(shippingIds, shippingMethodId);
+        return index >= 0 ? shippingCostCents[index] : NOT_FOUND;
+    }
+
+    int productCount() {
+        return productIds.length;
+    }
+
+    int tierCount() {
+        return tierQuantities.length;
+    }
+
+    int materialCount() {
+        return materialIds.length;
+    }
+
+    long version() {
+        return version;
+    }
+
+    //se llena desde las filas del catalogo en cualquier orden y se aplana en build()
+    static final class Builder {
+
+        private final Map<Long, ProductRules> products = new TreeMap<>();
+        private final Map<Long, Long> shipping = new TreeMap<>();
+
+        Builder product(long productId, long basePriceCents, boolean patternPricing) {
+            ProductRules rules = products.computeIfAbsent(productId, id -> new ProductRules());
+            rules.basePriceCents = basePriceCents;
+            rules.patternPricing = patternPricing;
+            rules.known = true;
+            return this;
+        }
+
+        Builder tier(long productId, int quantity, long priceCents) {
+            products.computeIfAbsent(productId, id -> new ProductRules()).tiers.put(quantity, priceCents);
+            return this;
+        }
+
+        Builder material(long productId, long materialId, long surchargeCents) {
+            products.computeIfAbsent(productId, id -> new ProductRules()).materials.put(materialId, surchargeCents);
+            return this;
+        }
+
+        Builder shipping(long shippingMethodId, long costCents) {
+            shipping.put(shippingMethodId, costCents);
+            return this;
+        }
+
+        PriceCatalog build(long version) {
+            //patrones o materiales de un producto que no vino en la lista de productos se descartan
+            products.values().removeIf(rules -> !rules.known);
+            int count = products.size();
+            long[] productIds = new long[count];
+            long[] basePrices = new long[count];
+            boolean[] pattern = new boolean[count];
+            int[] tierStart = new int[count + 1];
+            int[] materialStart = new int[count + 1];
+            int tiers = products.values().stream().mapToInt(rules -> rules.tiers.size()).sum();
+            int materials = products.values().stream().mapToInt(rules -> rules.materials.size()).sum();
+            int[] tierQuantities = new int[tiers];
+            long[] tierPrices = new long[tiers];
+            long[] materialIds = new long[materials];
+            long[] surcharges = new long[materials];
+
+            int i = 0;
+            int tier = 0;
+            int material = 0;
+            for (Map.Entry<Long, ProductRules> entry : products.entrySet()) {
+                ProductRules rules = entry.getValue();
+                productIds[i] = entry.getKey();
+                basePrices[i] = rules.basePriceCents;
+                pattern[i] = rules.patternPricing;
+                tierStart[i] = tier;
+                for (Map.Entry<Integer, Long> t : rules.tiers.entrySet()) {
+                    tierQuantities[tier] = t.getKey();
+                    tierPrices[tier++] = t.getValue();
+                }
+                materialStart[i] = material;
+                for (Map.Entry<Long, Long> m : rules.materials.entrySet()) {
+                    materialIds[material] = m.getKey();
+                    surcharges[material++] = m.getValue();
+                }
+                i++;
+            }
+            tierStart[count] = tier;
+            materialStart[count] = material;
+
+            long[] shippingIds = shipping.keySet().stream().mapToLong(Long::longValue).toArray();
+            long[] shippingCosts = shipping.values().stream().mapToLong(Long::longValue).toArray();
+            return new PriceCatalog(productIds, basePrices, pattern, tierStart, tierQuantities, tierPrices,
+                    materialStart, materialIds, surcharges, shippingIds, shippingCosts, version);
+        }
+    }
+
+    private static final class ProductRules {
+        private boolean known;
+        private long basePriceCents;
+        private boolean patternPricing;
+        private final TreeMap<Integer, Long> tiers = new TreeMap<>();
+        private final TreeMap<Long, Long> materials = new TreeMap<>();
+    }
+}
@@ -0,0 +1,23 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.pricing;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.PriceQuoteDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.PriceQuoteRequest;
+
+import java.util.Map;
+
+//precios de carrito y ordenes desde el catalogo compilado en memoria (sin consultas por cotizacion)
+public interface PricingService {
+
+    PriceQuoteDTO quote(PriceQuoteRequest request);
+
+    //total de una linea en centavos: precio base o del patron de cantidad + recargo del material
+    long lineTotalCents(long productId, Long materialOptionId, int quantity);
+
+    //costo del metodo de envio en centavos (0 si no se indica)
+    long shippingCostCents(Long shippingMethodId);
+
+    //recompila el catalogo desde la base y lo reemplaza de una vez
+    void rebuild();
+
+    Map<String, Object> stats();
+}
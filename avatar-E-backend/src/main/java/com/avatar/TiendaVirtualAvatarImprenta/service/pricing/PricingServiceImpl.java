@@ -0,0 +1,208 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.pricing;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.OrderItemRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.PriceQuoteDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.order.PriceQuoteRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.ShippingMethod;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.CommercializationType;
+import com.avatar.TiendaVirtualAvatarImprenta.event.product.CatalogChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.ShippingMethodRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.product.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+//el catalogo compilado se reemplaza completo (AtomicReference): una cotizacion ve la version anterior
+//o la nueva, nunca una mezcla. Cambios en productos, materiales, patrones o envios lo recompilan al commit
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PricingServiceImpl implements PricingService {
+
+    private final ProductRepository productRepository;
+    private final ShippingMethodRepository shippingMethodRepository;
+
+    private final AtomicReference<PriceCatalog> catalog = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    //varios cambios seguidos (ej. guardar un producto con sus patrones) se juntan en una recompilacion
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (rebuildPending.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("price-catalog-rebuild").start(() -> {
+                //se baja antes de leer: un cambio confirmado durante la recompilacion pide otra
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("No se pudo recompilar el catalogo de precios: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    @Override
+    public PriceQuoteDTO quote(PriceQuoteRequest request) {
+        PriceCatalog current = current();
+        List<PriceQuoteDTO.Line> lines = new ArrayList<>(request.getItems().size());
+        long subtotal = 0;
+        for (OrderItemRequest item : request.getItems()) {
+            int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+            long line = lineTotalCents(current, item.getProductId(), item.getMaterialOptionId(), quantity);
+            subtotal = Math.addExact(subtotal, line);
+            lines.add(new PriceQuoteDTO.Line(item.getProductId(), item.getMaterialOptionId(), quantity,
+                    toAmount(unitCents(line, quantity)), toAmount(line)));
+        }
+        long shipping = shippingCostCents(current, request.getShippingMethodId());
+        return PriceQuoteDTO.builder()
+                .lines(lines)
+                .subtotal(toAmount(subtotal))
+                .shippingCost(toAmount(shipping))
+                .total(toAmount(Math.addExact(subtotal, shipping)))
+                .catalogVersion(current.version())
+                .build();
+    }
+
+    @Override
+    public long lineTotalCents(long productId, Long materialOptionId, int quantity) {
+        return lineTotalCents(current(), productId, materialOptionId, quantity);
+    }
+
+    @Override
+    public long shippingCostCents(Long shippingMethodId) {
+        return shippingCostCents(current(), shippingMethodId);
+    }
+
+    @Override
+    public void rebuild() {
+        //lock y no synchronized: la recompilacion corre en un hilo virtual y hace JDBC
+        rebuildLock.lock();
+        try {
+            catalog.set(compile());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private PriceCatalog compile() {
+        PriceCatalog.Builder builder = new PriceCatalog.Builder();
+        for (Object[] row : productRepository.findPriceRows()) {
+            builder.product(((Number) row[0]).longValue(), toCents((BigDecimal) row[1]),
+                    row[2] == CommercializationType.COMMERCIAL_PATTERN);
+        }
+        for (Object[] row : productRepository.findQuantityTierRows()) {
+            builder.tier(((Number) row[0]).longValue(), ((Number) row[1]).intValue(), toCents((BigDecimal) row[2]));
+        }
+        for (Object[] row : productRepository.findMaterialSurchargeRows()) {
+            builder.material(((Number) row[0]).longValue(), ((Number) row[1]).longValue(), toCents((BigDecimal) row[2]));
+        }
+        for (ShippingMethod method : shippingMethodRepository.findAll()) {
+            builder.shipping(method.getId(), toCents(method.getCost()));
+        }
+        PriceCatalog compiled = builder.build(versions.incrementAndGet());
+        log.info("Catalogo de precios compilado (v{}): {} productos, {} patrones, {} recargos de material",
+                compiled.version(), compiled.productCount(), compiled.tierCount(), compiled.materialCount());
+        return compiled;
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        PriceCatalog current = catalog.get();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("version", current != null ? current.version() : 0);
+        result.put("products", current != null ? current.productCount() : 0);
+        result.put("quantityTiers", current != null ? current.tierCount() : 0);
+        result.put("materialSurcharges", current != null ? current.materialCount() : 0);
+        result.put("rebuildPending", rebuildPending.get());
+        return result;
+    }
+
+    //antes de ApplicationReady (o si fallo la primera compilacion) se compila al primer uso
+    private PriceCatalog current() {
+        PriceCatalog current = catalog.get();
+        if (current == null) {
+            rebuild();
+            current = catalog.get();
+        }
+        return current;
+    }
+
+    private long lineTotalCents(PriceCatalog current, Long productId, Long materialOptionId, int quantity) {
+        if (productId == null) {
+            throw new ValidationException("El producto es requerido");
+        }
+        if (quantity < 1) {
+            throw new ValidationException("La cantidad debe ser al menos 1");
+        }
+        int product = current.productIndex(productId);
+        if (product < 0) {
+            throw new ValidationException("Producto no encontrado: " + productId);
+        }
+
+        long surcharge = 0;
+        if (materialOptionId != null) {
+            surcharge = current.materialSurchargeCents(product, materialOptionId);
+            if (surcharge == PriceCatalog.NOT_FOUND) {
+                throw new ValidationException("El producto " + productId + " no se ofrece en el material " + materialOptionId);
+            }
+        }
+
+        if (current.isPatternPricing(product)) {
+            long patternPrice = current.tierPriceCents(product, quantity);
+            if (patternPrice == PriceCatalog.NOT_FOUND) {
+                throw new ValidationException("El producto " + productId + " solo se vende en cantidades "
+                        + Arrays.toString(current.tierQuantities(product)));
+            }
+            return Math.addExact(patternPrice, Math.multiplyExact(surcharge, quantity));
+        }
+        return Math.multiplyExact(Math.addExact(current.basePriceCents(product), surcharge), quantity);
+    }
+
+    private long shippingCostCents(PriceCatalog current, Long shippingMethodId) {
+        if (shippingMethodId == null) {
+            return 0;
+        }
+        long cost = current.shippingCostCents(shippingMethodId);
+        if (cost == PriceCatalog.NOT_FOUND) {
+            throw new ValidationException("Metodo de envio no encontrado: " + shippingMethodId);
+        }
+        return cost;
+    }
+
+    //precio unitario redondeado al centavo (en patrones el total no siempre es divisible)
+    static long unitCents(long lineCents, int quantity) {
+        return (lineCents + quantity / 2) / quantity;
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0;
+    }
+
+    static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
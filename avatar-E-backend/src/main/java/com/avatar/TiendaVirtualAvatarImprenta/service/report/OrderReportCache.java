@@ -0,0 +1,162 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusBulkChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+//cache en memoria de OrderReportService.getReport
+//- rangos que terminan antes de hoy (hora Chile) no vencen: solo se invalidan por eventos
+//- rangos abiertos vencen a los ttl
+//- una orden creada o con cambio de estado invalida solo las entradas cuyo rango cubre su dia
+@Slf4j
+@Component
+public class OrderReportCache {
+
+    @Value("${app.reports.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reports.cache.max-size:500}")
+    private long maxSize;
+
+    @Value("${app.reports.cache.ttl:PT5M}")
+    private Duration ttl;
+
+    private Cache<Key, Page<?>> cache;
+
+    //cada invalidacion incrementa la generacion: un calculo que empezo antes no se guarda
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Key, Page<?>>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Page<?> value, long currentTime) {
+                        return key.isClosed() ? Long.MAX_VALUE : ttl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Page<?> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Page<?> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public Page<?> get(ReportType reportType, ZonedDateTime startDate, ZonedDateTime endDate, OrderStatus status,
+                       String searchText, Pageable pageable, Supplier<Page<?>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(reportType, startDate.toInstant(), endDate.toInstant(),
+                Order.toLocalDay(startDate), Order.toLocalDay(endDate), status,
+                searchText != null ? searchText.trim().toLowerCase(Locale.ROOT) : null, pageable);
+        Page<?> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        //la consulta corre fuera del cache para no bloquear otras claves
+        long startGeneration = generation.get();
+        Page<?> page = loader.get();
+        //la comparacion y el guardado son atomicos para la clave: una invalidacion sube la generacion
+        //antes de borrar, asi que o se ve aqui o su borrado llega despues de este compute
+        cache.asMap().compute(key, (k, current) -> startGeneration == generation.get() ? page : current);
+        return page;
+    }
+
+    //los acumulados de la orden nueva llegan despues desde el outbox, que vuelve a invalidar el dia
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        invalidateDay(dayOf(event.order()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        invalidateDay(dayOf(event.order()));
+    }
+
+    //cambio masivo: se invalida una vez por dia distinto
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusBulkChanged(OrderStatusBulkChangedEvent event) {
+        Set<LocalDate> days = new TreeSet<>();
+        event.changes().forEach(change -> days.add(change.day()));
+        if (days.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> days.stream().anyMatch(key::covers));
+    }
+
+    public void invalidateDay(LocalDate day) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.covers(day));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    private static LocalDate dayOf(Order order) {
+        return order.getOrderDateLocal() != null ? order.getOrderDateLocal() : Order.toLocalDay(order.getOrderDate());
+    }
+
+    private record Key(ReportType reportType, Instant start, Instant end, LocalDate startDay, LocalDate endDay,
+                       OrderStatus status, String searchText, Pageable pageable) {
+
+        //el rango ya no puede recibir ordenes nuevas
+        boolean isClosed() {
+            return endDay.isBefore(Order.toLocalDay(ZonedDateTime.now()));
+        }
+
+        boolean covers(LocalDate day) {
+            return !day.isBefore(startDay) && !day.isAfter(endDay);
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.avatar.TiendaVirtualAvatarImprenta.service.report;
 
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.CursorPageDTO;
 import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderDetailDTO;
 import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderItemDTO;
 import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderStatusPivotDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.CountMode;
 import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
 import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
 
 public interface OrderReportService {
     //genera un reporte segun el tipo solicitado(diario, mensual, anual, todos)
@@ -21,5 +27,25 @@ public interface OrderReportService {
             Pageable pageable
     );
 
+    //DAILY/MONTHLY/YEARLY con cantidad y monto de cada estado lado a lado, mas una fila de totales
+    OrderStatusPivotDTO getStatusPivot(ReportType reportType, ZonedDateTime startDate, ZonedDateTime endDate);
+
+    //llamadas a getReport que esperaron una consulta identica en curso en vez de ir a la base
+    Map<String, Object> getCoalescingStats();
+
+    //listado ALL paginado por cursor (orderDate, id) descendente
+    CursorPageDTO<OrderSummaryDTO> getOrdersByCursor(
+            ZonedDateTime startDate,
+            ZonedDateTime endDate,
+            OrderStatus status,
+            String searchText,
+            String cursor,
+            int size,
+            CountMode countMode
+    );
+
     OrderDetailDTO getOrderDetail(Long orderId);
+
+    //detalle de varias ordenes (vista "expandir todo" del listado)
+    List<OrderDetailDTO> getOrderDetails(List<Long> orderIds);
 }
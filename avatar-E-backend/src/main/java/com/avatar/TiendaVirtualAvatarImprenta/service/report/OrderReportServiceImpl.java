@@ -1,49 +1,112 @@
 package com.avatar.TiendaVirtualAvatarImprenta.service.report;
 
+import com.avatar.TiendaVirtualAvatarImprenta.common.PeriodLabels;
+import com.avatar.TiendaVirtualAvatarImprenta.common.SingleFlight;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.CursorPageDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderCursor;
 import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderDetailDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderDetailRow;
 import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderItemDTO;
 import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSearchCriteria;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderStatusPivotDTO;
 import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.PeriodAggregate;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.StatusPivotRow;
 import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.CountMode;
 import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
 import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
 import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderSearchIndexService;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderReportServiceImpl implements OrderReportService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 200;
+    private static final int MAX_DETAIL_BATCH = 100;
+    private static final String TOTAL_PERIOD = "TOTAL";
+
     private final OrderRepository orderRepository;
+    private final OrderSalesRollupService rollupService;
+    private final OrderSearchIndexService searchIndexService;
+    private final OrderReportCache reportCache;
+
+    //DAILY/MONTHLY/YEARLY se responden desde los acumulados (false = GROUP BY sobre orders)
+    @Value("${app.reports.rollups.enabled:true}")
+    private boolean rollupsEnabled;
+
+    //peticiones identicas simultaneas (ej. varios admins abriendo el MONTHLY al cierre de mes)
+    //comparten una sola consulta en vez de lanzar cada una el mismo agregado y count
+    @Value("${app.reports.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+
+    private final SingleFlight<FlightKey, Page<?>> inFlightReports = new SingleFlight<>();
 
     @Override
     public Page<?> getReport(ReportType reportType, ZonedDateTime startDate, ZonedDateTime endDate, OrderStatus status, String searchText,Pageable pageable) {
-        //si viene vacio tratalo como null
-        if(searchText != null && searchText.trim().isEmpty()){
-            searchText = null;
+        //si viene vacio tratalo como null; se normaliza una vez: el mismo texto va a la clave del cache,
+        //a la de las consultas en curso y a la consulta (la busqueda no distingue mayusculas)
+        String text = searchText == null || searchText.isBlank() ? null : searchText.trim().toLowerCase(Locale.ROOT);
+        return reportCache.get(reportType, startDate, endDate, status, text, pageable,
+                () -> coalesce(reportType, startDate, endDate, status, text, pageable));
+    }
+
+    @Override
+    public Map<String, Object> getCoalescingStats() {
+        Map<String, Object> stats = inFlightReports.stats();
+        stats.put("enabled", coalescingEnabled);
+        return stats;
+    }
+
+    private Page<?> coalesce(ReportType reportType, ZonedDateTime startDate, ZonedDateTime endDate, OrderStatus status, String searchText,Pageable pageable) {
+        if (!coalescingEnabled) {
+            return computeReport(reportType, startDate, endDate, status, searchText, pageable);
+        }
+        return inFlightReports.execute(FlightKey.of(reportType, startDate, endDate, status, searchText, pageable),
+                () -> computeReport(reportType, startDate, endDate, status, searchText, pageable));
+    }
+
+    private Page<?> computeReport(ReportType reportType, ZonedDateTime startDate, ZonedDateTime endDate, OrderStatus status, String searchText,Pageable pageable) {
+        if (rollupsEnabled && reportType != ReportType.ALL) {
+            List<OrderReportDTO> rows = rollupService.getReport(
+                    reportType, toChileDay(startDate), toChileDay(endDate), status);
+            return toPage(rows, pageable);
         }
         return switch (reportType){
             case DAILY ->{
-                Page<Object[]> result = orderRepository.getDailyReport(startDate,endDate,status,pageable);
+                Page<PeriodAggregate> result = orderRepository.getDailyReport(toChileDay(startDate),toChileDay(endDate),status,pageable);
                 yield result.map(this::mapDailyRow);
             }
-            case ALL -> orderRepository.getOrdersInRange(startDate,endDate,status,searchText,pageable);
+            case ALL -> findOrdersInRange(startDate,endDate,status,searchText,pageable);
             case MONTHLY -> {
-                Page<Object[]> result = orderRepository.getMonthlyReport(startDate,endDate,status,pageable);
+                Page<PeriodAggregate> result = orderRepository.getMonthlyReport(toChileDay(startDate),toChileDay(endDate),status,pageable);
                 yield result.map(this::mapMonthlyRow);
             }
             case YEARLY -> {
-                Page<Object[]> result = orderRepository.getYearlyReport(startDate,endDate,status,pageable);
+                Page<PeriodAggregate> result = orderRepository.getYearlyReport(toChileDay(startDate),toChileDay(endDate),status,pageable);
                 yield result.map(this:: mapYearlyRow);
             }
 
@@ -54,69 +117,200 @@ public class OrderReportServiceImpl implements OrderReportService {
     }
 
     @Override
-    public OrderDetailDTO getOrderDetail(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Orden no encontrada"));
-
-        List<OrderItemDTO> items = orderRepository.findItemsByOrderId(orderId);
-        return OrderDetailDTO.builder()
-                .id(order.getId())
-                .code(order.getCode())
-                .email(order.getUser().getEmail())
-                .status(order.getStatus())
-                .totalAmount(order.getTotalAmount())
-                .items(items)
+    @Transactional(readOnly = true)
+    public OrderStatusPivotDTO getStatusPivot(ReportType reportType, ZonedDateTime startDate, ZonedDateTime endDate) {
+        if (reportType == ReportType.ALL) {
+            throw new ValidationException("El reporte por estados requiere DAILY, MONTHLY o YEARLY");
+        }
+        LocalDate startDay = toChileDay(startDate);
+        LocalDate endDay = toChileDay(endDate);
+        if (rollupsEnabled) {
+            return rollupService.getStatusPivot(reportType, startDay, endDay);
+        }
+
+        //una sola consulta por dia con los seis estados; los dias se suman al mes o año del reporte
+        Map<String, OrderStatusPivotDTO.Row> periods = new LinkedHashMap<>();
+        OrderStatusPivotDTO.Row totals = new OrderStatusPivotDTO.Row(TOTAL_PERIOD);
+        for (StatusPivotRow row : orderRepository.getStatusPivotByDay(startDay, endDay)) {
+            OrderStatusPivotDTO.Row period = periods.computeIfAbsent(PeriodLabels.of(reportType, row.day()), OrderStatusPivotDTO.Row::new);
+            for (OrderStatus status : OrderStatus.values()) {
+                long count = row.count(status);
+                if (count > 0) {
+                    period.add(status, count, row.amount(status));
+                    totals.add(status, count, row.amount(status));
+                }
+            }
+        }
+        return OrderStatusPivotDTO.builder().rows(new ArrayList<>(periods.values())).totals(totals).build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderSummaryDTO> getOrdersByCursor(ZonedDateTime startDate, ZonedDateTime endDate, OrderStatus status,
+                                                            String searchText, String cursor, int size, CountMode countMode) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new ValidationException("El tamaño de pagina debe estar entre 1 y " + MAX_CURSOR_PAGE_SIZE);
+        }
+        OrderCursor after = cursor != null && !cursor.isBlank() ? OrderCursor.decode(cursor) : null;
+        OrderSearchCriteria criteria = searchIndexService.resolve(searchText);
+
+        //codigo exacto: a lo sumo una fila, sin pagina siguiente
+        if (criteria.exactCode() != null) {
+            List<OrderSummaryDTO> match = after != null ? List.of()
+                    : orderRepository.findSummaryByCode(criteria.exactCode(), startDate, endDate, status).stream().toList();
+            return CursorPageDTO.<OrderSummaryDTO>builder()
+                    .content(match)
+                    .size(match.size())
+                    .hasNext(false)
+                    .totalElements(after == null && countMode != CountMode.NONE ? (long) match.size() : null)
+                    .totalExact(after == null && countMode != CountMode.NONE ? true : null)
+                    .build();
+        }
+
+        //se pide una fila extra para saber si hay pagina siguiente
+        List<OrderSummaryDTO> rows = orderRepository.seekOrdersInRange(
+                startDate, endDate, status,
+                criteria.text(), criteria.statusParam(), criteria.statusCount(), criteria.tokenParam(), criteria.tokenCount(),
+                after != null ? after.orderDateInChile() : null,
+                after != null ? after.id() : null,
+                Limit.of(size + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<OrderSummaryDTO> content = hasNext ? rows.subList(0, size) : rows;
+
+        CursorPageDTO<OrderSummaryDTO> page = CursorPageDTO.<OrderSummaryDTO>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? OrderCursor.of(content.get(content.size() - 1)).encode() : null)
                 .build();
 
+        //el total solo se calcula en la primera pagina, asi cada pagina siguiente cuesta lo mismo
+        if (after == null) {
+            switch (countMode) {
+                case EXACT -> {
+                    page.setTotalElements(orderRepository.countOrdersInRange(startDate, endDate, status,
+                            criteria.text(), criteria.statusParam(), criteria.statusCount(), criteria.tokenParam(), criteria.tokenCount()));
+                    page.setTotalExact(true);
+                }
+                case APPROXIMATE -> {
+                    //los acumulados no conocen searchText: en ese caso no hay aproximacion
+                    if (criteria.text() == null) {
+                        page.setTotalElements(rollupService.countOrders(toChileDay(startDate), toChileDay(endDate), status));
+                        page.setTotalExact(false);
+                    }
+                }
+                default -> { }
+            }
+        }
+        return page;
     }
 
-    private OrderReportDTO mapDailyRow(Object[] row) {
-        Number year = (Number) row[0];
-        Number month = (Number) row[1];
-        Number day = (Number) row[2];
-        Number count = (Number) row[3];
-        BigDecimal sum = (BigDecimal) row[4];
+    @Override
+    public OrderDetailDTO getOrderDetail(Long orderId) {
+        List<OrderDetailDTO> details = toDetails(orderRepository.findDetailRows(List.of(orderId)));
+        if (details.isEmpty()) {
+            throw new RuntimeException("Orden no encontrada");
+        }
+        return details.get(0);
+    }
 
-        String period = String.format("%d-%02d-%02d",
-                year != null ? year.intValue() : 0,
-                month != null ? month.intValue() : 0,
-                day != null ? day.intValue() : 0
-        );
+    @Override
+    public List<OrderDetailDTO> getOrderDetails(List<Long> orderIds) {
+        List<Long> ids = orderIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > MAX_DETAIL_BATCH) {
+            throw new ValidationException("Se pueden pedir como maximo " + MAX_DETAIL_BATCH + " ordenes a la vez");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        //se respeta el orden pedido; los ids inexistentes se omiten
+        Map<Long, OrderDetailDTO> byId = toDetails(orderRepository.findDetailRows(ids)).stream()
+                .collect(Collectors.toMap(OrderDetailDTO::getId, detail -> detail));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
 
-        long totalOrders = count != null ? count.longValue() : 0L;
-        BigDecimal totalAmount = sum != null ? sum : BigDecimal.ZERO;
-        return new OrderReportDTO(period,totalOrders,totalAmount);
+    //agrupa las filas planas (ordenadas por orden e item) en un detalle por orden
+    private List<OrderDetailDTO> toDetails(List<OrderDetailRow> rows) {
+        List<OrderDetailDTO> details = new ArrayList<>();
+        OrderDetailDTO current = null;
+        for (OrderDetailRow row : rows) {
+            if (current == null || !current.getId().equals(row.orderId())) {
+                current = OrderDetailDTO.builder()
+                        .id(row.orderId())
+                        .code(row.code())
+                        .email(row.email())
+                        .status(row.status())
+                        .totalAmount(row.totalAmount())
+                        .shippingMethod(row.shippingMethod())
+                        .items(new ArrayList<>())
+                        .build();
+                details.add(current);
+            }
+            if (row.productName() != null) {
+                current.getItems().add(new OrderItemDTO(row.productName(), row.quantity(), row.price(),
+                        row.materialName(), row.colorName()));
+            }
+        }
+        return details;
     }
 
-    //mapear para MONTHLY
-    private OrderReportDTO mapMonthlyRow(Object[] row){
-        Number year  = (Number) row[0];
-        Number month = (Number) row[1];
-        Number count = (Number) row[2];
-        BigDecimal sum = (BigDecimal) row[3];
+    //listado ALL: codigo exacto por el indice unico, el resto por el indice de trigramas
+    private Page<OrderSummaryDTO> findOrdersInRange(ZonedDateTime startDate, ZonedDateTime endDate, OrderStatus status,
+                                                    String searchText, Pageable pageable) {
+        OrderSearchCriteria criteria = searchIndexService.resolve(searchText);
+        if (criteria.exactCode() != null) {
+            List<OrderSummaryDTO> match = orderRepository
+                    .findSummaryByCode(criteria.exactCode(), startDate, endDate, status).stream().toList();
+            return toPage(match, pageable);
+        }
+        return orderRepository.getOrdersInRange(startDate, endDate, status,
+                criteria.text(), criteria.statusParam(), criteria.statusCount(), criteria.tokenParam(), criteria.tokenCount(), pageable);
+    }
 
-        String period = String.format("%d-%02d",
-                year != null ? year.intValue() :0,
-                month != null ? month.intValue(): 0
-                );
+    //los reportes agrupados son por dia: el rango se toma por dias completos en hora de Chile
+    private LocalDate toChileDay(ZonedDateTime dateTime) {
+        return Order.toLocalDay(dateTime);
+    }
 
-        long totalOrders = count != null ? count.longValue(): 0L;
-        BigDecimal totalAmount = sum != null ? sum : BigDecimal.ZERO;
+    //pagina una lista ya calculada en memoria
+    private <T> Page<T> toPage(List<T> rows, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(rows, pageable, rows.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), rows.size());
+        int to = Math.min(from + pageable.getPageSize(), rows.size());
+        return new PageImpl<>(rows.subList(from, to), pageable, rows.size());
+    }
 
-        return new OrderReportDTO(period,totalOrders,totalAmount);
+    //la etiqueta sale del cache de PeriodLabels: sin String.format ni casts por fila
+    private OrderReportDTO mapDailyRow(PeriodAggregate row) {
+        return new OrderReportDTO(PeriodLabels.day(row.year(), row.month(), row.day()), row.orderCount(), row.totalAmount());
     }
 
-    private OrderReportDTO mapYearlyRow(Object[] row){
-        Number year = (Number) row[0];
-        Number count = (Number) row[1];
-        BigDecimal sum = (BigDecimal) row[2];
+    private OrderReportDTO mapMonthlyRow(PeriodAggregate row) {
+        return new OrderReportDTO(PeriodLabels.month(row.year(), row.month()), row.orderCount(), row.totalAmount());
+    }
 
-        String period = year != null ? year.toString() : "0";
-        long totalOrders = count != null ? count.longValue() : 0L;
-        BigDecimal totalAmount = sum != null ? sum : BigDecimal.ZERO;
+    private OrderReportDTO mapYearlyRow(PeriodAggregate row) {
+        return new OrderReportDTO(PeriodLabels.year(row.year()), row.orderCount(), row.totalAmount());
+    }
 
-        return new OrderReportDTO(period,totalOrders,totalAmount);
+    //parametros normalizados: los agrupados solo dependen de los dias (hora Chile), asi
+    //dos rangos con distinta hora pero los mismos dias comparten la consulta; ALL usa el instante exacto
+    private record FlightKey(ReportType reportType, Instant start, Instant end, LocalDate startDay, LocalDate endDay,
+                             OrderStatus status, String searchText, Pageable pageable) {
 
+        static FlightKey of(ReportType reportType, ZonedDateTime startDate, ZonedDateTime endDate, OrderStatus status,
+                            String searchText, Pageable pageable) {
+            boolean byInstant = reportType == ReportType.ALL;
+            return new FlightKey(reportType,
+                    byInstant ? startDate.toInstant() : null,
+                    byInstant ? endDate.toInstant() : null,
+                    Order.toLocalDay(startDate), Order.toLocalDay(endDate), status,
+                    byInstant ? searchText : null,
+                    pageable);
+        }
     }
 
 
@@ -0,0 +1,29 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderStatusPivotDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+//acumulados de ventas (diario, mensual, anual) por estado
+public interface OrderSalesRollupService {
+
+    //aplica un delta (puede ser negativo) a los tres niveles de acumulado
+    void applyDelta(LocalDate day, OrderStatus status, long orderCount, BigDecimal totalAmount);
+
+    //reporte por periodo combinando acumulados anuales, mensuales y diarios (rango de dias inclusivo)
+    List<OrderReportDTO> getReport(ReportType reportType, LocalDate startDay, LocalDate endDay, OrderStatus status);
+
+    //todos los estados lado a lado por periodo, con fila de totales (rango de dias inclusivo)
+    OrderStatusPivotDTO getStatusPivot(ReportType reportType, LocalDate startDay, LocalDate endDay);
+
+    //total de ordenes en el rango de dias (inclusivo) usando los acumulados mas gruesos
+    long countOrders(LocalDate startDay, LocalDate endDay, OrderStatus status);
+
+    //borra y recalcula todos los acumulados desde la tabla orders
+    void rebuild();
+}
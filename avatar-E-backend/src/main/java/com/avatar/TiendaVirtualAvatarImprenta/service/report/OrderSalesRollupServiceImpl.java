@@ -0,0 +1,334 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.common.PeriodLabels;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderStatusPivotDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.report.OrderSalesDaily;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.report.OrderSalesMonthly;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.report.OrderSalesYearly;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedPayload;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusBulkChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.report.OrderSalesDailyRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.report.OrderSalesMonthlyRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.report.OrderSalesYearlyRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderPlacedHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderSalesRollupServiceImpl implements OrderSalesRollupService, OrderPlacedHandler {
+
+    private static final String TOTAL_PERIOD = "TOTAL";
+
+    private final OrderSalesDailyRepository dailyRepository;
+    private final OrderSalesMonthlyRepository monthlyRepository;
+    private final OrderSalesYearlyRepository yearlyRepository;
+    private final OrderRepository orderRepository;
+    private final ReportRebuildGuard rebuildGuard;
+
+    @Override
+    public String handlerName() {
+        return "sales-rollup";
+    }
+
+    //nueva orden (desde el outbox): +1 en el estado inicial
+    @Override
+    @Transactional
+    public void onOrderPlaced(OrderPlacedPayload payload) {
+        applyDelta(payload.day(), payload.status(), 1, payload.totalAmount());
+    }
+
+    //cambio de estado: se mueve la orden del acumulado del estado anterior al nuevo
+    @EventListener
+    @Transactional
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Order order = event.order();
+        LocalDate day = toBucketDay(order);
+        BigDecimal amount = amountOf(order);
+        if (event.previousStatus() != null) {
+            applyDelta(day, event.previousStatus(), -1, amount.negate());
+        }
+        applyDelta(day, event.newStatus(), 1, amount);
+    }
+
+    //cambio masivo: los deltas se suman por dia, mes y año antes de escribir
+    //(un upsert por acumulado afectado, no tres por orden)
+    @EventListener
+    @Transactional
+    public void onOrderStatusBulkChanged(OrderStatusBulkChangedEvent event) {
+        rebuildGuard.lockForDelta();
+        Map<LocalDate, Map<OrderStatus, Totals>> daily = new TreeMap<>();
+        Map<LocalDate, Map<OrderStatus, Totals>> monthly = new TreeMap<>();
+        Map<Integer, Map<OrderStatus, Totals>> yearly = new TreeMap<>();
+        for (OrderStatusBulkChangedEvent.Change change : event.changes()) {
+            BigDecimal amount = change.totalAmount() != null ? change.totalAmount() : BigDecimal.ZERO;
+            LocalDate day = change.day();
+            for (int sign : new int[]{-1, 1}) {
+                OrderStatus status = sign < 0 ? change.previousStatus() : change.newStatus();
+                if (status == null) {
+                    continue;
+                }
+                BigDecimal signedAmount = sign < 0 ? amount.negate() : amount;
+                accumulate(daily, day, status, sign, signedAmount);
+                accumulate(monthly, day.withDayOfMonth(1), status, sign, signedAmount);
+                accumulate(yearly, day.getYear(), status, sign, signedAmount);
+            }
+        }
+        daily.forEach((day, byStatus) -> byStatus.forEach((status, totals) -> {
+            if (totals.isChanged()) {
+                dailyRepository.upsertDelta(day, status.name(), totals.orderCount, totals.totalAmount);
+            }
+        }));
+        monthly.forEach((month, byStatus) -> byStatus.forEach((status, totals) -> {
+            if (totals.isChanged()) {
+                monthlyRepository.upsertDelta(month, status.name(), totals.orderCount, totals.totalAmount);
+            }
+        }));
+        yearly.forEach((year, byStatus) -> byStatus.forEach((status, totals) -> {
+            if (totals.isChanged()) {
+                yearlyRepository.upsertDelta(year, status.name(), totals.orderCount, totals.totalAmount);
+            }
+        }));
+    }
+
+    //si las tablas estan vacias pero ya hay ordenes, se calculan al iniciar
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeIfEmpty() {
+        //el bloqueo va antes del count: rebuild() corre en esta misma transaccion y su foto
+        rebuildGuard.lockForRebuild();
+        if (dailyRepository.count() == 0 && orderRepository.count() > 0) {
+            log.info("Acumulados de ventas vacios, reconstruyendo desde orders...");
+            rebuild();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void applyDelta(LocalDate day, OrderStatus status, long orderCount, BigDecimal totalAmount) {
+        rebuildGuard.lockForDelta();
+        String statusName = status.name();
+        dailyRepository.upsertDelta(day, statusName, orderCount, totalAmount);
+        monthlyRepository.upsertDelta(day.withDayOfMonth(1), statusName, orderCount, totalAmount);
+        yearlyRepository.upsertDelta(day.getYear(), statusName, orderCount, totalAmount);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderReportDTO> getReport(ReportType reportType, LocalDate startDay, LocalDate endDay, OrderStatus status) {
+        if (startDay.isAfter(endDay)) {
+            return List.of();
+        }
+        Map<String, Totals> periods = new TreeMap<>();
+        collect(startDay, endDay.plusDays(1), coarsest(reportType), reportType, status,
+                (period, rowStatus, orderCount, totalAmount) -> add(periods, period, orderCount, totalAmount));
+
+        List<OrderReportDTO> report = new ArrayList<>(periods.size());
+        periods.forEach((period, totals) -> {
+            //un periodo puede quedar en 0 si todas sus ordenes cambiaron a otro estado
+            if (totals.orderCount > 0) {
+                report.add(new OrderReportDTO(period, totals.orderCount, totals.totalAmount));
+            }
+        });
+        return report;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderStatusPivotDTO getStatusPivot(ReportType reportType, LocalDate startDay, LocalDate endDay) {
+        Map<String, OrderStatusPivotDTO.Row> periods = new TreeMap<>();
+        OrderStatusPivotDTO.Row totals = new OrderStatusPivotDTO.Row(TOTAL_PERIOD);
+        if (!startDay.isAfter(endDay)) {
+            //mismas lecturas que getReport pero sin filtrar estado: cada fila ya trae el suyo
+            collect(startDay, endDay.plusDays(1), coarsest(reportType), reportType, null,
+                    (period, rowStatus, orderCount, totalAmount) -> {
+                        BigDecimal amount = totalAmount != null ? totalAmount : BigDecimal.ZERO;
+                        periods.computeIfAbsent(period, OrderStatusPivotDTO.Row::new).add(rowStatus, orderCount, amount);
+                        totals.add(rowStatus, orderCount, amount);
+                    });
+        }
+        //igual que en getReport: fuera los periodos que quedaron en 0
+        List<OrderStatusPivotDTO.Row> rows = periods.values().stream().filter(row -> row.getTotalOrders() > 0).toList();
+        return OrderStatusPivotDTO.builder().rows(rows).totals(totals).build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countOrders(LocalDate startDay, LocalDate endDay, OrderStatus status) {
+        return getReport(ReportType.YEARLY, startDay, endDay, status).stream()
+                .mapToLong(OrderReportDTO::getTotalOrders)
+                .sum();
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        //sin deltas concurrentes mientras se recorre orders y se reemplazan las tablas; las ordenes
+        //con el evento del outbox pendiente quedan contadas aqui y el outbox no las vuelve a sumar
+        rebuildGuard.lockForRebuild(handlerName());
+        Map<LocalDate, Map<OrderStatus, Totals>> daily = new TreeMap<>();
+        for (Object[] row : orderRepository.sumTotalsByDayAndStatus()) {
+            BigDecimal amount = row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO;
+            accumulate(daily, (LocalDate) row[0], (OrderStatus) row[1], ((Number) row[2]).longValue(), amount);
+        }
+
+        Map<LocalDate, Map<OrderStatus, Totals>> monthly = new TreeMap<>();
+        Map<Integer, Map<OrderStatus, Totals>> yearly = new TreeMap<>();
+        List<OrderSalesDaily> dailyRows = new ArrayList<>();
+        daily.forEach((day, byStatus) -> byStatus.forEach((status, totals) -> {
+            dailyRows.add(OrderSalesDaily.builder()
+                    .bucketDate(day)
+                    .status(status)
+                    .orderCount(totals.orderCount)
+                    .totalAmount(totals.totalAmount)
+                    .build());
+            accumulate(monthly, day.withDayOfMonth(1), status, totals.orderCount, totals.totalAmount);
+            accumulate(yearly, day.getYear(), status, totals.orderCount, totals.totalAmount);
+        }));
+
+        List<OrderSalesMonthly> monthlyRows = new ArrayList<>();
+        monthly.forEach((month, byStatus) -> byStatus.forEach((status, totals) ->
+                monthlyRows.add(OrderSalesMonthly.builder()
+                        .bucketMonth(month)
+                        .status(status)
+                        .orderCount(totals.orderCount)
+                        .totalAmount(totals.totalAmount)
+                        .build())));
+
+        List<OrderSalesYearly> yearlyRows = new ArrayList<>();
+        yearly.forEach((year, byStatus) -> byStatus.forEach((status, totals) ->
+                yearlyRows.add(OrderSalesYearly.builder()
+                        .bucketYear(year)
+                        .status(status)
+                        .orderCount(totals.orderCount)
+                        .totalAmount(totals.totalAmount)
+                        .build())));
+
+        dailyRepository.deleteAllInBatch();
+        monthlyRepository.deleteAllInBatch();
+        yearlyRepository.deleteAllInBatch();
+        dailyRepository.saveAll(dailyRows);
+        monthlyRepository.saveAll(monthlyRows);
+        yearlyRepository.saveAll(yearlyRows);
+
+        log.info("Acumulados de ventas reconstruidos: {} dias, {} meses, {} años",
+                dailyRows.size(), monthlyRows.size(), yearlyRows.size());
+    }
+
+    //recorre [from, toExclusive) con el acumulado mas grueso posible y completa los bordes con el nivel siguiente
+    private void collect(LocalDate from, LocalDate toExclusive, ChronoUnit unit, ReportType reportType,
+                         OrderStatus status, PeriodSink periods) {
+        if (!from.isBefore(toExclusive)) {
+            return;
+        }
+        switch (unit) {
+            case YEARS -> {
+                LocalDate firstFullYear = from.getDayOfYear() == 1 ? from : from.plusYears(1).withDayOfYear(1);
+                LocalDate endFullYears = toExclusive.withDayOfYear(1);
+                if (!firstFullYear.isBefore(endFullYears)) {
+                    collect(from, toExclusive, ChronoUnit.MONTHS, reportType, status, periods);
+                    return;
+                }
+                for (OrderSalesYearly row : yearlyRepository.findInRange(firstFullYear.getYear(), endFullYears.getYear() - 1, status)) {
+                    periods.add(PeriodLabels.year(row.getBucketYear()), row.getStatus(), row.getOrderCount(), row.getTotalAmount());
+                }
+                collect(from, firstFullYear, ChronoUnit.MONTHS, reportType, status, periods);
+                collect(endFullYears, toExclusive, ChronoUnit.MONTHS, reportType, status, periods);
+            }
+            case MONTHS -> {
+                LocalDate firstFullMonth = from.getDayOfMonth() == 1 ? from : from.plusMonths(1).withDayOfMonth(1);
+                LocalDate endFullMonths = toExclusive.withDayOfMonth(1);
+                if (!firstFullMonth.isBefore(endFullMonths)) {
+                    collect(from, toExclusive, ChronoUnit.DAYS, reportType, status, periods);
+                    return;
+                }
+                for (OrderSalesMonthly row : monthlyRepository.findInRange(firstFullMonth, endFullMonths.minusMonths(1), status)) {
+                    periods.add(label(reportType, row.getBucketMonth()), row.getStatus(), row.getOrderCount(), row.getTotalAmount());
+                }
+                collect(from, firstFullMonth, ChronoUnit.DAYS, reportType, status, periods);
+                collect(endFullMonths, toExclusive, ChronoUnit.DAYS, reportType, status, periods);
+            }
+            default -> {
+                for (OrderSalesDaily row : dailyRepository.findInRange(from, toExclusive.minusDays(1), status)) {
+                    periods.add(label(reportType, row.getBucketDate()), row.getStatus(), row.getOrderCount(), row.getTotalAmount());
+                }
+            }
+        }
+    }
+
+    private static ChronoUnit coarsest(ReportType reportType) {
+        return switch (reportType) {
+            case YEARLY -> ChronoUnit.YEARS;
+            case MONTHLY -> ChronoUnit.MONTHS;
+            default -> ChronoUnit.DAYS;
+        };
+    }
+
+    //etiqueta del periodo: "2025-09-13", "2025-09" o "2025"
+    private String label(ReportType reportType, LocalDate day) {
+        return PeriodLabels.of(reportType, day);
+    }
+
+    private void add(Map<String, Totals> periods, String period, long orderCount, BigDecimal totalAmount) {
+        Totals totals = periods.computeIfAbsent(period, key -> new Totals());
+        totals.orderCount += orderCount;
+        totals.totalAmount = totals.totalAmount.add(totalAmount != null ? totalAmount : BigDecimal.ZERO);
+    }
+
+    private <K> void accumulate(Map<K, Map<OrderStatus, Totals>> buckets, K key, OrderStatus status,
+                                long orderCount, BigDecimal totalAmount) {
+        Totals totals = buckets.computeIfAbsent(key, k -> new EnumMap<>(OrderStatus.class))
+                .computeIfAbsent(status, s -> new Totals());
+        totals.orderCount += orderCount;
+        totals.totalAmount = totals.totalAmount.add(totalAmount);
+    }
+
+    private LocalDate toBucketDay(Order order) {
+        if (order.getOrderDateLocal() != null) {
+            return order.getOrderDateLocal();
+        }
+        return order.getOrderDate() != null
+                ? Order.toLocalDay(order.getOrderDate())
+                : LocalDate.now(Order.ZONE_CHILE);
+    }
+
+    private BigDecimal amountOf(Order order) {
+        return order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+    }
+
+    //recibe cada fila de acumulado leida por collect
+    @FunctionalInterface
+    private interface PeriodSink {
+        void add(String period, OrderStatus status, long orderCount, BigDecimal totalAmount);
+    }
+
+    private static final class Totals {
+        private long orderCount;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+
+        //un +1 y un -1 en el mismo acumulado se anulan: no hace falta escribirlo
+        private boolean isChanged() {
+            return orderCount != 0 || totalAmount.signum() != 0;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderValueDistributionDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+//distribucion del monto de las ordenes (percentiles y buckets) desde histogramas diarios
+public interface OrderValueDistributionService {
+
+    //un elemento por periodo; ALL = un solo elemento para todo el rango
+    List<OrderValueDistributionDTO> getDistribution(ReportType reportType, LocalDate startDay, LocalDate endDay,
+                                                    OrderStatus status);
+
+    //recalcula los histogramas desde la tabla orders
+    void rebuild();
+}
@@ -0,0 +1,195 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.common.PeriodLabels;
+import com.avatar.TiendaVirtualAvatarImprenta.common.ValueHistogram;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderValueDistributionDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedPayload;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusBulkChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.report.OrderValueHistogramDailyRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderPlacedHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderValueDistributionServiceImpl implements OrderValueDistributionService, OrderPlacedHandler {
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+    private static final String INSERT_BUCKET_SQL =
+            "INSERT INTO order_value_histogram_daily (bucket_date, status, bucket_index, order_count) VALUES (?, ?, ?, ?)";
+
+    private final OrderValueHistogramDailyRepository histogramRepository;
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReportRebuildGuard rebuildGuard;
+
+    @Override
+    public String handlerName() {
+        return "value-histogram";
+    }
+
+    //nueva orden (desde el outbox): +1 en el bucket de su monto
+    @Override
+    @Transactional
+    public void onOrderPlaced(OrderPlacedPayload payload) {
+        rebuildGuard.lockForDelta();
+        histogramRepository.upsertDelta(payload.day(), payload.status().name(), bucketOf(payload.totalAmount()), 1);
+    }
+
+    //cambio de estado: la orden pasa al histograma del estado nuevo
+    @EventListener
+    @Transactional
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        rebuildGuard.lockForDelta();
+        Order order = event.order();
+        LocalDate day = dayOf(order);
+        int bucket = bucketOf(order.getTotalAmount());
+        if (event.previousStatus() != null) {
+            histogramRepository.upsertDelta(day, event.previousStatus().name(), bucket, -1);
+        }
+        histogramRepository.upsertDelta(day, event.newStatus().name(), bucket, 1);
+    }
+
+    //cambio masivo: un upsert por bucket afectado (dia, estado, bucket de monto)
+    @EventListener
+    @Transactional
+    public void onOrderStatusBulkChanged(OrderStatusBulkChangedEvent event) {
+        rebuildGuard.lockForDelta();
+        Map<BucketKey, long[]> deltas = new HashMap<>();
+        for (OrderStatusBulkChangedEvent.Change change : event.changes()) {
+            int bucket = bucketOf(change.totalAmount());
+            if (change.previousStatus() != null) {
+                deltas.computeIfAbsent(new BucketKey(change.day(), change.previousStatus(), bucket), k -> new long[1])[0]--;
+            }
+            deltas.computeIfAbsent(new BucketKey(change.day(), change.newStatus(), bucket), k -> new long[1])[0]++;
+        }
+        deltas.forEach((key, count) -> {
+            if (count[0] != 0) {
+                histogramRepository.upsertDelta(key.day(), key.status().name(), key.bucket(), count[0]);
+            }
+        });
+    }
+
+    //si la tabla esta vacia pero ya hay ordenes, se calcula al iniciar (despues de completar order_date_local)
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE + 10)
+    @Transactional
+    public void initializeIfEmpty() {
+        //el bloqueo va antes del count: rebuild() corre en esta misma transaccion y su foto
+        rebuildGuard.lockForRebuild();
+        if (histogramRepository.count() == 0 && orderRepository.count() > 0) {
+            log.info("Histogramas de montos vacios, reconstruyendo desde orders...");
+            rebuild();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderValueDistributionDTO> getDistribution(ReportType reportType, LocalDate startDay, LocalDate endDay,
+                                                           OrderStatus status) {
+        if (startDay.isAfter(endDay)) {
+            return List.of();
+        }
+        //los histogramas diarios se combinan por periodo sumando contadores
+        Map<String, ValueHistogram> periods = new TreeMap<>();
+        for (Object[] row : histogramRepository.sumByDayAndBucket(startDay, endDay, status)) {
+            LocalDate day = (LocalDate) row[0];
+            String period = reportType == ReportType.ALL ? "ALL" : PeriodLabels.of(reportType, day);
+            periods.computeIfAbsent(period, key -> new ValueHistogram())
+                    .add(((Number) row[1]).intValue(), ((Number) row[2]).longValue());
+        }
+
+        List<OrderValueDistributionDTO> result = new ArrayList<>(periods.size());
+        periods.forEach((period, histogram) -> {
+            if (histogram.totalCount() > 0) {
+                result.add(toDTO(period, histogram));
+            }
+        });
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        //sin deltas concurrentes; las ordenes con el evento del outbox pendiente quedan contadas aqui
+        rebuildGuard.lockForRebuild(handlerName());
+        //acumulado disperso: solo los buckets con ordenes
+        Map<BucketKey, long[]> counts = new HashMap<>();
+        long afterId = 0;
+        List<Object[]> batch;
+        do {
+            batch = orderRepository.findAmountsAfter(afterId, Limit.of(REBUILD_BATCH_SIZE));
+            for (Object[] row : batch) {
+                BucketKey key = new BucketKey((LocalDate) row[1], (OrderStatus) row[2], bucketOf((BigDecimal) row[3]));
+                counts.computeIfAbsent(key, k -> new long[1])[0]++;
+            }
+            if (!batch.isEmpty()) {
+                afterId = ((Number) batch.get(batch.size() - 1)[0]).longValue();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        histogramRepository.deleteAllInBatch();
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> rows.add(new Object[]{
+                Date.valueOf(key.day()), key.status().name(), key.bucket(), count[0]}));
+        for (int from = 0; from < rows.size(); from += REBUILD_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT_BUCKET_SQL, rows.subList(from, Math.min(rows.size(), from + REBUILD_BATCH_SIZE)));
+        }
+        log.info("Histogramas de montos reconstruidos: {} buckets", rows.size());
+    }
+
+    private OrderValueDistributionDTO toDTO(String period, ValueHistogram histogram) {
+        List<OrderValueDistributionDTO.Bucket> buckets = histogram.powerOfTwoBuckets().stream()
+                .map(bucket -> new OrderValueDistributionDTO.Bucket(bucket[0], bucket[1], bucket[2]))
+                .toList();
+        return OrderValueDistributionDTO.builder()
+                .period(period)
+                .totalOrders(histogram.totalCount())
+                .min(histogram.min())
+                .max(histogram.max())
+                .p50(histogram.percentile(50))
+                .p90(histogram.percentile(90))
+                .p99(histogram.percentile(99))
+                .buckets(buckets)
+                .build();
+    }
+
+    //montos en pesos enteros; negativos o nulos cuentan como 0
+    private static int bucketOf(BigDecimal totalAmount) {
+        long amount = totalAmount != null ? totalAmount.setScale(0, RoundingMode.HALF_UP).longValue() : 0L;
+        return ValueHistogram.bucketOf(Math.max(amount, 0));
+    }
+
+    private static LocalDate dayOf(Order order) {
+        if (order.getOrderDateLocal() != null) {
+            return order.getOrderDateLocal();
+        }
+        return order.getOrderDate() != null ? Order.toLocalDay(order.getOrderDate()) : LocalDate.now(Order.ZONE_CHILE);
+    }
+
+    private record BucketKey(LocalDate day, OrderStatus status, int bucket) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportComparisonDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportComparisonRequest;
+
+//comparacion de periodos (YoY / MoM): un reporte agrupado por rango, calculados en paralelo
+public interface ReportComparisonService {
+
+    ReportComparisonDTO compare(ReportComparisonRequest request);
+}
@@ -0,0 +1,172 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.common.PeriodLabels;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportComparisonDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportComparisonRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+//cada rango se calcula en su propio hilo virtual, asi la latencia total es la del rango mas lento.
+//El semaforo es compartido por todas las comparaciones: limita cuantas consultas de rango
+//van a MySQL a la vez, sin importar cuantas peticiones lleguen
+@Service
+@RequiredArgsConstructor
+public class ReportComparisonServiceImpl implements ReportComparisonService {
+
+    //DAILY de un año completo (bisiesto) como maximo por rango
+    private static final int MAX_PERIODS_PER_RANGE = 366;
+
+    private final OrderReportService reportService;
+
+    @Value("${app.reports.comparison.max-ranges:6}")
+    private int maxRanges;
+
+    @Value("${app.reports.comparison.db-permits:4}")
+    private int dbPermits;
+
+    //espera maxima por un permiso antes de rechazar la comparacion
+    @Value("${app.reports.comparison.permit-timeout:PT30S}")
+    private Duration permitTimeout;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(Math.max(1, dbPermits), true);
+    }
+
+    @Override
+    public ReportComparisonDTO compare(ReportComparisonRequest request) {
+        ReportType type = request.getType();
+        if (type == ReportType.ALL) {
+            throw new ValidationException("La comparacion requiere DAILY, MONTHLY o YEARLY");
+        }
+        List<ReportComparisonRequest.Range> ranges = request.getRanges();
+        if (ranges.size() > maxRanges) {
+            throw new ValidationException("Se pueden comparar como maximo " + maxRanges + " rangos");
+        }
+        for (ReportComparisonRequest.Range range : ranges) {
+            if (range.getStartDate().isAfter(range.getEndDate())) {
+                throw new ValidationException("La fecha de inicio no puede ser posterior a la de termino");
+            }
+            if (periodsOf(type, Order.toLocalDay(range.getStartDate()), Order.toLocalDay(range.getEndDate())).size() > MAX_PERIODS_PER_RANGE) {
+                throw new ValidationException("Cada rango puede tener como maximo " + MAX_PERIODS_PER_RANGE + " periodos");
+            }
+        }
+
+        List<ReportComparisonDTO.Series> series = new ArrayList<>(ranges.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ReportComparisonDTO.Series>> futures = new ArrayList<>(ranges.size());
+            for (int i = 0; i < ranges.size(); i++) {
+                ReportComparisonRequest.Range range = ranges.get(i);
+                String label = range.getLabel() != null && !range.getLabel().isBlank() ? range.getLabel() : "Rango " + (i + 1);
+                futures.add(executor.submit(() -> computeSeries(type, request.getStatus(), range, label)));
+            }
+            try {
+                for (Future<ReportComparisonDTO.Series> future : futures) {
+                    series.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new BusinessException("Comparacion interrumpida", HttpStatus.SERVICE_UNAVAILABLE);
+            } catch (ExecutionException e) {
+                //si un rango falla no tiene sentido esperar al resto
+                executor.shutdownNow();
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return ReportComparisonDTO.builder().type(type).series(series).build();
+    }
+
+    private ReportComparisonDTO.Series computeSeries(ReportType type, OrderStatus status,
+                                                     ReportComparisonRequest.Range range, String label) throws InterruptedException {
+        List<?> rows;
+        if (!permits.tryAcquire(permitTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new BusinessException("Demasiadas comparaciones en curso, intente nuevamente", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        try {
+            //pasa por el cache y el agrupamiento de consultas identicas de getReport
+            rows = reportService.getReport(type, range.getStartDate(), range.getEndDate(), status, null, Pageable.unpaged()).getContent();
+        } finally {
+            permits.release();
+        }
+
+        Map<String, OrderReportDTO> byPeriod = new HashMap<>();
+        for (Object row : rows) {
+            OrderReportDTO dto = (OrderReportDTO) row;
+            byPeriod.put(dto.getPeriod(), dto);
+        }
+
+        LocalDate startDay = Order.toLocalDay(range.getStartDate());
+        LocalDate endDay = Order.toLocalDay(range.getEndDate());
+        List<String> periods = periodsOf(type, startDay, endDay);
+        List<OrderReportDTO> points = new ArrayList<>(periods.size());
+        long totalOrders = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (String period : periods) {
+            OrderReportDTO point = byPeriod.get(period);
+            if (point == null) {
+                point = new OrderReportDTO(period, 0L, BigDecimal.ZERO);
+            }
+            points.add(point);
+            totalOrders += point.getTotalOrders() != null ? point.getTotalOrders() : 0;
+            totalAmount = totalAmount.add(point.getTotalAmount() != null ? point.getTotalAmount() : BigDecimal.ZERO);
+        }
+        return ReportComparisonDTO.Series.builder()
+                .label(label)
+                .startDay(startDay)
+                .endDay(endDay)
+                .totalOrders(totalOrders)
+                .totalAmount(totalAmount)
+                .points(points)
+                .build();
+    }
+
+    //todos los periodos del rango, en orden, aunque no tengan ordenes
+    private static List<String> periodsOf(ReportType type, LocalDate startDay, LocalDate endDay) {
+        ChronoUnit unit = switch (type) {
+            case YEARLY -> ChronoUnit.YEARS;
+            case MONTHLY -> ChronoUnit.MONTHS;
+            default -> ChronoUnit.DAYS;
+        };
+        LocalDate first = switch (unit) {
+            case YEARS -> startDay.withDayOfYear(1);
+            case MONTHS -> startDay.withDayOfMonth(1);
+            default -> startDay;
+        };
+        List<String> periods = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(endDay) && periods.size() <= MAX_PERIODS_PER_RANGE; day = day.plus(1, unit)) {
+            periods.add(PeriodLabels.of(type, day));
+        }
+        return periods;
+    }
+}
@@ -0,0 +1,17 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportJobDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportJobFile;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportJobRequest;
+
+public interface ReportJobService {
+
+    //encola el reporte o devuelve el trabajo existente para la misma solicitud
+    //(el resultado se comparte, pero el id devuelto es propio de owner)
+    ReportJobDTO submit(ReportJobRequest request, String owner);
+
+    //solo quien recibio el id puede consultarlo o descargarlo
+    ReportJobDTO getJob(String jobId, String requester);
+
+    ReportJobFile getResult(String jobId, String requester);
+}
@@ -0,0 +1,353 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportFilter;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportJobDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportJobFile;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.ReportJobRequest;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.CountMode;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportFormat;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportJobStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.ReportType;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import com.avatar.TiendaVirtualAvatarImprenta.generator.ExcelOrderReport;
+import com.avatar.TiendaVirtualAvatarImprenta.generator.PdfOrderReport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private final OrderReportService reportService;
+    private final ExcelOrderReport excelOrderReport;
+    private final PdfOrderReport pdfOrderReport;
+
+    //hilos que generan reportes y cuantos pueden esperar en cola
+    @Value("${app.reports.jobs.threads:2}")
+    private int threads;
+
+    @Value("${app.reports.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    //reportes en proceso (en cola o corriendo) permitidos por usuario
+    @Value("${app.reports.jobs.max-per-user:2}")
+    private int maxPerUser;
+
+    @Value("${app.reports.jobs.dir:${java.io.tmpdir}/avatar-reports}")
+    private String resultDir;
+
+    //tiempo que un archivo generado se reutiliza para solicitudes identicas
+    @Value("${app.reports.jobs.result-ttl:PT30M}")
+    private Duration resultTtl;
+
+    //clave de la solicitud -> trabajo (compartido entre quienes piden lo mismo; la clave no se publica)
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    //id publico -> trabajo y dueño: cada solicitante recibe su propio id y solo el puede consultarlo
+    private final Map<String, JobHandle> handles = new ConcurrentHashMap<>();
+    //secreto del proceso para derivar los ids publicos (no se pueden calcular desde los parametros)
+    private final String handleSecret = UUID.randomUUID().toString();
+    private final Map<String, AtomicInteger> activeByOwner = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+    private Path directory;
+
+    @PostConstruct
+    void start() throws IOException {
+        directory = Path.of(resultDir);
+        Files.createDirectories(directory);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public synchronized ReportJobDTO submit(ReportJobRequest request, String owner) {
+        if (request.getStartDate().isAfter(request.getEndDate())) {
+            throw new ValidationException("La fecha de inicio debe ser anterior a la fecha de termino");
+        }
+        String key = requestKey(request);
+        Instant now = Instant.now();
+
+        //misma solicitud en proceso o con resultado vigente: se comparte
+        ReportJob existing = jobs.get(key);
+        if (existing != null && existing.isReusable(now, resultTtl)) {
+            return toDTO(existing, handleFor(key, owner));
+        }
+
+        ReportJob job = new ReportJob(key, request, owner, now);
+        //resultado en disco de una ejecucion anterior (por ejemplo antes de reiniciar)
+        try {
+            if (Files.exists(job.file) && Files.getLastModifiedTime(job.file).toInstant().plus(resultTtl).isAfter(now)) {
+                job.finishedAt = Files.getLastModifiedTime(job.file).toInstant();
+                job.status = ReportJobStatus.DONE;
+                jobs.put(key, job);
+                return toDTO(job, handleFor(key, owner));
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo leer el reporte {} en disco: {}", job.file, e.getMessage());
+        }
+
+        AtomicInteger active = activeByOwner.computeIfAbsent(owner, o -> new AtomicInteger());
+        if (active.get() >= maxPerUser) {
+            throw new BusinessException("Ya tienes " + maxPerUser + " reportes en proceso, espera a que terminen",
+                    HttpStatus.TOO_MANY_REQUESTS);
+        }
+        active.incrementAndGet();
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            active.decrementAndGet();
+            throw new BusinessException("Hay demasiados reportes en cola, intenta mas tarde", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        jobs.put(key, job);
+        return toDTO(job, handleFor(key, owner));
+    }
+
+    @Override
+    public ReportJobDTO getJob(String jobId, String requester) {
+        return toDTO(findJob(jobId, requester), jobId);
+    }
+
+    @Override
+    public ReportJobFile getResult(String jobId, String requester) {
+        ReportJob job = findJob(jobId, requester);
+        if (job.status != ReportJobStatus.DONE || !Files.exists(job.file)) {
+            throw new BusinessException("El reporte aun no esta listo", HttpStatus.CONFLICT);
+        }
+        ReportFormat format = job.request.getFormat();
+        String fileName = "reporte_" + job.request.getType().name().toLowerCase(Locale.ROOT)
+                + "_" + job.request.getStartDate().toLocalDate().format(DateTimeFormatter.BASIC_ISO_DATE)
+                + "_" + job.request.getEndDate().toLocalDate().format(DateTimeFormatter.BASIC_ISO_DATE)
+                + "." + format.getExtension();
+        return new ReportJobFile(job.file, fileName, format.getContentType());
+    }
+
+    //borra los resultados vencidos del disco y de la memoria
+    @Scheduled(fixedDelayString = "${app.reports.jobs.cleanup-interval:PT10M}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        jobs.values().removeIf(job -> job.finishedAt != null && !job.isReusable(now, resultTtl));
+        handles.values().removeIf(handle -> !jobs.containsKey(handle.jobKey()));
+        try (var files = Files.list(directory)) {
+            files.filter(file -> isExpired(file, now)).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("No se pudo borrar el reporte {}: {}", file, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("No se pudo limpiar {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private boolean isExpired(Path file, Instant now) {
+        try {
+            String key = file.getFileName().toString().split("\\.")[0];
+            ReportJob job = jobs.get(key);
+            boolean running = job != null && job.finishedAt == null;
+            return !running && Files.getLastModifiedTime(file).toInstant().plus(resultTtl).isBefore(now);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void run(ReportJob job) {
+        job.status = ReportJobStatus.RUNNING;
+        Path part = directory.resolve(job.id + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                generate(job, out);
+            }
+            //el archivo final aparece completo o no aparece
+            Files.move(part, job.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.finishedAt = Instant.now();
+            job.status = ReportJobStatus.DONE;
+        } catch (Exception e) {
+            log.error("Fallo el reporte {}: {}", job.id, e.getMessage(), e);
+            job.error = e.getMessage();
+            job.finishedAt = Instant.now();
+            job.status = ReportJobStatus.FAILED;
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException ignored) {
+                //se limpia en purgeExpired
+            }
+        } finally {
+            activeByOwner.get(job.owner).decrementAndGet();
+        }
+    }
+
+    private void generate(ReportJob job, OutputStream out) throws IOException {
+        ReportJobRequest request = job.request;
+        if (request.getType() == ReportType.ALL) {
+            //estimacion barata (acumulados) solo para mostrar el porcentaje
+            job.estimatedRows = reportService.getOrdersByCursor(request.getStartDate(), request.getEndDate(),
+                    request.getStatus(), request.getSearchText(), null, 1, CountMode.APPROXIMATE).getTotalElements();
+            OrderReportFilter filter = new OrderReportFilter(request.getStartDate(), request.getEndDate(),
+                    request.getStatus(), request.getSearchText());
+            switch (request.getFormat()) {
+                case XLSX -> excelOrderReport.write(filter, out, job.processedRows::set);
+                case PDF -> pdfOrderReport.write(filter, out, job.processedRows::set);
+            }
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<OrderReportDTO> periods = (List<OrderReportDTO>) reportService.getReport(request.getType(),
+                request.getStartDate(), request.getEndDate(), request.getStatus(), request.getSearchText(),
+                Pageable.unpaged()).getContent();
+        job.estimatedRows = (long) periods.size();
+        String title = switch (request.getType()) {
+            case DAILY -> "Diario";
+            case MONTHLY -> "Mensual";
+            default -> "Anual";
+        };
+        switch (request.getFormat()) {
+            case XLSX -> excelOrderReport.writePeriods(title, periods, out);
+            case PDF -> pdfOrderReport.writePeriods(title, periods, out);
+        }
+        job.processedRows.set(periods.size());
+    }
+
+    //un id de otro solicitante responde igual que uno inexistente
+    private ReportJob findJob(String jobId, String requester) {
+        JobHandle handle = handles.get(jobId);
+        ReportJob job = handle != null && handle.owner().equals(requester) ? jobs.get(handle.jobKey()) : null;
+        if (job == null) {
+            throw new BusinessException("Reporte no encontrado", HttpStatus.NOT_FOUND);
+        }
+        return job;
+    }
+
+    //el mismo solicitante recibe el mismo id para la misma solicitud
+    private String handleFor(String jobKey, String owner) {
+        String id = sha256(handleSecret + "|" + owner + "|" + jobKey);
+        handles.putIfAbsent(id, new JobHandle(jobKey, owner));
+        return id;
+    }
+
+    //solicitudes equivalentes (misma zona horaria normalizada, texto sin mayusculas ni espacios) comparten clave
+    private static String requestKey(ReportJobRequest request) {
+        String searchText = request.getSearchText() == null || request.getSearchText().isBlank()
+                ? "" : request.getSearchText().trim().toLowerCase(Locale.ROOT);
+        String normalized = String.join("|",
+                request.getType().name(),
+                request.getStartDate().toInstant().toString(),
+                request.getEndDate().toInstant().toString(),
+                request.getStatus() != null ? request.getStatus().name() : "",
+                searchText,
+                request.getFormat().name());
+        return sha256(normalized);
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private ReportJobDTO toDTO(ReportJob job, String handleId) {
+        long processed = job.processedRows.get();
+        Integer percent = switch (job.status) {
+            case DONE -> 100;
+            case QUEUED -> 0;
+            //la estimacion puede quedar corta: se topa en 99 hasta terminar
+            case RUNNING -> job.estimatedRows != null && job.estimatedRows > 0
+                    ? (int) Math.min(99, processed * 100 / job.estimatedRows) : null;
+            case FAILED -> null;
+        };
+        return ReportJobDTO.builder()
+                .id(handleId)
+                .status(job.status)
+                .processedRows(processed)
+                .estimatedRows(job.estimatedRows)
+                .percent(percent)
+                .createdAt(job.createdAt)
+                .finishedAt(job.finishedAt)
+                .error(job.error)
+                .downloadUrl(job.status == ReportJobStatus.DONE ? "/api/reports/jobs/" + handleId + "/download" : null)
+                .build();
+    }
+
+    private record JobHandle(String jobKey, String owner) {
+    }
+
+    private final class ReportJob {
+        private final String id;
+        private final ReportJobRequest request;
+        private final String owner;
+        private final Instant createdAt;
+        private final Path file;
+        private final AtomicLong processedRows = new AtomicLong();
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        private volatile Long estimatedRows;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private ReportJob(String id, ReportJobRequest request, String owner, Instant createdAt) {
+            this.id = id;
+            this.request = request;
+            this.owner = owner;
+            this.createdAt = createdAt;
+            this.file = directory.resolve(id + "." + request.getFormat().getExtension());
+        }
+
+        //en proceso, o terminado con el archivo aun vigente
+        private boolean isReusable(Instant now, Duration ttl) {
+            return switch (status) {
+                case QUEUED, RUNNING -> true;
+                case DONE -> finishedAt.plus(ttl).isAfter(now) && Files.exists(file);
+                case FAILED -> false;
+            };
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OutboxEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+//lector/escritor en base de datos sobre report_rebuild_locks (vale con varias instancias):
+//- los deltas (orden nueva, cambio de estado) toman la fila compartida y no se bloquean entre si
+//- un rebuild la toma exclusiva: espera a que terminen las transacciones con deltas en vuelo y
+//  frena las nuevas hasta su commit, asi el recorrido de orders y el reemplazo de la tabla no pierden
+//  ni duplican un delta
+//Ademas, las ordenes cuyo evento ORDER_PLACED aun no se entrega ya quedan contadas por el rebuild: se marca
+//su handler como aplicado (outbox_handler_runs) para que el outbox no las sume de nuevo.
+//Todos los metodos deben llamarse dentro de la transaccion que escribe los acumulados
+@Component
+@RequiredArgsConstructor
+public class ReportRebuildGuard {
+
+    private static final String ORDER_REPORTS = "order-reports";
+    private static final String MARK_RUN_SQL =
+            "INSERT IGNORE INTO outbox_handler_runs (event_id, handler, completed_at) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxEventRepository outboxRepository;
+    //depende del EntityManagerFactory para correr despues de que Hibernate cree la tabla
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate.update("INSERT IGNORE INTO report_rebuild_locks (name) VALUES (?)", ORDER_REPORTS);
+    }
+
+    public void lockForDelta() {
+        jdbcTemplate.queryForList("SELECT name FROM report_rebuild_locks WHERE name = ? FOR SHARE", String.class, ORDER_REPORTS);
+    }
+
+    //debe ir antes de la primera lectura del rebuild: con REPEATABLE READ la foto de la transaccion
+    //se toma en esa lectura, ya con los deltas anteriores confirmados
+    public void lockForRebuild() {
+        jdbcTemplate.queryForList("SELECT name FROM report_rebuild_locks WHERE name = ? FOR UPDATE", String.class, ORDER_REPORTS);
+    }
+
+    //rebuild que recorre orders con lecturas normales (la foto de la transaccion): los eventos sin entregar
+    //se leen de la misma foto, asi se marcan exactamente las ordenes que el recorrido cuenta
+    public void lockForRebuild(String handlerName) {
+        lockForRebuild();
+        List<Long> eventIds = outboxRepository.findUndeliveredIds(OutboxEvent.ORDER_PLACED);
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(eventIds.size());
+        for (Long eventId : eventIds) {
+            rows.add(new Object[]{eventId, handlerName, now});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARK_RUN_SQL, rows);
+        }
+    }
+
+    //rebuild de una sola sentencia INSERT ... SELECT: esa lectura ve lo ultimo confirmado (no la foto) y bloquea
+    //las filas recorridas, asi que se llama despues de ella y tambien con una lectura actual de outbox_events
+    public void markUndeliveredAfterInsertSelect(String handlerName) {
+        jdbcTemplate.update("""
+                INSERT IGNORE INTO outbox_handler_runs (event_id, handler, completed_at)
+                SELECT id, ?, ? FROM outbox_events WHERE event_type = ? AND status <> 'DONE'
+                """, handlerName, Timestamp.from(Instant.now()), OutboxEvent.ORDER_PLACED);
+    }
+}
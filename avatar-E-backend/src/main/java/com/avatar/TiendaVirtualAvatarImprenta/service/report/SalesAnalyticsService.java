@@ -0,0 +1,20 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.SalesRankingDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.SalesDimension;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.SalesSort;
+
+import java.time.LocalDate;
+import java.util.List;
+
+//ventas de items (unidades y monto) por producto, subcategoria, categoria, material o color
+public interface SalesAnalyticsService {
+
+    //top N del rango de dias (hora de Chile), ordenado por monto o unidades
+    List<SalesRankingDTO> getRanking(SalesDimension dimension, LocalDate startDay, LocalDate endDay,
+                                     OrderStatus status, SalesSort sort, int limit);
+
+    //recalcula la tabla de hechos desde order_items
+    void rebuild();
+}
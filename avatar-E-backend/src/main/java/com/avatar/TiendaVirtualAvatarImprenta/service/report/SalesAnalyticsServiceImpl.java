@@ -0,0 +1,208 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.SalesRankingDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OrderItem;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.SalesDimension;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.SalesSort;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedPayload;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusBulkChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderStatusChangedEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.report.OrderItemSalesDailyRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.order.OrderPlacedHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService, OrderPlacedHandler {
+
+    private static final int MAX_RANKING_SIZE = 100;
+    private static final int BULK_QUERY_CHUNK = 1000;
+    //orden de los rankings sobre el agregado de la consulta (unsafe: es una expresion, no una propiedad)
+    private static final Sort BY_QUANTITY = JpaSort.unsafe(Sort.Direction.DESC, "SUM(f.quantity)");
+    private static final Sort BY_REVENUE = JpaSort.unsafe(Sort.Direction.DESC, "SUM(f.revenue)");
+
+    private final OrderItemSalesDailyRepository itemSalesRepository;
+    private final OrderRepository orderRepository;
+    private final ReportRebuildGuard rebuildGuard;
+
+    @Override
+    public String handlerName() {
+        return "item-sales";
+    }
+
+    //nueva orden (desde el outbox): se suman sus items en el estado inicial
+    //(los items no cambian despues de creada la orden; el estado si, por eso viene en el payload)
+    @Override
+    @Transactional
+    public void onOrderPlaced(OrderPlacedPayload payload) {
+        rebuildGuard.lockForDelta();
+        orderRepository.findById(payload.orderId())
+                .ifPresent(order -> applyItems(order, payload.status(), 1));
+    }
+
+    //cambio de estado: los items se mueven del estado anterior al nuevo
+    @EventListener
+    @Transactional
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        rebuildGuard.lockForDelta();
+        if (event.previousStatus() != null) {
+            applyItems(event.order(), event.previousStatus(), -1);
+        }
+        applyItems(event.order(), event.newStatus(), 1);
+    }
+
+    //cambio masivo: los items se suman en la base por orden y producto/material/color (una consulta por
+    //tramo de ids y transicion) y se escribe un upsert por hecho afectado
+    @EventListener
+    @Transactional
+    public void onOrderStatusBulkChanged(OrderStatusBulkChangedEvent event) {
+        rebuildGuard.lockForDelta();
+        Map<Transition, List<Long>> byTransition = new LinkedHashMap<>();
+        //el dia de cada orden sale del cambio: el mismo (con su respaldo) que usan los acumulados de ventas
+        Map<Long, LocalDate> dayByOrder = new HashMap<>();
+        for (OrderStatusBulkChangedEvent.Change change : event.changes()) {
+            dayByOrder.put(change.orderId(), change.day());
+            byTransition.computeIfAbsent(new Transition(change.previousStatus(), change.newStatus()), t -> new ArrayList<>())
+                    .add(change.orderId());
+        }
+
+        Map<FactKey, Totals> deltas = new LinkedHashMap<>();
+        byTransition.forEach((transition, orderIds) -> {
+            for (int from = 0; from < orderIds.size(); from += BULK_QUERY_CHUNK) {
+                List<Long> chunk = orderIds.subList(from, Math.min(orderIds.size(), from + BULK_QUERY_CHUNK));
+                for (Object[] row : orderRepository.sumItemsByOrder(chunk)) {
+                    LocalDate day = dayByOrder.get(((Number) row[0]).longValue());
+                    ItemKey key = new ItemKey(((Number) row[1]).longValue(), ((Number) row[2]).longValue(),
+                            ((Number) row[3]).longValue());
+                    long itemCount = ((Number) row[4]).longValue();
+                    long quantity = ((Number) row[5]).longValue();
+                    BigDecimal revenue = row[6] != null ? (BigDecimal) row[6] : BigDecimal.ZERO;
+                    if (transition.previous() != null) {
+                        addFact(deltas, new FactKey(day, key, transition.previous()), -itemCount, -quantity, revenue.negate());
+                    }
+                    addFact(deltas, new FactKey(day, key, transition.next()), itemCount, quantity, revenue);
+                }
+            }
+        });
+
+        deltas.forEach((fact, totals) -> itemSalesRepository.upsertDelta(fact.day(), fact.item().productId(),
+                fact.item().materialOptionId(), fact.item().colorOptionId(), fact.status().name(),
+                totals.itemCount, totals.quantity, totals.revenue));
+    }
+
+    //si la tabla esta vacia pero ya hay ordenes, se calcula al iniciar
+    //(despues de completar order_date_local y antes de sembrar los mas vendidos)
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE + 10)
+    @Transactional
+    public void initializeIfEmpty() {
+        rebuildGuard.lockForRebuild();
+        if (itemSalesRepository.count() == 0 && orderRepository.count() > 0) {
+            log.info("Hechos de venta por item vacios, reconstruyendo desde order_items...");
+            rebuild();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesRankingDTO> getRanking(SalesDimension dimension, LocalDate startDay, LocalDate endDay,
+                                            OrderStatus status, SalesSort sort, int limit) {
+        if (limit < 1 || limit > MAX_RANKING_SIZE) {
+            throw new ValidationException("El limite debe estar entre 1 y " + MAX_RANKING_SIZE);
+        }
+        if (startDay.isAfter(endDay)) {
+            return List.of();
+        }
+        //un solo agregado por consulta: unidades (entero) o monto (decimal), sin mezclarlos en un CASE
+        Sort order = sort == SalesSort.QUANTITY ? BY_QUANTITY : BY_REVENUE;
+        Limit top = Limit.of(limit);
+        return switch (dimension) {
+            case PRODUCT -> itemSalesRepository.rankByProduct(startDay, endDay, status, order, top);
+            case SUBCATEGORY -> itemSalesRepository.rankBySubCategory(startDay, endDay, status, order, top);
+            case CATEGORY -> itemSalesRepository.rankByCategory(startDay, endDay, status, order, top);
+            case MATERIAL -> itemSalesRepository.rankByMaterial(startDay, endDay, status, order, top);
+            case COLOR -> itemSalesRepository.rankByColor(startDay, endDay, status, order, top);
+        };
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        rebuildGuard.lockForRebuild();
+        itemSalesRepository.deleteAllInBatch();
+        int rows = itemSalesRepository.insertFromOrderItems();
+        //las ordenes con el evento del outbox pendiente ya quedaron sumadas por el INSERT ... SELECT
+        rebuildGuard.markUndeliveredAfterInsertSelect(handlerName());
+        log.info("Hechos de venta por item reconstruidos: {} filas", rows);
+    }
+
+    //agrupa los items de la orden por clave antes de escribir (una orden puede repetir producto/opciones)
+    private void applyItems(Order order, OrderStatus status, int sign) {
+        LocalDate day = order.getOrderDateLocal() != null ? order.getOrderDateLocal()
+                : order.getOrderDate() != null ? Order.toLocalDay(order.getOrderDate()) : LocalDate.now(Order.ZONE_CHILE);
+
+        Map<ItemKey, Totals> deltas = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            if (item.getProduct() == null) {
+                continue;
+            }
+            ItemKey key = new ItemKey(item.getProduct().getId(),
+                    item.getMaterialOption() != null ? item.getMaterialOption().getId() : 0L,
+                    item.getColorOption() != null ? item.getColorOption().getId() : 0L);
+            Totals totals = deltas.computeIfAbsent(key, k -> new Totals());
+            totals.itemCount++;
+            totals.quantity += item.getQuantity();
+            totals.revenue = totals.revenue.add(item.lineAmount());
+        }
+
+        String statusName = status.name();
+        deltas.forEach((key, totals) -> itemSalesRepository.upsertDelta(day, key.productId(),
+                key.materialOptionId(), key.colorOptionId(), statusName,
+                sign * totals.itemCount, sign * totals.quantity,
+                sign < 0 ? totals.revenue.negate() : totals.revenue));
+    }
+
+    private static void addFact(Map<FactKey, Totals> deltas, FactKey key, long itemCount, long quantity, BigDecimal revenue) {
+        Totals totals = deltas.computeIfAbsent(key, k -> new Totals());
+        totals.itemCount += itemCount;
+        totals.quantity += quantity;
+        totals.revenue = totals.revenue.add(revenue);
+    }
+
+    private record ItemKey(long productId, long materialOptionId, long colorOptionId) {
+    }
+
+    private record FactKey(LocalDate day, ItemKey item, OrderStatus status) {
+    }
+
+    private record Transition(OrderStatus previous, OrderStatus next) {
+    }
+
+    private static final class Totals {
+        private long itemCount;
+        private long quantity;
+        private BigDecimal revenue = BigDecimal.ZERO;
+    }
+}
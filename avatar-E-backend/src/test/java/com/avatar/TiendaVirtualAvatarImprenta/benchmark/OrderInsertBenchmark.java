@@ -0,0 +1,188 @@
+package com.avatar.TiendaVirtualAvatarImprenta.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+//ordenes por segundo al insertar una orden de imprenta de 30 lineas contra MySQL:
+//- identityRowByRow: como con IDENTITY, un INSERT por fila leyendo la clave generada (31 viajes)
+//- pooledBatched: ids reservados en bloque y un lote por tabla con rewriteBatchedStatements (2 viajes)
+//Necesita una base de pruebas: -Dbench.jdbc.url=jdbc:mysql://localhost:3306/avatar_bench -Dbench.jdbc.user=... -Dbench.jdbc.password=...
+//(crea y borra las tablas bench_orders y bench_order_items)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderInsertBenchmark {
+
+    private static final int ITEMS_PER_ORDER = 30;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String INSERT_ORDER =
+            "INSERT INTO bench_orders (id, code, status, total_amount) VALUES (?, ?, 'PENDING', ?)";
+    private static final String INSERT_ORDER_IDENTITY =
+            "INSERT INTO bench_orders (code, status, total_amount) VALUES (?, 'PENDING', ?)";
+    private static final String INSERT_ITEM =
+            "INSERT INTO bench_order_items (id, order_id, product_id, quantity, price) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEM_IDENTITY =
+            "INSERT INTO bench_order_items (order_id, product_id, quantity, price) VALUES (?, ?, ?, ?)";
+
+    private Connection identityConnection;
+    private Connection batchedConnection;
+
+    //ids en memoria como el optimizador pooled (la tabla de secuencia se consulta una vez por bloque)
+    private long nextOrderId;
+    private long orderIdEnd;
+    private long nextItemId;
+    private long itemIdEnd;
+    private long sequenceHi;
+    private long orderNumber;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        String url = System.getProperty("bench.jdbc.url", "jdbc:mysql://localhost:3306/avatar_bench");
+        String user = System.getProperty("bench.jdbc.user", "root");
+        String password = System.getProperty("bench.jdbc.password", "");
+        identityConnection = DriverManager.getConnection(url, user, password);
+        batchedConnection = DriverManager.getConnection(url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true", user, password);
+
+        try (Statement statement = identityConnection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_order_items");
+            statement.execute("DROP TABLE IF EXISTS bench_orders");
+            statement.execute("""
+                    CREATE TABLE bench_orders (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    code VARCHAR(20) NOT NULL UNIQUE,
+                    status VARCHAR(20) NOT NULL,
+                    total_amount DECIMAL(38, 2) NOT NULL)
+                    """);
+            statement.execute("""
+                    CREATE TABLE bench_order_items (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    order_id BIGINT NOT NULL,
+                    product_id BIGINT NOT NULL,
+                    quantity INT NOT NULL,
+                    price DECIMAL(38, 2) NOT NULL,
+                    FOREIGN KEY (order_id) REFERENCES bench_orders (id))
+                    """);
+        }
+        identityConnection.setAutoCommit(false);
+        batchedConnection.setAutoCommit(false);
+        //los ids pooled parten lejos de los AUTO_INCREMENT para no chocar entre metodos
+        sequenceHi = 1_000_000_000L;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = identityConnection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_order_items");
+            statement.execute("DROP TABLE IF EXISTS bench_orders");
+        }
+        identityConnection.close();
+        batchedConnection.close();
+    }
+
+    @Benchmark
+    public long identityRowByRow() throws SQLException {
+        long orderId;
+        try (PreparedStatement order = identityConnection.prepareStatement(INSERT_ORDER_IDENTITY, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement item = identityConnection.prepareStatement(INSERT_ITEM_IDENTITY, Statement.RETURN_GENERATED_KEYS)) {
+            order.setString(1, nextCode("I"));
+            order.setBigDecimal(2, BigDecimal.valueOf(450_000));
+            order.executeUpdate();
+            orderId = generatedKey(order);
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                item.setLong(1, orderId);
+                item.setLong(2, i + 1);
+                item.setInt(3, 100);
+                item.setBigDecimal(4, BigDecimal.valueOf(150));
+                item.executeUpdate();
+                generatedKey(item);
+            }
+        }
+        identityConnection.commit();
+        return orderId;
+    }
+
+    @Benchmark
+    public long pooledBatched() throws SQLException {
+        long orderId = nextOrderId();
+        try (PreparedStatement order = batchedConnection.prepareStatement(INSERT_ORDER);
+             PreparedStatement item = batchedConnection.prepareStatement(INSERT_ITEM)) {
+            order.setLong(1, orderId);
+            order.setString(2, nextCode("B"));
+            order.setBigDecimal(3, BigDecimal.valueOf(450_000));
+            order.executeUpdate();
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                item.setLong(1, nextItemId());
+                item.setLong(2, orderId);
+                item.setLong(3, i + 1);
+                item.setInt(4, 100);
+                item.setBigDecimal(5, BigDecimal.valueOf(150));
+                item.addBatch();
+            }
+            item.executeBatch();
+        }
+        batchedConnection.commit();
+        return orderId;
+    }
+
+    private long nextOrderId() {
+        if (nextOrderId >= orderIdEnd) {
+            nextOrderId = reserveBlock();
+            orderIdEnd = nextOrderId + ALLOCATION_SIZE;
+        }
+        return nextOrderId++;
+    }
+
+    private long nextItemId() {
+        if (nextItemId >= itemIdEnd) {
+            nextItemId = reserveBlock();
+            itemIdEnd = nextItemId + ALLOCATION_SIZE;
+        }
+        return nextItemId++;
+    }
+
+    //en la aplicacion es un UPDATE a la tabla de secuencia cada ALLOCATION_SIZE ids (despreciable aqui)
+    private long reserveBlock() {
+        long first = sequenceHi;
+        sequenceHi += ALLOCATION_SIZE;
+        return first;
+    }
+
+    private String nextCode(String prefix) {
+        return prefix + "-" + (++orderNumber);
+    }
+
+    private static long generatedKey(PreparedStatement statement) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        //el fork no hereda las propiedades del sistema: se pasan las de conexion explicitamente
+        String[] jdbcProperties = Stream.of("bench.jdbc.url", "bench.jdbc.user", "bench.jdbc.password")
+                .filter(name -> System.getProperty(name) != null)
+                .map(name -> "-D" + name + "=" + System.getProperty(name))
+                .toArray(String[]::new);
+        new Runner(new OptionsBuilder()
+                .include(OrderInsertBenchmark.class.getSimpleName())
+                .jvmArgsAppend(jdbcProperties)
+                .build()).run();
+    }
+}
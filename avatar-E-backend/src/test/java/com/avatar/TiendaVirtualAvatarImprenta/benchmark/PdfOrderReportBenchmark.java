@@ -0,0 +1,67 @@
+package com.avatar.TiendaVirtualAvatarImprenta.benchmark;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSummaryDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.generator.PdfOrderReport;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+//mide paginas por segundo del reporte pdf con ordenes sinteticas (sin base de datos)
+//ejecutar desde el IDE o con: java -cp <classpath de test> ...benchmark.PdfOrderReportBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx256m"})
+public class PdfOrderReportBenchmark {
+
+    //un reporte mensual grande; -Xmx256m verifica que renderiza con memoria acotada
+    @Param({"1000", "50000"})
+    public int orders;
+
+    private final PdfOrderReport report = new PdfOrderReport(null);
+    private OrderSummaryDTO[] rows;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Pages {
+        public long pages;
+    }
+
+    @Setup
+    public void setup() {
+        OrderStatus[] statuses = OrderStatus.values();
+        ZonedDateTime start = ZonedDateTime.of(2025, 9, 1, 9, 0, 0, 0, ZoneId.of("America/Santiago"));
+        //se reutiliza un bloque de filas para no medir la creacion de DTOs
+        rows = new OrderSummaryDTO[1000];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new OrderSummaryDTO((long) i, String.format("ORD-2025-%05d", i), "cliente" + i + "@correo.cl",
+                    statuses[i % statuses.length], BigDecimal.valueOf(5000 + (i * 37L) % 90000),
+                    start.plusMinutes(i * 40L));
+        }
+    }
+
+    @Benchmark
+    public int render(Pages counter) {
+        int pages = report.render(sink -> {
+            for (int i = 0; i < orders; i++) {
+                sink.accept(rows[i % rows.length]);
+            }
+        }, OutputStream.nullOutputStream());
+        counter.pages += pages;
+        return pages;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PdfOrderReportBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package com.avatar.TiendaVirtualAvatarImprenta.benchmark;
+
+import com.avatar.TiendaVirtualAvatarImprenta.common.PeriodLabels;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderReportDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.PeriodAggregate;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+//compara el mapeo de filas del reporte diario: Object[] + String.format contra PeriodAggregate + PeriodLabels
+//la asignacion por fila se ve con el profiler gc (gc.alloc.rate.norm), ya activado en main
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PeriodRowMappingBenchmark {
+
+    private static final int ROWS = 365;
+
+    private Object[][] objectRows;
+    private PeriodAggregate[] typedRows;
+
+    @Setup
+    public void setup() {
+        objectRows = new Object[ROWS][];
+        typedRows = new PeriodAggregate[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            int month = i / 31 % 12 + 1;
+            int day = i % 28 + 1;
+            long count = 10 + i % 50;
+            BigDecimal sum = BigDecimal.valueOf(15000L * count);
+            //asi llegaban las celdas desde Hibernate: Integer, Integer, Integer, Long, BigDecimal
+            objectRows[i] = new Object[]{2025, month, day, count, sum};
+            typedRows[i] = new PeriodAggregate(2025, month, day, count, sum);
+        }
+    }
+
+    //mapeo anterior de OrderReportServiceImpl.mapDailyRow
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void objectArrayRows(Blackhole blackhole) {
+        for (Object[] row : objectRows) {
+            Number year = (Number) row[0];
+            Number month = (Number) row[1];
+            Number day = (Number) row[2];
+            Number count = (Number) row[3];
+            BigDecimal sum = (BigDecimal) row[4];
+            String period = String.format("%d-%02d-%02d",
+                    year != null ? year.intValue() : 0,
+                    month != null ? month.intValue() : 0,
+                    day != null ? day.intValue() : 0);
+            long totalOrders = count != null ? count.longValue() : 0L;
+            blackhole.consume(new OrderReportDTO(period, totalOrders, sum != null ? sum : BigDecimal.ZERO));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void typedRows(Blackhole blackhole) {
+        for (PeriodAggregate row : typedRows) {
+            blackhole.consume(new OrderReportDTO(PeriodLabels.day(row.year(), row.month(), row.day()),
+                    row.orderCount(), row.totalAmount()));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PeriodRowMappingBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.avatar.TiendaVirtualAvatarImprenta.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+    @Test
+    void rejectsInvalidDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(9, 16));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 0));
+    }
+
+    @Test
+    void rejectsNegativeDelta() {
+        CountMinSketch sketch = new CountMinSketch(4, 16);
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(1L, -1));
+    }
+
+    @Test
+    void unseenKeyEstimatesZero() {
+        assertEquals(0, new CountMinSketch(4, 64).estimate(42L));
+    }
+
+    @Test
+    void estimateIsExactWithoutCollisions() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+
+        assertEquals(3, sketch.add(7L, 3));
+        assertEquals(8, sketch.add(7L, 5));
+        assertEquals(8, sketch.estimate(7L));
+        assertEquals(8, sketch.total());
+    }
+
+    @Test
+    void estimateNeverUnderCountsAndStaysWithinBound() {
+        int width = 256;
+        CountMinSketch sketch = new CountMinSketch(4, width);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(20250901L);
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(2_000);
+            long delta = 1 + random.nextInt(5);
+            sketch.add(key, delta);
+            exact.merge(key, delta, Long::sum);
+        }
+
+        //cota e/width del total; con 4 filas la probabilidad de pasarla es muy baja
+        long bound = (long) Math.ceil(Math.E / width * sketch.total());
+        for (Map.Entry<Long, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue());
+            assertTrue(estimate - entry.getValue() <= bound * 2);
+        }
+    }
+
+    @Test
+    void snapshotRoundTripKeepsCounters() throws IOException {
+        CountMinSketch sketch = new CountMinSketch(3, 32);
+        for (long key = 0; key < 100; key++) {
+            sketch.add(key, key);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+        CountMinSketch restored = CountMinSketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(sketch.total(), restored.total());
+        for (long key = 0; key < 100; key++) {
+            assertEquals(sketch.estimate(key), restored.estimate(key));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.avatar.TiendaVirtualAvatarImprenta.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void readsRecordsWithConfiguredSeparator() throws IOException {
+        try (CsvReader reader = reader("order_code;status;total\nORD-1;PAID;1500\n", ';')) {
+            assertEquals(List.of("order_code", "status", "total"), reader.next());
+            assertEquals(1, reader.recordLine());
+            assertEquals(List.of("ORD-1", "PAID", "1500"), reader.next());
+            assertEquals(2, reader.recordLine());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        try (CsvReader reader = reader(",a,,\n", ',')) {
+            assertEquals(List.of("", "a", "", ""), reader.next());
+        }
+    }
+
+    @Test
+    void quotedFieldsKeepSeparatorsAndEscapedQuotes() throws IOException {
+        try (CsvReader reader = reader("\"Tarjetas, 9x5\",\"dijo \"\"hola\"\"\",\"\"\n", ',')) {
+            assertEquals(List.of("Tarjetas, 9x5", "dijo \"hola\"", ""), reader.next());
+        }
+    }
+
+    @Test
+    void quotedFieldsCanSpanLines() throws IOException {
+        try (CsvReader reader = reader("h\n\"linea 1\nlinea 2\",x\nfin\n", ',')) {
+            reader.next();
+            assertEquals(List.of("linea 1\nlinea 2", "x"), reader.next());
+            assertEquals(2, reader.recordLine());
+            assertEquals(List.of("fin"), reader.next());
+            assertEquals(4, reader.recordLine());
+        }
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        try (CsvReader reader = reader("12\" pulgadas,b\n", ',')) {
+            assertEquals(List.of("12\" pulgadas", "b"), reader.next());
+        }
+    }
+
+    @Test
+    void blankLinesAreSkippedButCounted() throws IOException {
+        try (CsvReader reader = reader("a\n\n\nb\r\n\r\n", ',')) {
+            assertEquals(List.of("a"), reader.next());
+            assertEquals(List.of("b"), reader.next());
+            assertEquals(4, reader.recordLine());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void unclosedQuoteFails() throws IOException {
+        try (CsvReader reader = reader("a\n\"sin cerrar,b\n", ',')) {
+            reader.next();
+            IOException error = assertThrows(IOException.class, reader::next);
+            assertEquals("Comillas sin cerrar desde la linea 2", error.getMessage());
+        }
+    }
+
+    private static CsvReader reader(String content, char separator) {
+        return new CsvReader(new StringReader(content), separator);
+    }
+}
@@ -0,0 +1,88 @@
+package com.avatar.TiendaVirtualAvatarImprenta.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHittersTest {
+
+    @Test
+    void topReturnsLargestFirst() {
+        HeavyHitters hitters = new HeavyHitters(10, 4, 1024);
+        hitters.add(1L, 5);
+        hitters.add(2L, 20);
+        hitters.add(3L, 10);
+        hitters.add(1L, 1);
+
+        List<HeavyHitters.Entry> top = hitters.top(3);
+
+        assertEquals(List.of(new HeavyHitters.Entry(2L, 20), new HeavyHitters.Entry(3L, 10),
+                new HeavyHitters.Entry(1L, 6)), top);
+    }
+
+    @Test
+    void topIsLimitedByRequestAndByTrackedKeys() {
+        HeavyHitters hitters = new HeavyHitters(10, 4, 1024);
+        hitters.add(1L, 1);
+        hitters.add(2L, 2);
+
+        assertEquals(1, hitters.top(1).size());
+        assertEquals(2, hitters.top(5).size());
+    }
+
+    @Test
+    void fullRankingEvictsSmallestOnlyWhenBeaten() {
+        HeavyHitters hitters = new HeavyHitters(2, 4, 1024);
+        hitters.add(1L, 10);
+        hitters.add(2L, 5);
+
+        //no supera al minimo: no entra
+        hitters.add(3L, 4);
+        assertEquals(List.of(1L, 2L), keys(hitters.top(2)));
+
+        //lo supera: reemplaza al minimo
+        hitters.add(3L, 3);
+        assertEquals(List.of(1L, 3L), keys(hitters.top(2)));
+    }
+
+    @Test
+    void estimateCoversKeysOutsideTheRanking() {
+        HeavyHitters hitters = new HeavyHitters(1, 4, 1024);
+        hitters.add(1L, 10);
+        hitters.add(2L, 3);
+
+        assertEquals(1, hitters.top(5).size());
+        assertTrue(hitters.estimate(2L) >= 3);
+    }
+
+    @Test
+    void snapshotRoundTripKeepsRanking() throws IOException {
+        HeavyHitters hitters = new HeavyHitters(5, 4, 256);
+        for (long key = 1; key <= 20; key++) {
+            hitters.add(key, key * 3);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        hitters.writeTo(new DataOutputStream(bytes));
+        HeavyHitters restored = HeavyHitters.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(hitters.top(5), restored.top(5));
+        assertEquals(hitters.estimate(7L), restored.estimate(7L));
+
+        //tras restaurar sigue acumulando sobre el mismo sketch
+        restored.add(1L, 1_000);
+        assertEquals(1L, restored.top(1).get(0).key());
+    }
+
+    private static List<Long> keys(List<HeavyHitters.Entry> entries) {
+        return entries.stream().map(HeavyHitters.Entry::key).toList();
+    }
+}
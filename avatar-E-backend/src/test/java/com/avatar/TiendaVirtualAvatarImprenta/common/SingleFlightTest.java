@@ -0,0 +1,139 @@
+package com.avatar.TiendaVirtualAvatarImprenta.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void concurrentCallsShareOneExecution() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(pool.submit(() -> flight.execute("report", () -> {
+                started.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(pool.submit(() -> flight.execute("report", executions::incrementAndGet)));
+            }
+            //los demas quedan esperando el calculo en curso
+            waitUntilShared(flight, CALLERS - 1);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<String, Object> stats = flight.stats();
+        assertEquals(1, executions.get());
+        assertEquals((long) CALLERS, stats.get("calls"));
+        assertEquals(1L, stats.get("executions"));
+        assertEquals((long) CALLERS - 1, stats.get("sharedCalls"));
+        assertEquals(0, stats.get("inFlight"));
+    }
+
+    @Test
+    void waitingCallersGetTheSameException() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        IllegalStateException failure = new IllegalStateException("sin conexion");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> owner = pool.submit(() -> flight.execute("report", () -> {
+                started.countDown();
+                await(release);
+                throw failure;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> waiter = pool.submit(() -> flight.execute("report", () -> 0));
+            waitUntilShared(flight, 1);
+            release.countDown();
+
+            assertSame(failure, assertThrows(ExecutionException.class, () -> owner.get(5, TimeUnit.SECONDS)).getCause());
+            assertSame(failure, assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS)).getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1L, flight.stats().get("failures"));
+    }
+
+    @Test
+    void keyIsReleasedAfterCompletion() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        assertEquals(1, flight.execute("report", executions::incrementAndGet));
+        assertEquals(2, flight.execute("report", executions::incrementAndGet));
+        assertThrows(IllegalArgumentException.class, () -> flight.execute("report", () -> {
+            throw new IllegalArgumentException();
+        }));
+        assertEquals(3, flight.execute("report", executions::incrementAndGet));
+
+        assertEquals(0L, flight.stats().get("sharedCalls"));
+        assertEquals(0, flight.stats().get("inFlight"));
+    }
+
+    @Test
+    void differentKeysRunIndependently() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+
+        //una clave en curso no bloquea a otra: la llamada anidada no espera
+        String result = flight.execute("a", () -> "a+" + flight.execute("b", () -> "b"));
+
+        assertEquals("a+b", result);
+        assertEquals(2L, flight.stats().get("executions"));
+    }
+
+    @Test
+    void emptyStatsHaveZeroRate() {
+        assertEquals(0.0, new SingleFlight<String, String>().stats().get("sharedRate"));
+    }
+
+    private static void waitUntilShared(SingleFlight<?, ?> flight, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((long) flight.stats().get("sharedCalls") < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Las llamadas no llegaron a esperar el calculo en curso");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.avatar.TiendaVirtualAvatarImprenta.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValueHistogramTest {
+
+    @Test
+    void smallValuesHaveTheirOwnBucket() {
+        for (long value = 0; value < 64; value++) {
+            int bucket = ValueHistogram.bucketOf(value);
+            assertEquals(value, bucket);
+            assertEquals(value, ValueHistogram.lowerBound(bucket));
+            assertEquals(value, ValueHistogram.upperBound(bucket));
+        }
+        assertEquals(0, ValueHistogram.bucketOf(-5));
+    }
+
+    @Test
+    void bucketsAreContiguousAcrossPowersOfTwo() {
+        assertEquals(64, ValueHistogram.bucketOf(64));
+        assertEquals(64, ValueHistogram.bucketOf(65));
+        assertEquals(65, ValueHistogram.bucketOf(66));
+        assertEquals(95, ValueHistogram.bucketOf(127));
+        assertEquals(96, ValueHistogram.bucketOf(128));
+        assertEquals(ValueHistogram.BUCKET_COUNT - 1, ValueHistogram.bucketOf(Long.MAX_VALUE));
+
+        //cada bucket empieza justo donde termina el anterior
+        for (int bucket = 1; bucket < ValueHistogram.BUCKET_COUNT; bucket++) {
+            assertEquals(ValueHistogram.upperBound(bucket - 1) + 1, ValueHistogram.lowerBound(bucket));
+        }
+        assertEquals(Long.MAX_VALUE, ValueHistogram.upperBound(ValueHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    void valueFallsInsideItsBucketWithBoundedRelativeError() {
+        Random random = new Random(20250913L);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            int bucket = ValueHistogram.bucketOf(value);
+            long lower = ValueHistogram.lowerBound(bucket);
+            long upper = ValueHistogram.upperBound(bucket);
+            assertTrue(lower <= value && value <= upper);
+            assertTrue(upper - lower <= lower / 32);
+        }
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        ValueHistogram histogram = new ValueHistogram();
+
+        assertEquals(0, histogram.totalCount());
+        assertEquals(0, histogram.min());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.percentile(50));
+        assertTrue(histogram.powerOfTwoBuckets().isEmpty());
+    }
+
+    @Test
+    void percentilesUseTheBucketMidpoint() {
+        ValueHistogram histogram = new ValueHistogram();
+        histogram.add(ValueHistogram.bucketOf(10), 50);
+        histogram.add(ValueHistogram.bucketOf(1_000), 49);
+        histogram.add(ValueHistogram.bucketOf(100_000), 1);
+
+        int top = ValueHistogram.bucketOf(100_000);
+        assertEquals(100, histogram.totalCount());
+        assertEquals(10, histogram.min());
+        assertEquals(ValueHistogram.upperBound(top), histogram.max());
+        assertEquals(10, histogram.percentile(50));
+        assertEquals(992 + 15 / 2, histogram.percentile(51));
+        assertEquals(ValueHistogram.lowerBound(top)
+                + (ValueHistogram.upperBound(top) - ValueHistogram.lowerBound(top)) / 2, histogram.percentile(100));
+    }
+
+    @Test
+    void addIgnoresEmptyCounts() {
+        ValueHistogram histogram = new ValueHistogram();
+        histogram.add(3, 0);
+        histogram.add(4, -2);
+
+        assertEquals(0, histogram.totalCount());
+    }
+
+    @Test
+    void mergeSumsCounters() {
+        ValueHistogram first = new ValueHistogram();
+        first.add(ValueHistogram.bucketOf(5), 2);
+        ValueHistogram second = new ValueHistogram();
+        second.add(ValueHistogram.bucketOf(5), 1);
+        second.add(ValueHistogram.bucketOf(300), 4);
+
+        first.merge(second);
+
+        assertEquals(7, first.totalCount());
+        assertEquals(5, first.min());
+        assertEquals(5, first.percentile(40));
+        assertEquals(ValueHistogram.upperBound(ValueHistogram.bucketOf(300)), first.max());
+    }
+
+    @Test
+    void powerOfTwoBucketsGroupSubBuckets() {
+        ValueHistogram histogram = new ValueHistogram();
+        histogram.add(ValueHistogram.bucketOf(0), 1);
+        histogram.add(ValueHistogram.bucketOf(2), 1);
+        histogram.add(ValueHistogram.bucketOf(3), 2);
+        histogram.add(ValueHistogram.bucketOf(70), 3);
+        histogram.add(ValueHistogram.bucketOf(120), 4);
+
+        List<long[]> buckets = histogram.powerOfTwoBuckets();
+
+        assertEquals(3, buckets.size());
+        assertArrayEquals(new long[]{0, 0, 1}, buckets.get(0));
+        assertArrayEquals(new long[]{2, 3, 3}, buckets.get(1));
+        assertArrayEquals(new long[]{64, 127, 7}, buckets.get(2));
+    }
+}
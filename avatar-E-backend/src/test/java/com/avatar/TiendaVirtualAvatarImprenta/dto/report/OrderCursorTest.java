@@ -0,0 +1,54 @@
+package com.avatar.TiendaVirtualAvatarImprenta.dto.report;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.Order;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderCursorTest {
+
+    @Test
+    void encodeDecodeRoundTripKeepsNanos() {
+        OrderCursor cursor = new OrderCursor(Instant.parse("2025-09-13T15:04:05.123456789Z"), 4821L);
+
+        String token = cursor.encode();
+
+        assertEquals(cursor, OrderCursor.decode(token));
+        //url-safe y sin relleno: se puede pasar tal cual en la query
+        assertFalse(token.contains("=") || token.contains("+") || token.contains("/"));
+    }
+
+    @Test
+    void rejectsTokenThatIsNotBase64() {
+        assertThrows(ValidationException.class, () -> OrderCursor.decode("no es base64!"));
+    }
+
+    @Test
+    void rejectsTokenWithWrongShape() {
+        assertThrows(ValidationException.class, () -> OrderCursor.decode(token("1757775845:0")));
+        assertThrows(ValidationException.class, () -> OrderCursor.decode(token("1757775845:0:7:1")));
+        assertThrows(ValidationException.class, () -> OrderCursor.decode(token("1757775845:x:7")));
+    }
+
+    @Test
+    void orderDateInChileIsTheSameInstant() {
+        Instant instant = Instant.parse("2025-01-01T02:30:00Z");
+
+        OrderCursor cursor = new OrderCursor(instant, 1L);
+
+        assertEquals(instant, cursor.orderDateInChile().toInstant());
+        assertEquals(Order.ZONE_CHILE, cursor.orderDateInChile().getZone());
+        assertEquals(31, cursor.orderDateInChile().getDayOfMonth());
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
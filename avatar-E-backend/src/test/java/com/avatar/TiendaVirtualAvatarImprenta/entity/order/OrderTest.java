@@ -0,0 +1,58 @@
+package com.avatar.TiendaVirtualAvatarImprenta.entity.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderTest {
+
+    @Test
+    void changeStatusFollowsTheAllowedFlow() {
+        Order order = order(OrderStatus.PENDING);
+
+        order.changeStatus(OrderStatus.PAID);
+        order.changeStatus(OrderStatus.SHIPPED);
+
+        assertEquals(OrderStatus.SHIPPED, order.getStatus());
+    }
+
+    @Test
+    void changeStatusToSameOrNullIsIgnored() {
+        Order order = order(OrderStatus.CANCELLED);
+
+        order.changeStatus(OrderStatus.CANCELLED);
+        order.changeStatus(null);
+
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+    }
+
+    @Test
+    void changeStatusRejectsTransitionOutsideTheFlow() {
+        Order order = order(OrderStatus.CANCELLED);
+
+        BusinessException error = assertThrows(BusinessException.class, () -> order.changeStatus(OrderStatus.PAID));
+
+        assertEquals(HttpStatus.CONFLICT, error.getStatus());
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+    }
+
+    @Test
+    void changeStatusRejectsOrderWithoutStatus() {
+        Order order = order(null);
+
+        BusinessException error = assertThrows(BusinessException.class, () -> order.changeStatus(OrderStatus.PAID));
+
+        assertEquals(HttpStatus.CONFLICT, error.getStatus());
+    }
+
+    private static Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setCode("ORD-2025-00001");
+        order.setStatus(status);
+        return order;
+    }
+}
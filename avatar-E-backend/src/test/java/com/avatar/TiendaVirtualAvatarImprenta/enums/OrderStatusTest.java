@@ -0,0 +1,54 @@
+package com.avatar.TiendaVirtualAvatarImprenta.enums;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class OrderStatusTest {
+
+    //flujo esperado: cualquier par que no este aqui se rechaza (tambien en el cambio masivo)
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED = Map.of(
+            PENDING, EnumSet.of(PAID, CANCELLED),
+            PAID, EnumSet.of(SHIPPED, CANCELLED),
+            SHIPPED, EnumSet.of(DELIVERED, RETURNED),
+            DELIVERED, EnumSet.of(RETURNED),
+            CANCELLED, EnumSet.noneOf(OrderStatus.class),
+            RETURNED, EnumSet.noneOf(OrderStatus.class));
+
+    @Test
+    void transitionsFollowTheAdminFlow() {
+        for (OrderStatus from : OrderStatus.values()) {
+            for (OrderStatus to : OrderStatus.values()) {
+                assertEquals(ALLOWED.get(from).contains(to), from.canTransitionTo(to), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void finalStatusesCannotChange() {
+        for (OrderStatus to : OrderStatus.values()) {
+            assertFalse(CANCELLED.canTransitionTo(to));
+            assertFalse(RETURNED.canTransitionTo(to));
+        }
+    }
+
+    @Test
+    void sameStatusIsNotATransition() {
+        for (OrderStatus status : OrderStatus.values()) {
+            assertFalse(status.canTransitionTo(status));
+        }
+    }
+
+    @Test
+    void nullTargetIsRejected() {
+        for (OrderStatus status : OrderStatus.values()) {
+            assertFalse(status.canTransitionTo(null));
+        }
+    }
+}
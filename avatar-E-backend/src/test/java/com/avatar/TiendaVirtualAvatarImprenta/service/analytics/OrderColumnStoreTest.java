@@ -0,0 +1,168 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.analytics;
+
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderFactRow;
+import com.avatar.TiendaVirtualAvatarImprenta.dto.report.OrderSliceDTO;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.SliceDimension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderColumnStoreTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2025, 8, 31);
+    private static final LocalDate DAY_2 = LocalDate.of(2025, 9, 1);
+
+    private OrderColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OrderColumnStore();
+        store.upsertAll(List.of(
+                row(1L, DAY_1, OrderStatus.PAID, "10.00", "Metropolitana", "Santiago", true, "RETIRO"),
+                row(2L, DAY_1, OrderStatus.PENDING, "5.50", "Valparaiso", "Vina del Mar", false, "DESPACHO"),
+                row(3L, DAY_2, OrderStatus.PAID, "20.25", "Metropolitana", "Providencia", false, "DESPACHO"),
+                row(4L, null, OrderStatus.CANCELLED, "7.00", null, " ", null, null)));
+    }
+
+    @Test
+    void totalsWithoutFiltersIncludeUndatedOrders() {
+        OrderSliceDTO slice = aggregate(null, null, null, null, List.of());
+
+        assertEquals(4, slice.getTotalOrders());
+        assertEquals(new BigDecimal("42.75"), slice.getTotalAmount());
+        assertEquals(4, slice.getScannedRows());
+        assertEquals(1, slice.getGroups().size());
+    }
+
+    @Test
+    void upsertReplacesExistingOrder() {
+        store.upsertAll(List.of(row(2L, DAY_1, OrderStatus.PAID, "6.00", "Valparaiso", "Vina del Mar", false, "DESPACHO")));
+
+        OrderSliceDTO slice = aggregate(null, null, List.of(OrderStatus.PAID), null, List.of(SliceDimension.STATUS));
+
+        assertEquals(4, store.size());
+        assertEquals(3, slice.getTotalOrders());
+        assertEquals(new BigDecimal("36.25"), slice.getTotalAmount());
+    }
+
+    @Test
+    void groupsByStatusWithLargestAmountFirst() {
+        List<OrderSliceDTO.Group> groups = aggregate(null, null, null, null, List.of(SliceDimension.STATUS)).getGroups();
+
+        assertEquals(3, groups.size());
+        assertEquals("PAID", groups.get(0).getKeys().get("STATUS"));
+        assertEquals(2, groups.get(0).getOrders());
+        assertEquals(new BigDecimal("30.25"), groups.get(0).getAmount());
+        assertEquals("CANCELLED", groups.get(1).getKeys().get("STATUS"));
+        assertEquals("PENDING", groups.get(2).getKeys().get("STATUS"));
+    }
+
+    @Test
+    void blankTextsGroupAsUnknown() {
+        Map<String, Long> byRegion = ordersBy(aggregate(null, null, null, null, List.of(SliceDimension.REGION)), "REGION");
+
+        assertEquals(Map.of("Metropolitana", 2L, "Valparaiso", 1L, OrderColumnStore.UNKNOWN, 1L), byRegion);
+    }
+
+    @Test
+    void dayFilterIsInclusiveAndSkipsUndatedOrders() {
+        int day = (int) DAY_2.toEpochDay();
+
+        OrderSliceDTO slice = aggregate(day, day, null, null, List.of());
+
+        assertEquals(1, slice.getTotalOrders());
+        assertEquals(new BigDecimal("20.25"), slice.getTotalAmount());
+    }
+
+    @Test
+    void groupingByDayOrMonthLeavesOutUndatedOrders() {
+        Map<String, Long> byDay = ordersBy(aggregate(null, null, null, null, List.of(SliceDimension.DAY)), "DAY");
+        Map<String, Long> byMonth = ordersBy(aggregate(null, null, null, null, List.of(SliceDimension.MONTH)), "MONTH");
+
+        assertEquals(Map.of("2025-08-31", 2L, "2025-09-01", 1L), byDay);
+        assertEquals(Map.of("2025-08", 2L, "2025-09", 1L), byMonth);
+    }
+
+    @Test
+    void emptyStoreGroupedByDayHasNoGroups() {
+        OrderColumnStore empty = new OrderColumnStore();
+
+        OrderSliceDTO byDay = empty.aggregate(null, null, null, null, null, null, null, List.of(SliceDimension.DAY));
+        OrderSliceDTO byMonth = empty.aggregate(null, null, null, null, null, null, null,
+                List.of(SliceDimension.MONTH, SliceDimension.STATUS));
+
+        assertEquals(0, byDay.getTotalOrders());
+        assertTrue(byDay.getGroups().isEmpty());
+        assertTrue(byMonth.getGroups().isEmpty());
+    }
+
+    @Test
+    void onlyUndatedOrdersGroupedByDayHaveNoGroups() {
+        OrderColumnStore undated = new OrderColumnStore();
+        undated.upsertAll(List.of(row(1L, null, OrderStatus.PAID, "3.00", null, null, false, null)));
+
+        OrderSliceDTO slice = undated.aggregate(null, null, null, null, null, null, null, List.of(SliceDimension.DAY));
+
+        assertEquals(0, slice.getTotalOrders());
+    }
+
+    @Test
+    void combinesFiltersAndDimensions() {
+        OrderSliceDTO slice = aggregate(null, null, List.of(OrderStatus.PAID, OrderStatus.PENDING), false,
+                List.of(SliceDimension.REGION, SliceDimension.CUSTOMER_TYPE));
+
+        assertEquals(2, slice.getTotalOrders());
+        for (OrderSliceDTO.Group group : slice.getGroups()) {
+            assertEquals("PERSONA", group.getKeys().get("CUSTOMER_TYPE"));
+            assertEquals(1, group.getOrders());
+        }
+    }
+
+    @Test
+    void unknownFilterValueMatchesNothing() {
+        OrderSliceDTO slice = store.aggregate(null, null, null, List.of("Biobio"), null, null, null, List.of());
+
+        assertEquals(0, slice.getTotalOrders());
+        assertTrue(slice.getGroups().isEmpty());
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        List<OrderFactRow> rows = new ArrayList<>();
+        for (long id = 100; id < 100 + 20_000; id++) {
+            rows.add(row(id, DAY_2, OrderStatus.DELIVERED, "1.00", "Metropolitana", "Santiago", false, "RETIRO"));
+        }
+        store.upsertAll(rows);
+
+        OrderSliceDTO slice = aggregate(null, null, List.of(OrderStatus.DELIVERED), null, List.of());
+
+        assertEquals(20_004, store.size());
+        assertEquals(20_000, slice.getTotalOrders());
+        assertEquals(new BigDecimal("20000.00"), slice.getTotalAmount());
+    }
+
+    private OrderSliceDTO aggregate(Integer fromDay, Integer toDay, List<OrderStatus> statuses, Boolean business,
+                                    List<SliceDimension> groupBy) {
+        return store.aggregate(fromDay, toDay, statuses, null, null, business, null, groupBy);
+    }
+
+    private static Map<String, Long> ordersBy(OrderSliceDTO slice, String dimension) {
+        return slice.getGroups().stream()
+                .collect(Collectors.toMap(group -> group.getKeys().get(dimension), OrderSliceDTO.Group::getOrders));
+    }
+
+    private static OrderFactRow row(long id, LocalDate day, OrderStatus status, String amount, String region,
+                                    String comuna, Boolean business, String shippingMethod) {
+        return new OrderFactRow(id, day, status, new BigDecimal(amount), region, comuna, business, shippingMethod);
+    }
+}
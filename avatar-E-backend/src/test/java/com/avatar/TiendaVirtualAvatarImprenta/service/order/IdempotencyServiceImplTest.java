@@ -0,0 +1,215 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.IdempotencyKey;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.IdempotencyStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.BusinessException;
+import com.avatar.TiendaVirtualAvatarImprenta.exception.ValidationException;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceImplTest {
+
+    private static final String SCOPE = "user:7";
+    private static final String KEY = "3f1c9a52-retry";
+
+    private IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger created = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyKeyRepository.class);
+        when(repository.reserve(anyString(), anyString(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    void firstRequestRunsTheAction() {
+        IdempotencyServiceImpl service = newService();
+
+        IdempotencyService.Result<Created> result = execute(service, Map.of("userId", 7, "total", 1500));
+
+        assertFalse(result.replayed());
+        assertEquals(new Created(1, "ORD-2025-00001"), result.body());
+        verify(repository).complete(anyString(), anyString(), any(Instant.class));
+    }
+
+    @Test
+    void retryOnSameNodeReplaysTheResponse() {
+        IdempotencyServiceImpl service = newService();
+        Map<String, Object> request = Map.of("userId", 7, "total", 1500);
+
+        IdempotencyService.Result<Created> first = execute(service, request);
+        IdempotencyService.Result<Created> retry = execute(service, request);
+
+        assertTrue(retry.replayed());
+        assertEquals(first.body(), retry.body());
+        assertEquals(1, created.get());
+        //la repeticion sale de la cache: no vuelve a tomar la clave
+        verify(repository, times(1)).reserve(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void retryOnAnotherNodeReplaysTheStoredResponse() {
+        Map<String, Object> request = Map.of("userId", 7, "total", 1500);
+        IdempotencyService.Result<Created> first = execute(newService(), request);
+        IdempotencyKey stored = storedKey(IdempotencyStatus.COMPLETED);
+
+        //el otro nodo no tiene la respuesta en cache y la clave ya esta tomada
+        when(repository.reserve(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(repository.findByKeyHash(stored.getKeyHash())).thenReturn(Optional.of(stored));
+        IdempotencyService.Result<Created> retry = execute(newService(), request);
+
+        assertTrue(retry.replayed());
+        assertEquals(first.body(), retry.body());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void sameKeyWithAnotherRequestIsRejected() {
+        IdempotencyServiceImpl service = newService();
+        execute(service, Map.of("userId", 7, "total", 1500));
+
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> execute(service, Map.of("userId", 7, "total", 9900)));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatus());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void sameKeyWithAnotherRequestOnAnotherNodeIsRejected() {
+        execute(newService(), Map.of("userId", 7, "total", 1500));
+        IdempotencyKey stored = storedKey(IdempotencyStatus.COMPLETED);
+
+        when(repository.reserve(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(repository.findByKeyHash(stored.getKeyHash())).thenReturn(Optional.of(stored));
+        IdempotencyServiceImpl otherNode = newService();
+
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> execute(otherNode, Map.of("userId", 7, "total", 9900)));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatus());
+    }
+
+    @Test
+    void keyInProgressOnAnotherNodeIsAConflict() {
+        when(repository.reserve(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(repository.findByKeyHash(anyString())).thenReturn(Optional.of(IdempotencyKey.builder()
+                .status(IdempotencyStatus.IN_PROGRESS)
+                .requestHash("otro")
+                .build()));
+        IdempotencyServiceImpl service = newService();
+
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> execute(service, Map.of("userId", 7, "total", 1500)));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals(0, created.get());
+    }
+
+    @Test
+    void failedActionReleasesTheKeyAndTheRetryRunsAgain() {
+        IdempotencyServiceImpl service = newService();
+        Map<String, Object> request = Map.of("userId", 7, "total", 1500);
+
+        assertThrows(BusinessException.class, () -> service.execute(SCOPE, KEY, request, Created.class, () -> {
+            throw new BusinessException("Sin stock");
+        }));
+
+        ArgumentCaptor<String> keyHash = ArgumentCaptor.forClass(String.class);
+        verify(repository).release(keyHash.capture());
+        verify(repository, never()).complete(anyString(), anyString(), any(Instant.class));
+
+        IdempotencyService.Result<Created> retry = execute(service, request);
+
+        assertFalse(retry.replayed());
+        assertEquals(1, created.get());
+        verify(repository, times(2)).reserve(keyHash.capture(), anyString(), any(), any());
+        assertEquals(keyHash.getAllValues().get(0), keyHash.getAllValues().get(1));
+    }
+
+    @Test
+    void failedPrepareAlsoReleasesTheKey() {
+        IdempotencyServiceImpl service = newService();
+
+        assertThrows(IllegalStateException.class, () -> service.execute(SCOPE, KEY, Map.of("userId", 7), Created.class,
+                () -> {
+                    throw new IllegalStateException("sin numero de orden");
+                },
+                prepared -> create()));
+
+        verify(repository).release(anyString());
+        assertEquals(0, created.get());
+    }
+
+    @Test
+    void rejectsBlankOrTooLongKeys() {
+        IdempotencyServiceImpl service = newService();
+
+        assertThrows(ValidationException.class, () -> service.execute(SCOPE, " ", Map.of(), Created.class, this::create));
+        assertThrows(ValidationException.class,
+                () -> service.execute(SCOPE, "k".repeat(256), Map.of(), Created.class, this::create));
+        verify(repository, never()).reserve(anyString(), anyString(), any(), any());
+    }
+
+    private IdempotencyServiceImpl newService() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        IdempotencyServiceImpl service = new IdempotencyServiceImpl(repository, transactionTemplate, objectMapper);
+        ReflectionTestUtils.setField(service, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(service, "lockTimeout", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(service, "cacheSize", 100L);
+        service.init();
+        return service;
+    }
+
+    private IdempotencyService.Result<Created> execute(IdempotencyServiceImpl service, Object request) {
+        return service.execute(SCOPE, KEY, request, Created.class, this::create);
+    }
+
+    private Created create() {
+        int id = created.incrementAndGet();
+        return new Created(id, "ORD-2025-%05d".formatted(id));
+    }
+
+    //la fila que dejo la primera ejecucion (hashes y respuesta tal como se guardaron)
+    private IdempotencyKey storedKey(IdempotencyStatus status) {
+        ArgumentCaptor<String> keyHash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> requestHash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(repository).reserve(keyHash.capture(), requestHash.capture(), any(), any());
+        verify(repository).complete(any(), body.capture(), any());
+        return IdempotencyKey.builder()
+                .keyHash(keyHash.getValue())
+                .requestHash(requestHash.getValue())
+                .status(status)
+                .responseBody(body.getValue())
+                .build();
+    }
+
+    record Created(long orderId, String code) {
+    }
+}
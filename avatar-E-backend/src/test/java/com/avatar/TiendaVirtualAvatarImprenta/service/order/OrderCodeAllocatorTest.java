@@ -0,0 +1,137 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OrderCodeSequenceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderCodeAllocatorTest {
+
+    private static final int BLOCK_SIZE = 3;
+
+    //order_code_sequences en memoria: año -> next_value
+    private final Map<Integer, Long> sequences = new HashMap<>();
+    //mayor correlativo ya usado por año (codigos existentes)
+    private final Map<Integer, Long> maxCodes = new HashMap<>();
+
+    private OrderCodeSequenceRepository repository;
+    private OrderCodeAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OrderCodeSequenceRepository.class);
+        when(repository.existsById(anyInt())).thenAnswer(inv -> sequences.containsKey(inv.<Integer>getArgument(0)));
+        when(repository.findMaxCodeNumber(anyInt())).thenAnswer(inv -> maxCodes.getOrDefault(inv.<Integer>getArgument(0), 0L));
+        when(repository.findNextValue(anyInt())).thenAnswer(inv -> sequences.get(inv.<Integer>getArgument(0)));
+        //INSERT ... ON DUPLICATE KEY UPDATE next_value = next_value + blockSize
+        when(repository.reserveBlock(anyInt(), anyLong(), anyInt())).thenAnswer(inv -> {
+            int year = inv.getArgument(0);
+            long firstValue = inv.getArgument(1);
+            int blockSize = inv.getArgument(2);
+            sequences.merge(year, firstValue + blockSize, (current, ignored) -> current + blockSize);
+            return 1;
+        });
+        when(repository.raiseTo(anyInt(), anyLong())).thenAnswer(inv -> {
+            sequences.merge(inv.getArgument(0), inv.<Long>getArgument(1), Math::max);
+            return 1;
+        });
+
+        allocator = new OrderCodeAllocator(repository, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(allocator, "blockSize", BLOCK_SIZE);
+        allocator.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void firstBlockOfEmptyYearStartsAtOne() {
+        assertEquals(1, allocator.next(2025));
+        assertEquals(2, allocator.next(2025));
+        assertEquals(3, allocator.next(2025));
+
+        verify(repository).reserveBlock(2025, 1, BLOCK_SIZE);
+    }
+
+    @Test
+    void firstBlockContinuesAfterExistingCodes() {
+        //ordenes creadas antes de existir la tabla
+        maxCodes.put(2025, 41L);
+
+        assertEquals(42, allocator.next(2025));
+        assertEquals(43, allocator.next(2025));
+
+        verify(repository).reserveBlock(2025, 42, BLOCK_SIZE);
+    }
+
+    @Test
+    void exhaustedBlockReservesTheNextOne() {
+        for (long expected = 1; expected <= 2L * BLOCK_SIZE + 1; expected++) {
+            assertEquals(expected, allocator.next(2025));
+        }
+
+        verify(repository, times(3)).reserveBlock(eq(2025), anyLong(), eq(BLOCK_SIZE));
+        //solo el primer bloque mira los codigos existentes
+        verify(repository, times(1)).findMaxCodeNumber(2025);
+        assertEquals(3L * BLOCK_SIZE + 1, sequences.get(2025));
+    }
+
+    @Test
+    void blockReservedByAnotherNodeIsSkipped() {
+        assertEquals(1, allocator.next(2025));
+        //otro nodo toma el bloque siguiente
+        sequences.merge(2025, (long) BLOCK_SIZE, Long::sum);
+
+        assertEquals(2, allocator.next(2025));
+        assertEquals(3, allocator.next(2025));
+        assertEquals(2L * BLOCK_SIZE + 1, allocator.next(2025));
+    }
+
+    @Test
+    void eachYearHasItsOwnSequence() {
+        assertEquals(1, allocator.next(2025));
+        assertEquals(2, allocator.next(2025));
+        assertEquals(1, allocator.next(2026));
+        assertEquals(3, allocator.next(2025));
+        assertEquals(2, allocator.next(2026));
+    }
+
+    @Test
+    void realignDiscardsTheCurrentBlock() {
+        assertEquals(1, allocator.next(2025));
+        //se importaron ordenes hasta ORD-2025-00100
+        maxCodes.put(2025, 100L);
+
+        allocator.realign(2025);
+
+        assertEquals(101, allocator.next(2025));
+        assertEquals(102, allocator.next(2025));
+    }
+
+    @Test
+    void refusesToReserveInsideATransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(IllegalStateException.class, () -> allocator.next(2025));
+        verify(repository, never()).reserveBlock(anyInt(), anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,215 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.order;
+
+import com.avatar.TiendaVirtualAvatarImprenta.entity.order.OutboxEvent;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OrderStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.enums.OutboxStatus;
+import com.avatar.TiendaVirtualAvatarImprenta.event.order.OrderPlacedPayload;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OutboxEventRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.repository.order.OutboxHandlerRunRepository;
+import com.avatar.TiendaVirtualAvatarImprenta.service.report.OrderReportCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderOutboxServiceImplTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(5);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(30);
+    private static final Instant LOCKED_UNTIL = Instant.parse("2025-03-10T15:02:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private OutboxEventRepository outboxRepository;
+    private OutboxHandlerRunRepository handlerRunRepository;
+    private OrderPlacedHandler handler;
+    private OrderOutboxServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxEventRepository.class);
+        handlerRunRepository = mock(OutboxHandlerRunRepository.class);
+        handler = mock(OrderPlacedHandler.class);
+        when(handler.handlerName()).thenReturn("order-mail");
+        when(handler.transactional()).thenReturn(false);
+        when(outboxRepository.markFailed(anyLong(), any(), any(), any(), anyString())).thenReturn(1);
+        when(outboxRepository.markDone(anyLong(), any(), any())).thenReturn(1);
+
+        service = new OrderOutboxServiceImpl(outboxRepository, handlerRunRepository, List.of(handler),
+                mock(OrderReportCache.class), new TransactionTemplate(mock(PlatformTransactionManager.class)), objectMapper);
+        ReflectionTestUtils.setField(service, "workers", 1);
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "lease", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(service, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(service, "initialBackoff", INITIAL_BACKOFF);
+        ReflectionTestUtils.setField(service, "maxBackoff", MAX_BACKOFF);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    void backoffDoublesPerAttemptWithJitterInTheUpperHalf() {
+        for (int attempt = 1; attempt <= 5; attempt++) {
+            long expected = INITIAL_BACKOFF.toMillis() << (attempt - 1);
+            for (int i = 0; i < 200; i++) {
+                long millis = backoff(attempt).toMillis();
+                assertTrue(millis >= expected / 2 && millis <= expected,
+                        "intento " + attempt + ": " + millis + " fuera de [" + expected / 2 + ", " + expected + "]");
+            }
+        }
+    }
+
+    @Test
+    void backoffIsCappedAtMaxBackoff() {
+        long max = MAX_BACKOFF.toMillis();
+        //5s * 2^9 ya supera los 30 minutos; el desplazamiento se limita para no desbordar con muchos intentos
+        for (int attempt : new int[]{10, 21, 64, Integer.MAX_VALUE}) {
+            for (int i = 0; i < 200; i++) {
+                long millis = backoff(attempt).toMillis();
+                assertTrue(millis >= max / 2 && millis <= max, "intento " + attempt + ": " + millis);
+            }
+        }
+    }
+
+    @Test
+    void backoffBeforeTheFirstAttemptUsesTheInitialDelay() {
+        long initial = INITIAL_BACKOFF.toMillis();
+        for (int i = 0; i < 200; i++) {
+            long millis = backoff(0).toMillis();
+            assertTrue(millis >= initial / 2 && millis <= initial);
+        }
+    }
+
+    @Test
+    void backoffJitterSpreadsRetries() {
+        long first = backoff(4).toMillis();
+        boolean varied = false;
+        for (int i = 0; i < 50 && !varied; i++) {
+            varied = backoff(4).toMillis() != first;
+        }
+        assertTrue(varied);
+    }
+
+    @Test
+    void failedHandlerIsRescheduledWithBackoff() {
+        doThrow(new IllegalStateException("smtp caido")).when(handler).onOrderPlaced(any());
+        claim(event(1));
+        Instant before = Instant.now();
+
+        service.dispatchPending();
+
+        ArgumentCaptor<Instant> nextAttemptAt = ArgumentCaptor.forClass(Instant.class);
+        verify(outboxRepository).markFailed(eq(10L), eq(LOCKED_UNTIL), eq(OutboxStatus.PENDING),
+                nextAttemptAt.capture(), eq("order-mail: smtp caido"));
+        Duration delay = Duration.between(before, nextAttemptAt.getValue());
+        assertTrue(delay.compareTo(INITIAL_BACKOFF.dividedBy(2)) >= 0, delay.toString());
+        assertTrue(delay.compareTo(INITIAL_BACKOFF.plusSeconds(1)) <= 0, delay.toString());
+        verify(outboxRepository, never()).markDone(anyLong(), any(), any());
+        //el handler no termino: no queda marcado y el reintento lo repite
+        verify(handlerRunRepository, never()).markRun(anyLong(), anyString(), any());
+    }
+
+    @Test
+    void eventIsDeadAfterMaxAttempts() {
+        doThrow(new IllegalStateException("smtp caido")).when(handler).onOrderPlaced(any());
+        claim(event(MAX_ATTEMPTS));
+
+        service.dispatchPending();
+
+        verify(outboxRepository).markFailed(eq(10L), eq(LOCKED_UNTIL), eq(OutboxStatus.DEAD), any(), eq("order-mail: smtp caido"));
+        verify(outboxRepository, never()).markFailed(anyLong(), any(), eq(OutboxStatus.PENDING), any(), anyString());
+        assertEquals(1L, service.stats().get("deadLettered"));
+    }
+
+    @Test
+    void eventBelowMaxAttemptsIsNotDead() {
+        doThrow(new IllegalStateException("smtp caido")).when(handler).onOrderPlaced(any());
+        claim(event(MAX_ATTEMPTS - 1));
+
+        service.dispatchPending();
+
+        verify(outboxRepository).markFailed(eq(10L), eq(LOCKED_UNTIL), eq(OutboxStatus.PENDING), any(), anyString());
+        assertEquals(0L, service.stats().get("deadLettered"));
+    }
+
+    @Test
+    void unreadablePayloadIsDeadOnFirstAttempt() {
+        OutboxEvent event = event(1);
+        event.setPayload("{no es json");
+        claim(event);
+
+        service.dispatchPending();
+
+        verify(outboxRepository).markFailed(eq(10L), eq(LOCKED_UNTIL), eq(OutboxStatus.DEAD), any(), anyString());
+        verify(handler, never()).onOrderPlaced(any());
+    }
+
+    @Test
+    void successfulEventIsMarkedDone() {
+        claim(event(1));
+
+        service.dispatchPending();
+
+        verify(handler).onOrderPlaced(any());
+        verify(handlerRunRepository).markRun(eq(10L), eq("order-mail"), any());
+        verify(outboxRepository).markDone(eq(10L), eq(LOCKED_UNTIL), any());
+        verify(outboxRepository, never()).markFailed(anyLong(), any(), any(), any(), anyString());
+    }
+
+    private Duration backoff(int attempt) {
+        return ReflectionTestUtils.invokeMethod(service, "backoff", attempt);
+    }
+
+    private void claim(OutboxEvent event) {
+        when(outboxRepository.lockClaimable(any(), anyInt())).thenReturn(List.of(event.getId()), List.of());
+        when(outboxRepository.findAllById(anyList())).thenReturn(List.of(event));
+    }
+
+    //evento ya tomado: attempts incluye el intento en curso
+    private OutboxEvent event(int attempts) {
+        OrderPlacedPayload payload = new OrderPlacedPayload(55L, "ORD-2025-00055", OrderStatus.PENDING,
+                LocalDate.of(2025, 3, 10), new BigDecimal("15990.00"), "cliente@example.com", "Ana");
+        try {
+            return OutboxEvent.builder()
+                    .id(10L)
+                    .eventType(OutboxEvent.ORDER_PLACED)
+                    .aggregateId(55L)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .status(OutboxStatus.PROCESSING)
+                    .attempts(attempts)
+                    .lockedUntil(LOCKED_UNTIL)
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.avatar.TiendaVirtualAvatarImprenta.service.pricing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceCatalogTest {
+
+    private PriceCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        //filas en cualquier orden, como llegan del catalogo
+        catalog = new PriceCatalog.Builder()
+                .tier(20L, 500, 45_000)
+                .material(20L, 7L, 1_500)
+                .product(20L, 9_990, true)
+                .tier(20L, 100, 12_000)
+                .tier(20L, 1000, 80_000)
+                .product(10L, 2_500, false)
+                .material(10L, 9L, 300)
+                .material(10L, 3L, 0)
+                .tier(99L, 50, 1_000)
+                .material(99L, 3L, 100)
+                .shipping(2L, 4_990)
+                .shipping(1L, 0)
+                .build(7L);
+    }
+
+    @Test
+    void findsProductsByIdRegardlessOfInsertionOrder() {
+        int simple = catalog.productIndex(10L);
+        int pattern = catalog.productIndex(20L);
+
+        assertEquals(0, simple);
+        assertEquals(1, pattern);
+        assertEquals(2_500, catalog.basePriceCents(simple));
+        assertFalse(catalog.isPatternPricing(simple));
+        assertEquals(9_990, catalog.basePriceCents(pattern));
+        assertTrue(catalog.isPatternPricing(pattern));
+        assertEquals(7L, catalog.version());
+    }
+
+    @Test
+    void unknownProductIsNotFound() {
+        assertEquals(-1, catalog.productIndex(15L));
+        assertEquals(-1, catalog.productIndex(1L));
+        assertEquals(-1, catalog.productIndex(1_000L));
+    }
+
+    @Test
+    void rulesOfUnlistedProductsAreDropped() {
+        assertEquals(-1, catalog.productIndex(99L));
+        assertEquals(2, catalog.productCount());
+        assertEquals(3, catalog.tierCount());
+        assertEquals(3, catalog.materialCount());
+    }
+
+    @Test
+    void tierPriceMatchesExactQuantityOnly() {
+        int pattern = catalog.productIndex(20L);
+
+        assertEquals(12_000, catalog.tierPriceCents(pattern, 100));
+        assertEquals(45_000, catalog.tierPriceCents(pattern, 500));
+        assertEquals(80_000, catalog.tierPriceCents(pattern, 1000));
+        assertEquals(PriceCatalog.NOT_FOUND, catalog.tierPriceCents(pattern, 200));
+        assertArrayEquals(new int[]{100, 500, 1000}, catalog.tierQuantities(pattern));
+    }
+
+    @Test
+    void tierAndMaterialLookupsStayWithinTheProduct() {
+        int simple = catalog.productIndex(10L);
+        int pattern = catalog.productIndex(20L);
+
+        assertEquals(PriceCatalog.NOT_FOUND, catalog.tierPriceCents(simple, 100));
+        assertArrayEquals(new int[0], catalog.tierQuantities(simple));
+        assertEquals(0, catalog.materialSurchargeCents(simple, 3L));
+        assertEquals(300, catalog.materialSurchargeCents(simple, 9L));
+        assertEquals(PriceCatalog.NOT_FOUND, catalog.materialSurchargeCents(simple, 7L));
+        assertEquals(1_500, catalog.materialSurchargeCents(pattern, 7L));
+        assertEquals(PriceCatalog.NOT_FOUND, catalog.materialSurchargeCents(pattern, 9L));
+    }
+
+    @Test
+    void shippingCostByMethod() {
+        assertEquals(0, catalog.shippingCostCents(1L));
+        assertEquals(4_990, catalog.shippingCostCents(2L));
+        assertEquals(PriceCatalog.NOT_FOUND, catalog.shippingCostCents(3L));
+    }
+
+    @Test
+    void laterRowsReplaceEarlierOnes() {
+        PriceCatalog updated = new PriceCatalog.Builder()
+                .product(10L, 2_500, false)
+                .product(10L, 2_700, false)
+                .material(10L, 3L, 100)
+                .material(10L, 3L, 200)
+                .build(8L);
+
+        int product = updated.productIndex(10L);
+        assertEquals(2_700, updated.basePriceCents(product));
+        assertEquals(200, updated.materialSurchargeCents(product, 3L));
+        assertEquals(1, updated.materialCount());
+    }
+
+    @Test
+    void emptyCatalogFindsNothing() {
+        PriceCatalog empty = new PriceCatalog.Builder().build(0L);
+
+        assertEquals(0, empty.productCount());
+        assertEquals(-1, empty.productIndex(10L));
+        assertEquals(PriceCatalog.NOT_FOUND, empty.shippingCostCents(1L));
+    }
+}